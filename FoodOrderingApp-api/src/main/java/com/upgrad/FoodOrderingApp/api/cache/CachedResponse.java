@@ -0,0 +1,22 @@
+package com.upgrad.FoodOrderingApp.api.cache;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public GET endpoint whose response is the same for every caller, so that its serialized
+ * body can be served from the ResponseCache.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+
+  /**
+   * The catalog changes that drop the cached responses of the endpoint. Every endpoint depends on
+   * the reference data, only those showing ratings depend on the ratings.
+   */
+  CatalogChangedEvent.Change[] evictOn() default CatalogChangedEvent.Change.REFERENCE_DATA;
+}
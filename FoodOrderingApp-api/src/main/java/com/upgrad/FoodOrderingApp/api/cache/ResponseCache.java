@@ -0,0 +1,187 @@
+package com.upgrad.FoodOrderingApp.api.cache;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serialized response bodies of the public catalog endpoints keyed by request URI and query string,
+ * each with a strong ETag over its bytes.
+ *
+ * <p>Every entry records the catalog changes its endpoint declares in {@link CachedResponse}, and is
+ * dropped once a CatalogChangedEvent of one of them is committed, so that a rating only drops the
+ * restaurant listings and not the reference data responses. Entries also expire after a time to
+ * live, which bounds how long changes made by other instances or directly in the database go
+ * unnoticed.
+ *
+ * <p>Every change counts the times it was committed. A body is only cached if none of the changes
+ * it depends on was committed since the request read the counts before building it, as it may have
+ * been built from the data before the change and would otherwise outlive the eviction.
+ */
+@Component
+public class ResponseCache {
+
+  private final boolean enabled;
+
+  private final long ttlMillis;
+
+  private final Map<String, Entry> entries;
+
+  // Commits of every change by its ordinal, guarded by entries like the eviction they count
+  private final long[] generations = new long[CatalogChangedEvent.Change.values().length];
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ResponseCache(
+      @Value("${food-ordering-app.response-cache.enabled:true}") final boolean enabled,
+      @Value("${food-ordering-app.response-cache.max-entries:1000}") final int maxEntries,
+      @Value("${food-ordering-app.response-cache.ttl-seconds:60}") final long ttlSeconds) {
+    this.enabled = enabled;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @param key The request URI and query string
+   * @return The cached response, or null if there is none or it has expired
+   */
+  public Entry get(final String key) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && System.currentTimeMillis() >= entry.cachedUntil) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return entry;
+  }
+
+  /**
+   * @return The number of times every catalog change has been committed so far, by the ordinal of
+   *     the change, to be read before building a body that is passed to put
+   */
+  public long[] getGenerations() {
+    synchronized (entries) {
+      return generations.clone();
+    }
+  }
+
+  /**
+   * Caches a serialized response body, unless a change it depends on was committed since the given
+   * generations were read.
+   *
+   * @param key The request URI and query string
+   * @param generations The generations read before the body was built
+   * @param body The serialized body
+   * @param contentType The content type the body was serialized as
+   * @param evictOn The catalog changes that drop the entry
+   * @return The entry, carrying the ETag of the body, whether it was cached or not
+   */
+  public Entry put(final String key, final long[] generations, final byte[] body, final String contentType,
+      final CatalogChangedEvent.Change... evictOn) {
+    Entry entry = new Entry(body, contentType, etag(body), System.currentTimeMillis() + ttlMillis,
+        evictOn.length == 0 ? EnumSet.noneOf(CatalogChangedEvent.Change.class) : EnumSet.copyOf(Arrays.asList(evictOn)));
+    synchronized (entries) {
+      for (CatalogChangedEvent.Change change : entry.evictOn) {
+        if (this.generations[change.ordinal()] != generations[change.ordinal()]) {
+          return entry;
+        }
+      }
+      entries.put(key, entry);
+    }
+    return entry;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(final CatalogChangedEvent event) {
+    synchronized (entries) {
+      generations[event.getChange().ordinal()]++;
+      entries.values().removeIf(entry -> entry.evictOn.contains(event.getChange()));
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private static String etag(final byte[] body) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+      StringBuilder etag = new StringBuilder("\"");
+      for (int i = 0; i < 16; i++) {
+        etag.append(String.format("%02x", digest[i]));
+      }
+      return etag.append('"').toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * One cached response.
+   */
+  public static final class Entry {
+
+    private final byte[] body;
+    private final String contentType;
+    private final String etag;
+    private final long cachedUntil;
+    private final EnumSet<CatalogChangedEvent.Change> evictOn;
+
+    private Entry(final byte[] body, final String contentType, final String etag, final long cachedUntil,
+        final EnumSet<CatalogChangedEvent.Change> evictOn) {
+      this.body = body;
+      this.contentType = contentType;
+      this.etag = etag;
+      this.cachedUntil = cachedUntil;
+      this.evictOn = evictOn;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getEtag() {
+      return etag;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.upgrad.FoodOrderingApp.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Caches the body returned by an endpoint marked with {@link CachedResponse} after a cache miss,
+ * serialized with the same ObjectMapper the JSON message converter uses, and sets its ETag. The
+ * body is left uncached if the catalog changes it depends on were committed while it was built.
+ */
+@ControllerAdvice
+public class ResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+  @Autowired
+  private ResponseCache responseCache;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return returnType.hasMethodAnnotation(CachedResponse.class);
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (body == null || !(request instanceof ServletServerHttpRequest)
+        || !(response instanceof ServletServerHttpResponse)) {
+      return body;
+    }
+    HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+    HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+    String key = (String) servletRequest.getAttribute(ResponseCacheInterceptor.CACHE_KEY_ATTRIBUTE);
+    long[] generations = (long[]) servletRequest.getAttribute(ResponseCacheInterceptor.GENERATIONS_ATTRIBUTE);
+    if (key == null || servletResponse.getStatus() != HttpServletResponse.SC_OK) {
+      return body;
+    }
+
+    try {
+      ResponseCache.Entry entry = responseCache.put(key, generations, objectMapper.writeValueAsBytes(body),
+          selectedContentType.toString(), returnType.getMethodAnnotation(CachedResponse.class).evictOn());
+      response.getHeaders().setETag(entry.getEtag());
+    } catch (JsonProcessingException e) {
+      // Left uncached, the converter reports the failure when it writes the body
+    }
+    return body;
+  }
+}
@@ -0,0 +1,74 @@
+package com.upgrad.FoodOrderingApp.api.cache;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Answers GET requests to endpoints marked with {@link CachedResponse} from the ResponseCache, with
+ * 304 Not Modified when the client already holds the current ETag. On a miss the request goes on
+ * to the controller and {@link ResponseCacheAdvice} caches the body it returns, unless the catalog
+ * changed in between.
+ *
+ * <p>Runs after the CORS handling of the handler mapping, so cached responses carry the same CORS
+ * headers as freshly built ones.
+ */
+@Component
+public class ResponseCacheInterceptor extends HandlerInterceptorAdapter {
+
+  static final String CACHE_KEY_ATTRIBUTE = ResponseCacheInterceptor.class.getName() + ".key";
+
+  static final String GENERATIONS_ATTRIBUTE = ResponseCacheInterceptor.class.getName() + ".generations";
+
+  @Autowired
+  private ResponseCache responseCache;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws Exception {
+    if (!responseCache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+        || !(handler instanceof HandlerMethod)
+        || !((HandlerMethod) handler).hasMethodAnnotation(CachedResponse.class)) {
+      return true;
+    }
+
+    String key = request.getQueryString() == null
+        ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+    ResponseCache.Entry entry = responseCache.get(key);
+    if (entry == null) {
+      // Read before the controller reads the data, so that a change committed meanwhile is noticed
+      request.setAttribute(GENERATIONS_ATTRIBUTE, responseCache.getGenerations());
+      request.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+      return true;
+    }
+
+    response.setHeader(HttpHeaders.ETAG, entry.getEtag());
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.getEtag())) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return false;
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(entry.getContentType());
+    response.setContentLength(entry.getBody().length);
+    response.getOutputStream().write(entry.getBody());
+    return false;
+  }
+
+  private static boolean matches(final String ifNoneMatch, final String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*") || trimmed.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,38 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This Configuration runs the asynchronous responses, such as the streamed order history, on a bounded pool instead of
+ * the SimpleAsyncTaskExecutor Spring MVC uses by default, which starts a new thread for every response. Responses
+ * beyond the pool and its queue are refused with 503 by the RestExceptionHandler.
+ */
+@Configuration
+public class AsyncRequestConfiguration implements WebMvcConfigurer {
+
+    @Value("${food-ordering-app.async-requests.threads:8}")
+    private int threads;
+
+    @Value("${food-ordering-app.async-requests.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor asyncRequestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("async-request-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(asyncRequestExecutor());
+    }
+}
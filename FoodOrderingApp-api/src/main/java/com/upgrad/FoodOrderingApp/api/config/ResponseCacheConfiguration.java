@@ -0,0 +1,22 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.upgrad.FoodOrderingApp.api.cache.ResponseCacheInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This Configuration registers the interceptor serving the public catalog endpoints from the response cache.
+ */
+@Configuration
+public class ResponseCacheConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private ResponseCacheInterceptor responseCacheInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(responseCacheInterceptor);
+    }
+}
@@ -0,0 +1,91 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.upgrad.FoodOrderingApp.api.metrics.ApplicationMetrics;
+import com.upgrad.FoodOrderingApp.service.businness.AdminService;
+import com.upgrad.FoodOrderingApp.service.businness.CatalogEntityCache;
+import com.upgrad.FoodOrderingApp.service.businness.ReferenceDataCache;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+  @Autowired
+  private AdminService adminService;
+
+  @Autowired
+  private ReferenceDataCache referenceDataCache;
+
+  @Autowired
+  private CatalogEntityCache catalogEntityCache;
+
+  @Autowired
+  private ApplicationMetrics applicationMetrics;
+
+  /**
+   * Reloads the cached states, payment methods, categories and coupons, for use after the reference
+   * tables have been changed
+   *
+   * @param authorization The admin token in the format "Bearer token"
+   * @return 204 if the reference data was reloaded, 503 if the database could not be read
+   * @throws AuthorizationFailedException If the admin token is missing or doesn't match
+   */
+  @RequestMapping(method = RequestMethod.POST, path = "/reference-data/refresh")
+  public ResponseEntity<Void> refreshReferenceData(
+      @RequestHeader("authorization") final String authorization)
+      throws AuthorizationFailedException {
+    adminService.authorize(UtilityProvider.decodeBearerToken(authorization));
+
+    if (!referenceDataCache.refresh()) {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  /**
+   * Reports the hits, misses and puts of every region of the second-level cache since startup
+   *
+   * @param authorization The admin token in the format "Bearer token"
+   * @return The counts by region name
+   * @throws AuthorizationFailedException If the admin token is missing or doesn't match
+   */
+  @RequestMapping(method = RequestMethod.GET, path = "/cache-statistics", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<Map<String, Map<String, Long>>> getCacheStatistics(
+      @RequestHeader("authorization") final String authorization)
+      throws AuthorizationFailedException {
+    adminService.authorize(UtilityProvider.decodeBearerToken(authorization));
+
+    return new ResponseEntity<>(catalogEntityCache.getRegionStatistics(), HttpStatus.OK);
+  }
+
+  /**
+   * Reports the latencies of the endpoints, the error responses by code, the connection pools,
+   * Hibernate, the caches and the JVM, for a Prometheus server to scrape
+   *
+   * @param authorization The admin token in the format "Bearer token"
+   * @return The meters in the Prometheus text format
+   * @throws AuthorizationFailedException If the admin token is missing or doesn't match
+   */
+  // The content type is set on the response, as a producible type would also apply to the JSON of errors
+  @RequestMapping(method = RequestMethod.GET, path = "/metrics")
+  public ResponseEntity<String> getMetrics(
+      @RequestHeader("authorization") final String authorization)
+      throws AuthorizationFailedException {
+    adminService.authorize(UtilityProvider.decodeBearerToken(authorization));
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(TextFormat.CONTENT_TYPE_004))
+        .body(applicationMetrics.scrape());
+  }
+}
@@ -1,6 +1,7 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
 
+import com.upgrad.FoodOrderingApp.api.cache.CachedResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoriesListResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoryDetailsResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoryListResponse;
@@ -33,6 +34,7 @@ public class CategoryController {
     //Lists call categories
     //No input
     @CrossOrigin
+    @CachedResponse
     @RequestMapping(method = RequestMethod.GET, path="/category" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<CategoriesListResponse> getAllCategories()
     {
@@ -59,6 +61,7 @@ public class CategoryController {
    * @throws CategoryNotFoundException If the category uuid is not matched with any of the records
    *                                   in Database
    */
+  @CachedResponse
   @RequestMapping(method = RequestMethod.GET,
       produces = MediaType.APPLICATION_JSON_UTF8_VALUE, path = "/category/{category_id}")
   public ResponseEntity<CategoryDetailsResponse> getCategoryDetails(
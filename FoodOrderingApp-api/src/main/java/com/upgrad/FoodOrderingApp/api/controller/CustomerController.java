@@ -13,6 +13,7 @@ import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
 import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
@@ -51,7 +52,7 @@ public class CustomerController {
       consumes = MediaType.APPLICATION_JSON_UTF8_VALUE,
       produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<SignupCustomerResponse> customerSignup(@RequestBody final SignupCustomerRequest signupCustomerRequest)
-      throws SignUpRestrictedException {
+      throws SignUpRestrictedException, ServiceBusyException {
 
     //Fetch details from signupCustomerRequest and set in CustomerEntity instance
     //Perform null check for mandatory fields
@@ -95,7 +96,7 @@ public class CustomerController {
       produces = MediaType.APPLICATION_JSON_UTF8_VALUE, consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<LoginResponse> login(
       @RequestHeader("authorization") final String authorization)
-      throws AuthenticationFailedException {
+      throws AuthenticationFailedException, ServiceBusyException {
 
     //Split authorization header to get username and password
     byte[] decode = null;
@@ -226,7 +227,7 @@ public class CustomerController {
   public ResponseEntity<UpdatePasswordResponse> updateCustomerPassword(
       @RequestHeader("authorization") final String authorization,
       @RequestBody UpdatePasswordRequest updatePasswordRequest)
-      throws UpdateCustomerException, AuthorizationFailedException {
+      throws UpdateCustomerException, AuthorizationFailedException, ServiceBusyException {
     // Check for empty field validation
     if (updatePasswordRequest.getOldPassword() == null || updatePasswordRequest.getOldPassword()
         .isEmpty()
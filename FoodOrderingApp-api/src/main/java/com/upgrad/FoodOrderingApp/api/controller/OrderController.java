@@ -1,6 +1,9 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrad.FoodOrderingApp.api.model.CustomerOrderResponse;
+import com.upgrad.FoodOrderingApp.api.model.ErrorResponse;
 import com.upgrad.FoodOrderingApp.api.model.ItemQuantity;
 import com.upgrad.FoodOrderingApp.api.model.ItemQuantityResponse;
 import com.upgrad.FoodOrderingApp.api.model.ItemQuantityResponseItem;
@@ -14,10 +17,12 @@ import com.upgrad.FoodOrderingApp.api.model.SaveOrderRequest;
 import com.upgrad.FoodOrderingApp.api.model.SaveOrderResponse;
 import com.upgrad.FoodOrderingApp.service.businness.AddressService;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
-import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.OrderService;
 import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.Page;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
@@ -30,6 +35,7 @@ import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.CouponNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageRequestException;
 import com.upgrad.FoodOrderingApp.service.exception.ItemNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.PaymentMethodNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
@@ -38,7 +44,10 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -48,12 +57,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin
 @RestController
 public class OrderController {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(OrderController.class);
+
   @Autowired
   private CustomerService customerService;
 
@@ -70,7 +83,11 @@ public class OrderController {
   private RestaurantService restaurantService;
 
   @Autowired
-  private ItemService itemService;
+  private ObjectMapper objectMapper;
+
+  // Orders read per page while streaming the history, the largest page the service allows
+  @Value("${food-ordering-app.pagination.max-page-size:100}")
+  private int streamPageSize;
 
   /**
    * Validate customer session and retrieves the coupon details based on the coupon name Throw error
@@ -164,7 +181,7 @@ public class OrderController {
       throw new RestaurantNotFoundException("RNF-001", "No restaurant by this id");
     }
 
-    // Populate the order details and save to Database
+    // Populate the order details
     OrderEntity order = new OrderEntity();
     order.setCustomer(loggedInCustomer);
     order.setCoupon(coupon);
@@ -175,21 +192,23 @@ public class OrderController {
         saveOrderRequest.getBill().doubleValue() : null);
     order.setDiscount(saveOrderRequest.getDiscount() != null ?
         saveOrderRequest.getDiscount().doubleValue() : null);
-    final OrderEntity savedOrder = orderService.saveOrder(order);
 
+    // Populate the order items, the items are referred to by uuid and resolved while placing the order
+    List<OrderItemEntity> orderItems = new ArrayList<>();
     List<ItemQuantity> itemQuantities = saveOrderRequest.getItemQuantities();
-    // Iterate all the items and save to database
-    if (itemQuantities != null && !itemQuantities.isEmpty()) {
+    if (itemQuantities != null) {
       for (ItemQuantity itemQuantity : itemQuantities) {
-        ItemEntity item = itemService.getItemByUUID(String.valueOf(itemQuantity.getItemId()));
+        ItemEntity item = new ItemEntity();
+        item.setUuid(String.valueOf(itemQuantity.getItemId()));
         OrderItemEntity orderItem = new OrderItemEntity();
         orderItem.setItem(item);
-        orderItem.setOrder(savedOrder);
         orderItem.setQuantity(itemQuantity.getQuantity());
         orderItem.setPrice(itemQuantity.getPrice());
-        orderService.saveOrderItem(orderItem);
+        orderItems.add(orderItem);
       }
     }
+    // Save the order along with all its items to Database
+    final OrderEntity savedOrder = orderService.placeOrder(order, orderItems);
 
     SaveOrderResponse response = new SaveOrderResponse();
     response.id(savedOrder.getUuid()).status("ORDER SUCCESSFULLY PLACED");
@@ -197,105 +216,178 @@ public class OrderController {
   }
 
   /**
-   * Validate customer session and retrieves the list of past orders placed by logged in user throws
-   * error when customer access token is invalid/expired/logged out
+   * Validate customer session and retrieves a page of the past orders placed by logged in user,
+   * newest first, throws error when customer access token is invalid/expired/logged out
    *
    * @param authorization The Bearer authorization token from the headers
-   * @return The List of orders along with the items ordered
+   * @param limit         The maximum number of orders in the page
+   * @param cursor        The next cursor of the previous page, the first page when not given
+   * @return The List of orders along with the items ordered, and the cursor of the next page
    * @throws AuthorizationFailedException If the token is invalid or expired or not present in
    *                                      Database
+   * @throws InvalidPageRequestException  If the cursor is malformed or the limit is out of range
    */
   @RequestMapping(method = RequestMethod.GET,
       produces = MediaType.APPLICATION_JSON_UTF8_VALUE, path = "/order")
   public ResponseEntity<CustomerOrderResponse> getPastOrdersOfUser(
-      @RequestHeader("authorization") final String authorization)
-      throws AuthorizationFailedException {
+      @RequestHeader("authorization") final String authorization,
+      @RequestParam(name = "limit", required = false) final Integer limit,
+      @RequestParam(name = "cursor", required = false) final String cursor)
+      throws AuthorizationFailedException, InvalidPageRequestException {
     // Validate customer session
     CustomerEntity customer = customerService
         .getCustomer(UtilityProvider.decodeBearerToken(authorization));
 
-    // Get all the past orders by customer uuid
-    List<OrderEntity> pastOrders = orderService.getOrdersByCustomers(customer.getUuid());
+    // Get a page of the past orders by customer uuid
+    Page<OrderEntity> pastOrders = orderService.getOrdersByCustomers(customer.getUuid(), cursor, limit);
     CustomerOrderResponse response = new CustomerOrderResponse();
-    if (pastOrders != null && !pastOrders.isEmpty()) {
-      pastOrders.forEach(pastOrder -> {
-        OrderList orderList = new OrderList();
-        // Set the bill details
-        orderList.id(UUID.fromString(pastOrder.getUuid()))
-            .bill(BigDecimal.valueOf(pastOrder.getBill()))
-            .discount(BigDecimal.valueOf(pastOrder.getDiscount()))
-            .date(pastOrder.getDate().toString());
+    pastOrders.getItems().forEach(pastOrder -> response.addOrdersItem(getOrderList(pastOrder)));
+    // If the user has no previous order, set an empty list
+    if (response.getOrders() == null) {
+      response.setOrders(new ArrayList<OrderList>());
+    }
+    response.nextCursor(pastOrders.getNextCursor());
+    return new ResponseEntity<CustomerOrderResponse>(response, HttpStatus.OK);
+  }
+
+  /**
+   * Validate customer session and streams all the past orders placed by logged in user, newest
+   * first, in one chunked response. The orders are read and written one page at a time, so neither
+   * the whole history nor the whole response is held in memory
+   *
+   * <p>The status 200 is sent with the first page. If reading a later page fails, the orders array
+   * is closed and followed by an "error" member with the code and message of the failure, so a
+   * client must check for it before taking the orders as complete. A response cut off before its
+   * closing brace is incomplete as well
+   *
+   * @param authorization The Bearer authorization token from the headers
+   * @return The List of all orders along with the items ordered, written as they are read, and the
+   *     error that ended it early if any
+   * @throws AuthorizationFailedException If the token is invalid or expired or not present in
+   *                                      Database
+   */
+  @RequestMapping(method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_UTF8_VALUE, path = "/order", params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamPastOrdersOfUser(
+      @RequestHeader("authorization") final String authorization)
+      throws AuthorizationFailedException {
+    // Validate customer session before the response is committed
+    CustomerEntity customer = customerService
+        .getCustomer(UtilityProvider.decodeBearerToken(authorization));
+
+    StreamingResponseBody body = outputStream -> {
+      JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("orders");
+      String cursor = null;
+      try {
+        do {
+          Page<OrderEntity> pastOrders;
+          try {
+            pastOrders = orderService.getOrdersByCustomers(customer.getUuid(), cursor, streamPageSize);
+          } catch (InvalidPageRequestException e) {
+            // The cursors are the ones returned by the service, they are never rejected
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+          }
+          for (OrderEntity pastOrder : pastOrders.getItems()) {
+            generator.writeObject(getOrderList(pastOrder));
+          }
+          // Send every page as a chunk of its own
+          generator.flush();
+          cursor = pastOrders.getNextCursor();
+        } while (cursor != null);
+        generator.writeEndArray();
+      } catch (RuntimeException e) {
+        // The status and the orders sent so far cannot be taken back, the failure is reported after them
+        LOGGER.error("Streaming the orders of customer {} failed", customer.getUuid(), e);
+        generator.writeEndArray();
+        generator.writeObjectField("error", new ErrorResponse()
+            .code(GenericErrorCode.GEN_001.getCode())
+            .message(GenericErrorCode.GEN_001.getDefaultMessage()));
+      }
+      generator.writeEndObject();
+      generator.close();
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(body);
+  }
 
-        CouponEntity pastOrderCoupon = pastOrder.getCoupon();
-        // Set the coupon details if any applied while placing the order
-        if (pastOrderCoupon != null) {
-          OrderListCoupon coupon = new OrderListCoupon();
-          coupon.id(UUID.fromString(pastOrderCoupon.getUuid()));
-          coupon.couponName(pastOrderCoupon.getCouponName());
-          coupon.percent(pastOrderCoupon.getPercent());
-          orderList.coupon(coupon);
-        }
+  /**
+   * Converts a past order, with its order items loaded, to its representation in the response
+   *
+   * @param pastOrder The order placed by the customer
+   * @return The order details along with the items ordered
+   */
+  private OrderList getOrderList(OrderEntity pastOrder) {
+    OrderList orderList = new OrderList();
+    // Set the bill details
+    orderList.id(UUID.fromString(pastOrder.getUuid()))
+        .bill(BigDecimal.valueOf(pastOrder.getBill()))
+        .discount(BigDecimal.valueOf(pastOrder.getDiscount()))
+        .date(pastOrder.getDate().toString());
 
-        // Set the payment information of the order used while placing it
-        OrderListPayment payment = new OrderListPayment();
-        payment.id(UUID.fromString(pastOrder.getPayment().getUuid()))
-            .paymentName(pastOrder.getPayment().getPaymentName());
+    CouponEntity pastOrderCoupon = pastOrder.getCoupon();
+    // Set the coupon details if any applied while placing the order
+    if (pastOrderCoupon != null) {
+      OrderListCoupon coupon = new OrderListCoupon();
+      coupon.id(UUID.fromString(pastOrderCoupon.getUuid()));
+      coupon.couponName(pastOrderCoupon.getCouponName());
+      coupon.percent(pastOrderCoupon.getPercent());
+      orderList.coupon(coupon);
+    }
 
-        // Set the customer details for each order in the response
-        OrderListCustomer orderListCustomer = new OrderListCustomer();
-        CustomerEntity orderCustomer = pastOrder.getCustomer();
-        orderListCustomer.id(UUID.fromString(orderCustomer.getUuid()))
-            .firstName(orderCustomer.getFirstName())
-            .lastName(orderCustomer.getLastName()).emailAddress(orderCustomer.getEmail())
-            .contactNumber(orderCustomer.getContactNumber());
+    // Set the payment information of the order used while placing it
+    OrderListPayment payment = new OrderListPayment();
+    payment.id(UUID.fromString(pastOrder.getPayment().getUuid()))
+        .paymentName(pastOrder.getPayment().getPaymentName());
 
-        orderList.payment(payment).customer(orderListCustomer);
+    // Set the customer details for each order in the response
+    OrderListCustomer orderListCustomer = new OrderListCustomer();
+    CustomerEntity orderCustomer = pastOrder.getCustomer();
+    orderListCustomer.id(UUID.fromString(orderCustomer.getUuid()))
+        .firstName(orderCustomer.getFirstName())
+        .lastName(orderCustomer.getLastName()).emailAddress(orderCustomer.getEmail())
+        .contactNumber(orderCustomer.getContactNumber());
 
-        // Set the Address details in the response for which order is placed
-        OrderListAddress orderListAddress = new OrderListAddress();
-        AddressEntity orderAddress = pastOrder.getAddress();
-        orderListAddress.id(UUID.fromString(orderAddress.getUuid()))
-            .flatBuildingName(orderAddress.getFlatBuilNo())
-            .locality(orderAddress.getLocality()).city(orderAddress.getCity())
-            .pincode(orderAddress.getPincode());
+    orderList.payment(payment).customer(orderListCustomer);
 
-        // Set the State information of address in the response
-        OrderListAddressState orderListAddressState = new OrderListAddressState();
-        StateEntity orderState = orderAddress.getState();
-        orderListAddressState.id(UUID.fromString(orderState.getStateUuid()))
-            .stateName(orderState.getStateName());
-        orderListAddress.state(orderListAddressState);
+    // Set the Address details in the response for which order is placed
+    OrderListAddress orderListAddress = new OrderListAddress();
+    AddressEntity orderAddress = pastOrder.getAddress();
+    orderListAddress.id(UUID.fromString(orderAddress.getUuid()))
+        .flatBuildingName(orderAddress.getFlatBuilNo())
+        .locality(orderAddress.getLocality()).city(orderAddress.getCity())
+        .pincode(orderAddress.getPincode());
 
-        orderList.address(orderListAddress);
+    // Set the State information of address in the response
+    OrderListAddressState orderListAddressState = new OrderListAddressState();
+    StateEntity orderState = orderAddress.getState();
+    orderListAddressState.id(UUID.fromString(orderState.getStateUuid()))
+        .stateName(orderState.getStateName());
+    orderListAddress.state(orderListAddressState);
 
-        // Fetch all the items by using the order id value
-        List<OrderItemEntity> orderItems = orderService.getOrderItemsByOrderId(pastOrder.getId());
-        if (orderItems != null) {
-          orderItems.stream().forEach(orderItem -> {
-            // Populate each item detail in the response
-            ItemQuantityResponse itemQuantityResponse = new ItemQuantityResponse();
-            itemQuantityResponse.quantity(orderItem.getQuantity()).price(orderItem.getPrice());
-            ItemQuantityResponseItem itemQuantityResponseItem = new ItemQuantityResponseItem();
-            itemQuantityResponseItem.id(UUID.fromString(orderItem.getItem().getUuid()))
-                .itemName(orderItem.getItem().getItemName()).itemPrice(orderItem.getPrice())
-                .type(ItemQuantityResponseItem.TypeEnum
-                    .fromValue(orderItem.getItem().getType().getValue()));
-            itemQuantityResponse.item(itemQuantityResponseItem);
-            orderList.addItemQuantitiesItem(itemQuantityResponse);
-          });
-        }
+    orderList.address(orderListAddress);
 
-        // If in case the items are empty, set an empty list in the response
-        if (orderList.getItemQuantities() == null) {
-          orderList.setItemQuantities(new ArrayList<ItemQuantityResponse>());
-        }
-        response.addOrdersItem(orderList);
+    // The items of the order were loaded along with the page of orders
+    List<OrderItemEntity> orderItems = pastOrder.getOrderItems();
+    if (orderItems != null) {
+      orderItems.stream().forEach(orderItem -> {
+        // Populate each item detail in the response
+        ItemQuantityResponse itemQuantityResponse = new ItemQuantityResponse();
+        itemQuantityResponse.quantity(orderItem.getQuantity()).price(orderItem.getPrice());
+        ItemQuantityResponseItem itemQuantityResponseItem = new ItemQuantityResponseItem();
+        itemQuantityResponseItem.id(UUID.fromString(orderItem.getItem().getUuid()))
+            .itemName(orderItem.getItem().getItemName()).itemPrice(orderItem.getPrice())
+            .type(ItemQuantityResponseItem.TypeEnum
+                .fromValue(orderItem.getItem().getType().getValue()));
+        itemQuantityResponse.item(itemQuantityResponseItem);
+        orderList.addItemQuantitiesItem(itemQuantityResponse);
       });
     }
-    // If the user has no previous order, set an empty list
-    if (response.getOrders() == null) {
-      response.setOrders(new ArrayList<OrderList>());
+
+    // If in case the items are empty, set an empty list in the response
+    if (orderList.getItemQuantities() == null) {
+      orderList.setItemQuantities(new ArrayList<ItemQuantityResponse>());
     }
-    return new ResponseEntity<CustomerOrderResponse>(response, HttpStatus.OK);
+    return orderList;
   }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.cache.CachedResponse;
 import com.upgrad.FoodOrderingApp.api.model.PaymentListResponse;
 import com.upgrad.FoodOrderingApp.api.model.PaymentResponse;
 import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
@@ -22,6 +23,7 @@ public class PaymentController {
 
     //Lists all available payment methods
     //No API input
+    @CachedResponse
     @RequestMapping(value = "/payment", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<PaymentListResponse> getPaymentResponse() {
         List<PaymentEntity> paymentEntityList = paymentService.getAllPaymentMethods();
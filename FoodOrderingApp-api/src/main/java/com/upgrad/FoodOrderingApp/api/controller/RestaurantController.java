@@ -1,18 +1,24 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.cache.CachedResponse;
 import com.upgrad.FoodOrderingApp.api.model.*;
 import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
 import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.common.Page;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidLocationException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageRequestException;
 import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,7 +28,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @CrossOrigin(allowedHeaders = "*", origins = "*", exposedHeaders = ("access-token"))
@@ -41,17 +49,29 @@ public class RestaurantController {
     @Autowired
     private ItemService itemService;
 
+    /**
+     * Lists all restaurants by customer rating, highest first and ties by id, a page at a time. The cursor
+     * carries the rating and id of the last restaurant of the page and the next page starts after them.
+     * Ratings keep changing while a client pages through, a restaurant rated up past the cursor is then not
+     * listed at all and one rated down past it is listed again, the other restaurants keep their place.
+     */
+    // Listed by rating, so a rating anywhere may reorder every page
+    @CachedResponse(evictOn = {CatalogChangedEvent.Change.REFERENCE_DATA, CatalogChangedEvent.Change.RESTAURANT_RATING})
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/restaurant",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<RestaurantListResponse> getRestaurantList() {
+    public ResponseEntity<RestaurantListResponse> getRestaurantList(
+            @RequestParam(name = "limit", required = false) final Integer limit,
+            @RequestParam(name = "cursor", required = false) final String cursor)
+            throws InvalidPageRequestException {
 
-        List<RestaurantEntity> listRestaurantEntity = restaurantService.restaurantsByRating();
+        Page<RestaurantEntity> restaurantPage = restaurantService.restaurantsByRating(cursor, limit);
 
-        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(listRestaurantEntity);
+        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(restaurantPage.getItems());
 
-        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList);
+        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList)
+                .nextCursor(restaurantPage.getNextCursor());
 
         return new ResponseEntity<RestaurantListResponse>(restaurantListResponse, HttpStatus.OK);
     }
@@ -60,18 +80,17 @@ public class RestaurantController {
 
         List<RestaurantList> listRestaurantList = new ArrayList<>();
 
+        // Category names of all listed restaurants are fetched together instead of once per restaurant
+        Map<String, List<String>> categoryNamesByRestaurant = categoryService.getCategoryNamesByRestaurants(listRestaurantEntity);
+
         for (RestaurantEntity restaurantEntity : listRestaurantEntity) {
 
-            List<CategoryEntity> listCategoryEntity = categoryService.getCategoriesByRestaurant(restaurantEntity.getUuid());
-            StringBuilder sbCategory = new StringBuilder();
-            for (CategoryEntity c : listCategoryEntity) {
-                sbCategory.append(c.getCategoryName() + ", ");
-            }
+            List<String> categoryNames = categoryNamesByRestaurant.getOrDefault(restaurantEntity.getUuid(), Collections.emptyList());
 
             listRestaurantList.add(new RestaurantList().id(UUID.fromString(restaurantEntity.getUuid()))
                     .restaurantName(restaurantEntity.getRestaurantName())
                     .averagePrice(restaurantEntity.getAvgPrice())
-                    .categories(sbCategory.substring(0, sbCategory.length() - 2))
+                    .categories(String.join(", ", categoryNames))
                     .address(getRestaurantDetailsResponseAddress(restaurantEntity))
                     .customerRating(BigDecimal.valueOf(restaurantEntity.getCustomerRating()))
                     .numberCustomersRated(restaurantEntity.getNumberCustomersRated())
@@ -92,41 +111,96 @@ public class RestaurantController {
                         .stateName(restaurantEntity.getAddress().getState().getStateName()));
     }
 
+    /**
+     * Lists the restaurants of a category, ordered and paged as {@link #getRestaurantList}, so a restaurant
+     * rated while the pages are read may be skipped or listed twice as well.
+     */
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/restaurant/category/{category_id}",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<RestaurantListResponse> getRestaurantListByCategory(
-            @PathVariable("category_id") final String categoryId)
-            throws CategoryNotFoundException {
+            @PathVariable("category_id") final String categoryId,
+            @RequestParam(name = "limit", required = false) final Integer limit,
+            @RequestParam(name = "cursor", required = false) final String cursor)
+            throws CategoryNotFoundException, InvalidPageRequestException {
 
-        List<RestaurantEntity> listRestaurantEntity = restaurantService.restaurantByCategory(categoryId);
+        Page<RestaurantEntity> restaurantPage = restaurantService.restaurantByCategory(categoryId, cursor, limit);
 
-        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(listRestaurantEntity);
+        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(restaurantPage.getItems());
 
-        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList);
+        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList)
+                .nextCursor(restaurantPage.getNextCursor());
 
         return new ResponseEntity<>(restaurantListResponse, HttpStatus.OK);
     }
 
+    /**
+     * Lists the restaurants whose name contains the given name, ordered and paged as {@link #getRestaurantList},
+     * so a restaurant rated while the pages are read may be skipped or listed twice as well.
+     */
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/restaurant/name/{restaurant_name}",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<RestaurantListResponse> getRestaurantListByName(
-            @PathVariable("restaurant_name") final String restaurantName)
-            throws RestaurantNotFoundException {
+            @PathVariable("restaurant_name") final String restaurantName,
+            @RequestParam(name = "limit", required = false) final Integer limit,
+            @RequestParam(name = "cursor", required = false) final String cursor)
+            throws RestaurantNotFoundException, InvalidPageRequestException {
 
-        List<RestaurantEntity> listRestaurantEntity = restaurantService.restaurantsByName(restaurantName);
+        Page<RestaurantEntity> restaurantPage = restaurantService.restaurantsByName(restaurantName, cursor, limit);
 
-        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(listRestaurantEntity);
+        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(restaurantPage.getItems());
 
         //create response with create customer uuid
-        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList);
+        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList)
+                .nextCursor(restaurantPage.getNextCursor());
+
+        return new ResponseEntity<RestaurantListResponse>(restaurantListResponse, HttpStatus.OK);
+    }
+
+    @RequestMapping(
+            method = RequestMethod.GET,
+            path = "/restaurant/search",
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantListResponse> searchRestaurants(
+            @RequestParam(name = "query") final String query,
+            @RequestParam(name = "limit", required = false) final Integer limit,
+            @RequestParam(name = "cursor", required = false) final String cursor)
+            throws RestaurantNotFoundException, InvalidPageRequestException {
+
+        Page<RestaurantEntity> restaurantPage = restaurantService.searchRestaurants(query, cursor, limit);
+
+        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(restaurantPage.getItems());
+
+        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList)
+                .nextCursor(restaurantPage.getNextCursor());
 
         return new ResponseEntity<RestaurantListResponse>(restaurantListResponse, HttpStatus.OK);
     }
 
+    @RequestMapping(
+            method = RequestMethod.GET,
+            path = "/restaurant/nearby",
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantListResponse> getRestaurantsNearby(
+            @RequestParam(name = "latitude") final Double latitude,
+            @RequestParam(name = "longitude") final Double longitude,
+            @RequestParam(name = "radius_km", required = false) final Double radiusKm,
+            @RequestParam(name = "limit", required = false) final Integer limit,
+            @RequestParam(name = "cursor", required = false) final String cursor)
+            throws InvalidLocationException, InvalidPageRequestException {
+
+        Page<RestaurantEntity> restaurantPage = restaurantService.restaurantsNearby(latitude, longitude, radiusKm, cursor, limit);
+
+        List<RestaurantList> listRestaurantList = getListRestaurantListFromListRestaurantEntity(restaurantPage.getItems());
+
+        RestaurantListResponse restaurantListResponse = new RestaurantListResponse().restaurants(listRestaurantList)
+                .nextCursor(restaurantPage.getNextCursor());
+
+        return new ResponseEntity<RestaurantListResponse>(restaurantListResponse, HttpStatus.OK);
+    }
 
     @RequestMapping(
             method = RequestMethod.GET,
@@ -141,21 +215,21 @@ public class RestaurantController {
 
         RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantId);
 
-        List<CategoryList> listCategoryList = getCategoryListByRestaurantId(restaurantId);
+        List<CategoryList> listCategoryList = getCategoryListByRestaurant(restaurantEntity);
 
         RestaurantDetailsResponse restaurantDetailsResponse = getRestaurantDetailsResponse(restaurantEntity, listCategoryList);
 
         return new ResponseEntity<RestaurantDetailsResponse>(restaurantDetailsResponse, HttpStatus.OK);
     }
 
-    private List<CategoryList> getCategoryListByRestaurantId(String restaurantId) {
-        List<CategoryEntity> listCategory = categoryService.getCategoriesByRestaurant(restaurantId);
+    private List<CategoryList> getCategoryListByRestaurant(RestaurantEntity restaurantEntity) {
+        Map<CategoryEntity, List<ItemEntity>> menu = itemService.getMenuByRestaurant(restaurantEntity);
         List<CategoryList> listCategoryList = new ArrayList<>();
-        for (CategoryEntity c : listCategory) {
+        for (Map.Entry<CategoryEntity, List<ItemEntity>> menuEntry : menu.entrySet()) {
 
-            List<ItemEntity> listItemEntity = itemService.getItemsByCategoryAndRestaurant(restaurantId, c.getUuid());
+            CategoryEntity c = menuEntry.getKey();
             List<ItemList> listItemList = new ArrayList<>();
-            for (ItemEntity i : listItemEntity) {
+            for (ItemEntity i : menuEntry.getValue()) {
                 listItemList.add(new ItemList()
                         .id(UUID.fromString(i.getUuid()))
                         .itemName(i.getItemName())
@@ -193,7 +267,7 @@ public class RestaurantController {
             @RequestHeader("authorization") final String authorization,
             @PathVariable("restaurant_id") final String restaurantId,
             @RequestParam(name = "customer_rating", required = true) Double customerRating)
-            throws AuthorizationFailedException, RestaurantNotFoundException, InvalidRatingException {
+            throws AuthorizationFailedException, RestaurantNotFoundException, InvalidRatingException, ServiceBusyException {
 
         // Call authenticationService with access token came in authorization field.
         String jwtToken = UtilityProvider.decodeBearerToken(authorization);
@@ -205,7 +279,7 @@ public class RestaurantController {
 
         RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantId);
 
-        RestaurantEntity updatedRestaurantEntity = restaurantService.updateRestaurantRating(restaurantEntity, customerRating);
+        RestaurantEntity updatedRestaurantEntity = restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, customerRating);
 
         RestaurantUpdatedResponse restaurantUpdatedResponse = new RestaurantUpdatedResponse()
                 .id(UUID.fromString(restaurantId)).status("RESTAURANT RATING UPDATED SUCCESSFULLY");
@@ -4,6 +4,10 @@ package com.upgrad.FoodOrderingApp.api.exception;
 import com.upgrad.FoodOrderingApp.api.model.ErrorResponse;
 import com.upgrad.FoodOrderingApp.api.model.UpdateCustomerResponse;
 import com.upgrad.FoodOrderingApp.service.exception.*;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +17,9 @@ import org.springframework.web.context.request.WebRequest;
 @ControllerAdvice
 public class RestExceptionHandler {
 
+    @Value("${food-ordering-app.async-requests.retry-after-seconds:2}")
+    private long asyncRequestRetryAfterSeconds;
+
 
     @ExceptionHandler(SignUpRestrictedException.class)
     public ResponseEntity<ErrorResponse> signUpRestrictedException (SignUpRestrictedException exc, WebRequest request){
@@ -88,6 +95,22 @@ public class RestExceptionHandler {
                 HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidLocationException.class)
+    public ResponseEntity<ErrorResponse> invalidLocationException(InvalidLocationException exc ,WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(new ErrorResponse()
+                .code(exc.getCode())
+                .message(exc.getErrorMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ErrorResponse> invalidPageRequestException(InvalidPageRequestException exc ,WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(new ErrorResponse()
+                .code(exc.getCode())
+                .message(exc.getErrorMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(CouponNotFoundException.class)
     public ResponseEntity<ErrorResponse> couponNotFoundException(CouponNotFoundException exc ,WebRequest request) {
         return new ResponseEntity<ErrorResponse>(new ErrorResponse()
@@ -112,5 +135,32 @@ public class RestExceptionHandler {
                 HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> serviceBusyException(ServiceBusyException exc ,WebRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exc.getRetryAfterSeconds()));
+        return new ResponseEntity<ErrorResponse>(new ErrorResponse()
+                .code(exc.getCode())
+                .message(exc.getErrorMessage()),
+                headers,
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // The pool writing asynchronous responses, such as the streamed order history, and its queue are full
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponse> taskRejectedException(TaskRejectedException exc ,HttpServletRequest request) {
+        if (request.isAsyncStarted()) {
+            // Spring MVC also hands the rejection to the async dispatch it starts, which writes the response
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(asyncRequestRetryAfterSeconds));
+        return new ResponseEntity<ErrorResponse>(new ErrorResponse()
+                .code("SVC-003")
+                .message("Too many responses are being streamed, please retry later"),
+                headers,
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 
 }
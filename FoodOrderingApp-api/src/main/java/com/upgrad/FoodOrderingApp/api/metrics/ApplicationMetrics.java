@@ -0,0 +1,108 @@
+package com.upgrad.FoodOrderingApp.api.metrics;
+
+import com.upgrad.FoodOrderingApp.api.cache.ResponseCache;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSessionCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the statistics of Hibernate and of the caches of the application to the meter registry,
+ * and writes all meters in the Prometheus text format for GET /admin/metrics.
+ *
+ * <p>Spring Boot binds the latencies of the endpoints (http.server.requests) and the JVM (jvm.gc,
+ * jvm.memory) on its own, the connection pools are bound by {@link ConnectionPoolMetrics}. The
+ * caches are counted as cache.gets by hit and miss, tagged with the cache or second-level cache
+ * region.
+ */
+@Component
+public class ApplicationMetrics {
+
+  // Persistence unit name, as tagged on the hibernate meters
+  private static final String ENTITY_MANAGER_FACTORY = "default";
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private PrometheusMeterRegistry prometheusMeterRegistry;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CustomerSessionCache customerSessionCache;
+
+  @Autowired
+  private ResponseCache responseCache;
+
+  @PostConstruct
+  public void bind() {
+    HibernateMetrics.monitor(meterRegistry, entityManagerFactory, ENTITY_MANAGER_FACTORY);
+
+    bindGets("customer-session", customerSessionCache, CustomerSessionCache::getHitCount,
+        CustomerSessionCache::getMissCount);
+    FunctionCounter.builder("cache.evictions", customerSessionCache, CustomerSessionCache::getEvictionCount)
+        .tags("cache", "customer-session")
+        .register(meterRegistry);
+    Gauge.builder("cache.size", customerSessionCache, CustomerSessionCache::size)
+        .tags("cache", "customer-session")
+        .register(meterRegistry);
+
+    bindGets("response", responseCache, ResponseCache::getHitCount, ResponseCache::getMissCount);
+    Gauge.builder("cache.size", responseCache, ResponseCache::size)
+        .tags("cache", "response")
+        .register(meterRegistry);
+
+    bindCacheRegions();
+  }
+
+  /**
+   * @return All meters in the Prometheus text format.
+   */
+  public String scrape() {
+    // Query cache regions are created on first use, so new ones are bound before every scrape
+    bindCacheRegions();
+    return prometheusMeterRegistry.scrape();
+  }
+
+  // Registering a meter again returns the one registered first
+  private void bindCacheRegions() {
+    final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    for (String region : statistics.getSecondLevelCacheRegionNames()) {
+      bindGets(region, statistics, regionCount(region, SecondLevelCacheStatistics::getHitCount),
+          regionCount(region, SecondLevelCacheStatistics::getMissCount));
+      FunctionCounter.builder("cache.puts", statistics, regionCount(region, SecondLevelCacheStatistics::getPutCount))
+          .tags("cache", region)
+          .register(meterRegistry);
+    }
+  }
+
+  private static ToDoubleFunction<Statistics> regionCount(final String region,
+      final ToDoubleFunction<SecondLevelCacheStatistics> count) {
+    return statistics -> {
+      final SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+      return regionStatistics == null ? 0 : count.applyAsDouble(regionStatistics);
+    };
+  }
+
+  private <T> void bindGets(final String cache, final T source, final ToDoubleFunction<T> hits,
+      final ToDoubleFunction<T> misses) {
+    FunctionCounter.builder("cache.gets", source, hits)
+        .tags("cache", cache, "result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.gets", source, misses)
+        .tags("cache", cache, "result", "miss")
+        .register(meterRegistry);
+  }
+}
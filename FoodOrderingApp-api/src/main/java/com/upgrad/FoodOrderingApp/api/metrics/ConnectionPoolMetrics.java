@@ -0,0 +1,50 @@
+package com.upgrad.FoodOrderingApp.api.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the hikaricp meters of the connection pools of the primary and the replica, tagged with
+ * their pool name.
+ *
+ * <p>Spring Boot binds them too, but the gauges of HikariCP 2.7 for the active, idle and pending
+ * connections only hold a weak reference to the statistics of their pool and read NaN once these
+ * are collected. The statistics are kept here instead, and Spring Boot leaves pools that already
+ * have a tracker alone.
+ */
+@Component
+public class ConnectionPoolMetrics implements BeanPostProcessor {
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  private final List<PoolStats> poolStats = new CopyOnWriteArrayList<>();
+
+  public ConnectionPoolMetrics(final ObjectProvider<MeterRegistry> meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+    if (bean instanceof HikariDataSource) {
+      HikariDataSource dataSource = (HikariDataSource) bean;
+      if (dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null) {
+        dataSource.setMetricsTrackerFactory(this::createTracker);
+      }
+    }
+    return bean;
+  }
+
+  // Called when the pool starts, on the first connection taken from it
+  private IMetricsTracker createTracker(final String poolName, final PoolStats stats) {
+    poolStats.add(stats);
+    return new MicrometerMetricsTrackerFactory(meterRegistry.getObject()).create(poolName, stats);
+  }
+}
@@ -0,0 +1,57 @@
+package com.upgrad.FoodOrderingApp.api.metrics;
+
+import com.upgrad.FoodOrderingApp.api.model.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Counts the error responses written by RestExceptionHandler as api.errors, tagged with their
+ * error code, the endpoint and the status, so that a rise of one kind of error, like expired
+ * sessions (ATHR-003), shows apart from the others.
+ */
+@ControllerAdvice
+public class ErrorResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+  // The endpoint of requests no handler was found for, as in the tags of http.server.requests
+  private static final String UNKNOWN_URI = "UNKNOWN";
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (!(body instanceof ErrorResponse) || !(request instanceof ServletServerHttpRequest)
+        || !(response instanceof ServletServerHttpResponse)) {
+      return body;
+    }
+    HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+    HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+    Object uri = servletRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String code = ((ErrorResponse) body).getCode();
+
+    meterRegistry.counter("api.errors",
+        "code", code == null ? "none" : code,
+        "uri", uri == null ? UNKNOWN_URI : uri.toString(),
+        "status", Integer.toString(servletResponse.getStatus())).increment();
+    return body;
+  }
+}
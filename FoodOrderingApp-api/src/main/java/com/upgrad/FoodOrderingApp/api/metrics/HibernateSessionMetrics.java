@@ -0,0 +1,53 @@
+package com.upgrad.FoodOrderingApp.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Records the JDBC statements and flushes of every Hibernate session when it ends, as
+ * hibernate.session.statements and hibernate.session.flushes. The session of a request stays open
+ * until the response is written, so these are the figures of single requests, where the global
+ * counters of HibernateMetrics only give averages. A request running many more statements than
+ * usual, like one loading a collection per row, shows in the upper buckets.
+ *
+ * <p>Hibernate creates one listener per session from hibernate.session.events.auto, so the meters
+ * are registered in the global registry, which Spring Boot adds its registries to.
+ */
+public class HibernateSessionMetrics extends BaseSessionEventListener {
+
+  private static final long[] BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500};
+
+  private int statements;
+
+  private int flushes;
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    statements++;
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    statements++;
+  }
+
+  @Override
+  public void flushEnd(final int numberOfEntities, final int numberOfCollections) {
+    flushes++;
+  }
+
+  @Override
+  public void end() {
+    DistributionSummary.builder("hibernate.session.statements")
+        .description("JDBC statements executed by a session, a batch counting as one")
+        .sla(BUCKETS)
+        .register(Metrics.globalRegistry)
+        .record(statements);
+    DistributionSummary.builder("hibernate.session.flushes")
+        .description("Flushes of a session, not counting the checks before its queries")
+        .sla(BUCKETS)
+        .register(Metrics.globalRegistry)
+        .record(flushes);
+  }
+}
@@ -0,0 +1,64 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+// This class runs the customer lookups of the login against a PostgreSQL database, so that a named query whose
+// parameters don't match the ones bound by CustomerDao fails here rather than on every login.
+// It needs PostgreSQL at the configured datasource and runs with: mvn verify -P integration-tests
+// The customer is created for the test and deleted afterwards.
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CustomerDaoIT {
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String customerUuid;
+
+    private String contactNumber;
+
+    @Before
+    public void createCustomer() {
+        customerUuid = UUID.randomUUID().toString();
+        // CUSTOMER.contact_number is VARCHAR(30)
+        contactNumber = Long.toString(System.nanoTime());
+        jdbcTemplate.update("INSERT INTO CUSTOMER(uuid, firstname, contact_number, password, salt) VALUES (?, 'login', ?, 'password', 'salt')",
+                customerUuid, contactNumber);
+    }
+
+    @After
+    public void deleteCustomer() {
+        jdbcTemplate.update("DELETE FROM CUSTOMER WHERE uuid = ?", customerUuid);
+    }
+
+    //This test case passes when the customer signed up with a contact number is found by that contact number.
+    @Test
+    public void shouldGetCustomerByContactNumber() {
+        final CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(contactNumber);
+        assertNotNull(customerEntity);
+        assertEquals(customerUuid, customerEntity.getUuid());
+    }
+
+    //This test case passes when no customer is returned for a contact number nobody signed up with.
+    @Test
+    public void shouldNotGetCustomerByUnknownContactNumber() {
+        assertNull(customerDao.getCustomerByContactNumber(contactNumber + "0"));
+    }
+}
@@ -0,0 +1,210 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.junit4.SpringRunner;
+
+// This class checks the query plans of all the named queries on the entities against a PostgreSQL database.
+// It needs PostgreSQL 12 or later at the configured datasource, for plan_cache_mode, and is skipped on earlier
+// versions. It runs with: mvn verify -P integration-tests
+// The tables are created and filled in a schema of their own, which is dropped afterwards.
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class NamedQueryPlanIT {
+
+    private static final String SCHEMA = "named_query_plans";
+
+    // Named queries that read whole tables on purpose, a sequential scan is the best plan for them
+    private static final Set<String> FULL_TABLE_READS = new HashSet<>(Arrays.asList(
+            "allCategories", "getAllStates", "allPaymentMethods", "allCoupons", "itemQuantitiesByRestaurant",
+            "restaurantNames", "restaurantCategoryNames", "restaurantItemNames", "restaurantLocations"));
+
+    // Named queries read a page at a time with setMaxResults, which is not part of the SQL of their query plan
+    private static final Set<String> PAGED_QUERIES = new HashSet<>(Arrays.asList(
+            "restaurantsByRatingAfter", "restaurantsByNameAfter", "restaurantsByCategoryUuidAfter",
+            "pastOrdersByCustomerUUIDAfter"));
+
+    private static final int PAGE_LIMIT = 21;
+
+    // Tables which grow with customers, orders and restaurants, a sequential scan on them means a missing index
+    private static final Set<String> LARGE_TABLES = new HashSet<>(Arrays.asList(
+            "customer", "customer_auth", "customer_address", "address", "coupon", "orders", "order_item",
+            "restaurant", "item", "restaurant_item", "category_item", "restaurant_category"));
+
+    // Arguments for named queries on a range, whose generic plan assumes a third of the table matches. They are
+    // planned for these values instead, which are typical of the application
+    private static final Map<String, String> RANGE_ARGUMENTS = new HashMap<>();
+
+    static {
+        RANGE_ARGUMENTS.put("accessTokensLoggedOutSince", "now() - interval '1 minute'");
+        // The box around a radius of 5 km
+        RANGE_ARGUMENTS.put("restaurantLocationsInBox", "19.03, 19.12, 72.83, 72.92");
+    }
+
+    // The first version with plan_cache_mode, as in server_version_num
+    private static final int PLAN_CACHE_MODE_VERSION = 120000;
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    //This test case passes when no named query, other than the full table reads, scans a large table sequentially.
+    @Test
+    public void shouldNotScanLargeTablesSequentially() throws Exception {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        final String sqlPath = System.getProperty("sql.path", "../FoodOrderingApp-db/src/main/resources/sql");
+
+        try (Connection connection = dataSource.getConnection()) {
+            Assume.assumeTrue("plan_cache_mode needs PostgreSQL 12 or later",
+                    serverVersion(connection) >= PLAN_CACHE_MODE_VERSION);
+            try {
+                // Only the new schema is on the search path while tables.sql drops and creates its tables
+                execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                execute(connection, "CREATE SCHEMA " + SCHEMA);
+                execute(connection, "SET search_path TO " + SCHEMA);
+                ScriptUtils.executeSqlScript(connection, new FileSystemResource(sqlPath + "/tables.sql"));
+                execute(connection, "SET search_path TO " + SCHEMA + ", public");
+                ScriptUtils.executeSqlScript(connection,
+                        new FileSystemResource(sqlPath + "/migration/V2__named_query_indexes.sql"));
+                ScriptUtils.executeSqlScript(connection,
+                        new FileSystemResource(sqlPath + "/migration/V3__restaurant_rating_keyset_index.sql"));
+                ScriptUtils.executeSqlScript(connection,
+                        new FileSystemResource(sqlPath + "/migration/V4__orders_keyset_index.sql"));
+                ScriptUtils.executeSqlScript(connection,
+                        new FileSystemResource(sqlPath + "/migration/V6__address_coordinates.sql"));
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("sql/named-query-plans-data.sql"));
+                // The plan used for any parameter values, as the application binds them
+                execute(connection, "SET plan_cache_mode TO force_generic_plan");
+
+                final List<String> failures = new ArrayList<>();
+                for (Map.Entry<String, String> namedQuery : getNamedQueries().entrySet()) {
+                    if (FULL_TABLE_READS.contains(namedQuery.getKey())) {
+                        continue;
+                    }
+                    for (String sql : sessionFactory.getQueryPlanCache()
+                            .getHQLQueryPlan(namedQuery.getValue(), false, Collections.emptyMap()).getSqlStrings()) {
+                        final String paged = PAGED_QUERIES.contains(namedQuery.getKey()) ? sql + " limit " + PAGE_LIMIT : sql;
+                        final String plan = explain(connection, paged, RANGE_ARGUMENTS.get(namedQuery.getKey()));
+                        final Matcher matcher = SEQ_SCAN.matcher(plan);
+                        while (matcher.find()) {
+                            if (LARGE_TABLES.contains(matcher.group(1).toLowerCase())) {
+                                failures.add(namedQuery.getKey() + " scans " + matcher.group(1) + ":\n" + plan);
+                                break;
+                            }
+                        }
+                    }
+                }
+                assertTrue(String.join("\n\n", failures), failures.isEmpty());
+            } finally {
+                // Each step runs even if the one before failed, so that the schema is always dropped
+                try {
+                    execute(connection, "RESET plan_cache_mode");
+                } finally {
+                    try {
+                        execute(connection, "RESET search_path");
+                    } finally {
+                        execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                    }
+                }
+            }
+        }
+    }
+
+    // The JPQL of every named query declared on the entities, by name
+    private Map<String, String> getNamedQueries() {
+        final Map<String, String> namedQueries = new TreeMap<>();
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            final Class<?> entityClass = entityType.getJavaType();
+            final List<NamedQuery> declared = new ArrayList<>();
+            if (entityClass.isAnnotationPresent(NamedQueries.class)) {
+                declared.addAll(Arrays.asList(entityClass.getAnnotation(NamedQueries.class).value()));
+            }
+            if (entityClass.isAnnotationPresent(NamedQuery.class)) {
+                declared.add(entityClass.getAnnotation(NamedQuery.class));
+            }
+            declared.forEach(namedQuery -> namedQueries.put(namedQuery.name(), namedQuery.query()));
+        }
+        return namedQueries;
+    }
+
+    // Prepares the statement with numbered parameters and explains its generic plan, or its plan for the given
+    // arguments
+    private String explain(final Connection connection, final String sql, final String rangeArguments) throws SQLException {
+        final StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        final String arguments;
+        if (rangeArguments != null) {
+            arguments = "(" + rangeArguments + ")";
+            execute(connection, "SET plan_cache_mode TO force_custom_plan");
+        } else {
+            arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+        }
+
+        execute(connection, "PREPARE named_query_plan AS " + numbered);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN EXECUTE named_query_plan" + arguments)) {
+            final StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+            return plan.toString();
+        } finally {
+            execute(connection, "DEALLOCATE named_query_plan");
+            execute(connection, "SET plan_cache_mode TO force_generic_plan");
+        }
+    }
+
+    private static int serverVersion(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW server_version_num")) {
+            resultSet.next();
+            return Integer.parseInt(resultSet.getString(1));
+        }
+    }
+
+    private static void execute(final Connection connection, final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
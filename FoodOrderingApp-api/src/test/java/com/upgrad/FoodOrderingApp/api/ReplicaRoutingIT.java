@@ -0,0 +1,84 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.upgrad.FoodOrderingApp.service.datasource.ReplicaRoutingDataSource;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// This class runs transactions of one request against a primary and a replica, so that a connection of a read-only
+// transaction kept by the session of the request is noticed here rather than by a write failing on the replica.
+// It needs PostgreSQL at the configured datasource and runs with: mvn verify -P integration-tests
+// The replica is the same database, told apart by the application name of its connections.
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "food-ordering-app.datasource.replica.url=jdbc:postgresql://localhost:54321/restaurantdb?ApplicationName=replica")
+public class ReplicaRoutingIT {
+
+    private static final String APPLICATION_NAME_QUERY = "SELECT current_setting('application_name')";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private EntityManager entityManager;
+
+    // Binds one entity manager for all transactions of the test, as open-session-in-view does for a request
+    @Before
+    public void openEntityManager() {
+        assertTrue(replicaRoutingDataSource.checkReplicaLag());
+        entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+    }
+
+    @After
+    public void closeEntityManager() {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        entityManager.close();
+    }
+
+    //This test case passes when a read-only transaction reads from the replica and the write after it, in the same
+    // session, goes to the primary.
+    @Test
+    public void shouldWriteToPrimaryAfterReadOnlyTransaction() {
+        final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertEquals("replica", readOnly.execute(status -> applicationName()));
+
+        final String written = new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.createNativeQuery("UPDATE CUSTOMER SET firstname = firstname WHERE uuid = ''").executeUpdate();
+            return applicationName();
+        });
+        assertNotEquals("replica", written);
+    }
+
+    //This test case passes when a read-only transaction after a write in the same session reads from the replica again.
+    @Test
+    public void shouldReadFromReplicaAfterWrite() {
+        assertNotEquals("replica", new TransactionTemplate(transactionManager).execute(status -> applicationName()));
+        final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertEquals("replica", readOnly.execute(status -> applicationName()));
+    }
+
+    private String applicationName() {
+        return (String) entityManager.createNativeQuery(APPLICATION_NAME_QUERY).getSingleResult();
+    }
+}
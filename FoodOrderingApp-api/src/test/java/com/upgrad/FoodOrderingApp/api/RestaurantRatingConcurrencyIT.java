@@ -0,0 +1,162 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantRatingWriteBehind;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+// This class rates one restaurant by many customers at once against a PostgreSQL database, while the queued ratings are
+// written, and checks that every customer is counted once with their latest rating. It needs PostgreSQL at the
+// configured datasource and runs with: mvn verify -P integration-tests
+// The restaurant, its address and the customers are created for the test and deleted afterwards.
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RestaurantRatingConcurrencyIT {
+
+    private static final int RATERS = 64;
+
+    private static final int RATINGS_PER_RATER = 5;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRatingWriteBehind restaurantRatingWriteBehind;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String addressUuid;
+
+    private String restaurantUuid;
+
+    private final List<CustomerEntity> customers = new ArrayList<>();
+
+    @Before
+    public void createRestaurantAndCustomers() {
+        addressUuid = UUID.randomUUID().toString();
+        restaurantUuid = UUID.randomUUID().toString();
+        final Integer addressId = jdbcTemplate.queryForObject(
+                "INSERT INTO ADDRESS(uuid, flat_buil_number, locality, city, pincode) VALUES (?, 'a/b/c', 'someLocality', 'someCity', '100000') RETURNING id",
+                Integer.class, addressUuid);
+        jdbcTemplate.update("INSERT INTO RESTAURANT(uuid, restaurant_name, customer_rating, average_price_for_two, number_of_customers_rated, address_id)"
+                + " VALUES (?, 'Concurrently Rated', 3, 100, 10, ?)", restaurantUuid, addressId);
+        // CUSTOMER.contact_number is VARCHAR(30), the raters are numbered on from a value unique to this run
+        final long firstContactNumber = System.nanoTime();
+        for (int rater = 0; rater < RATERS; rater++) {
+            final CustomerEntity customerEntity = new CustomerEntity();
+            customerEntity.setUuid(UUID.randomUUID().toString());
+            customerEntity.setId(jdbcTemplate.queryForObject(
+                    "INSERT INTO CUSTOMER(uuid, firstname, contact_number, password, salt) VALUES (?, 'rater', ?, 'password', 'salt') RETURNING id",
+                    Integer.class, customerEntity.getUuid(), Long.toString(firstContactNumber + rater)));
+            customers.add(customerEntity);
+        }
+    }
+
+    @After
+    public void deleteRestaurantAndCustomers() {
+        for (CustomerEntity customerEntity : customers) {
+            jdbcTemplate.update("DELETE FROM CUSTOMER WHERE uuid = ?", customerEntity.getUuid());
+        }
+        jdbcTemplate.update("DELETE FROM RESTAURANT WHERE uuid = ?", restaurantUuid);
+        jdbcTemplate.update("DELETE FROM ADDRESS WHERE uuid = ?", addressUuid);
+    }
+
+    //This test case passes when every customer rating the restaurant repeatedly, while ratings are being written, is counted
+    // once in the number of ratings and with their latest rating in the average rating of the restaurant.
+    @Test
+    public void shouldCountLatestRatingOfEveryConcurrentRater() throws Exception {
+        final RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantUuid);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean rating = new AtomicBoolean(true);
+        final ExecutorService raters = Executors.newFixedThreadPool(RATERS + 1);
+        try {
+            // Flushes run back to back until every rating is submitted, so ratings are written between the ones of a customer
+            final Future<?> flushes = raters.submit(() -> {
+                start.await();
+                while (rating.get()) {
+                    restaurantRatingWriteBehind.flush();
+                }
+                return null;
+            });
+            final List<Future<?>> ratings = new ArrayList<>();
+            for (CustomerEntity customerEntity : customers) {
+                // Ratings of 1 to 5, the last one counts
+                ratings.add(raters.submit(() -> {
+                    start.await();
+                    for (int customerRating = 1; customerRating <= RATINGS_PER_RATER; customerRating++) {
+                        restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, (double) customerRating);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> customerRatings : ratings) {
+                customerRatings.get(1, TimeUnit.MINUTES);
+            }
+            rating.set(false);
+            flushes.get(1, TimeUnit.MINUTES);
+        } finally {
+            raters.shutdownNow();
+        }
+        restaurantRatingWriteBehind.flush();
+        assertEquals(0, restaurantRatingWriteBehind.getPendingCount());
+
+        // 10 ratings of 3 to start with, then a rating of 5 from every rater
+        assertRestaurantRating(10 + RATERS, BigDecimal.valueOf(10 * 3 + RATERS * RATINGS_PER_RATER));
+        assertEquals(Integer.valueOf(RATERS), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM RESTAURANT_RATING r JOIN RESTAURANT q ON q.id = r.restaurant_id WHERE q.uuid = ? AND r.rating = ?",
+                Integer.class, restaurantUuid, BigDecimal.valueOf(RATINGS_PER_RATER)));
+    }
+
+    //This test case passes when a customer rating the restaurant again after their rating was written replaces it in the
+    // average rating of the restaurant instead of being counted again.
+    @Test
+    public void shouldReplaceWrittenRatingOfCustomerRatingAgain() throws Exception {
+        final RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantUuid);
+        for (CustomerEntity customerEntity : customers) {
+            restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 5.0);
+        }
+        restaurantRatingWriteBehind.flush();
+        for (CustomerEntity customerEntity : customers) {
+            restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 1.0);
+        }
+        restaurantRatingWriteBehind.flush();
+
+        assertRestaurantRating(10 + RATERS, BigDecimal.valueOf(10 * 3 + RATERS));
+    }
+
+    private void assertRestaurantRating(final int ratingCount, final BigDecimal ratingSum) {
+        final Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "SELECT customer_rating, number_of_customers_rated FROM RESTAURANT WHERE uuid = ?", restaurantUuid);
+        assertEquals(ratingCount, ((Number) stored.get("number_of_customers_rated")).intValue());
+
+        final BigDecimal expectedRating = ratingSum.divide(BigDecimal.valueOf(ratingCount), MathContext.DECIMAL64);
+        final BigDecimal storedRating = (BigDecimal) stored.get("customer_rating");
+        assertTrue("Expected rating " + expectedRating + " but was " + storedRating,
+                storedRating.subtract(expectedRating).abs().compareTo(new BigDecimal("1e-9")) < 0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.upgrad.FoodOrderingApp.service.businness.CatalogEntityCache;
+import com.upgrad.FoodOrderingApp.service.businness.ReferenceDataCache;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+// This class contains all the test cases regarding the admin controller
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "food-ordering-app.admin.token=admin-token")
+@AutoConfigureMockMvc
+public class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReferenceDataCache mockReferenceDataCache;
+
+    @MockBean
+    private CatalogEntityCache mockCatalogEntityCache;
+
+    //This test case passes when the reference data is reloaded for a request with the admin token.
+    @Test
+    public void shouldRefreshReferenceDataForAdminToken() throws Exception {
+        when(mockReferenceDataCache.refresh()).thenReturn(true);
+        mockMvc
+                .perform(post("/admin/reference-data/refresh")
+                        .header("authorization", "Bearer admin-token"))
+                .andExpect(status().isNoContent());
+        verify(mockReferenceDataCache, times(1)).refresh();
+    }
+
+    //This test case passes when the reference data is not reloaded for a request with a wrong token.
+    @Test
+    public void shouldNotRefreshReferenceDataForWrongToken() throws Exception {
+        mockMvc
+                .perform(post("/admin/reference-data/refresh")
+                        .header("authorization", "Bearer customer-token"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("code").value("ATHR-005"));
+        verify(mockReferenceDataCache, times(0)).refresh();
+    }
+
+    //This test case passes when the statistics of the cache regions are returned for a request with the admin token.
+    @Test
+    public void shouldGetCacheStatisticsForAdminToken() throws Exception {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", 5L);
+        counts.put("misses", 2L);
+        counts.put("puts", 2L);
+        when(mockCatalogEntityCache.getRegionStatistics()).thenReturn(Collections.singletonMap("catalog.item", counts));
+        mockMvc
+                .perform(get("/admin/cache-statistics")
+                        .header("authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("['catalog.item'].hits").value(5))
+                .andExpect(jsonPath("['catalog.item'].misses").value(2))
+                .andExpect(jsonPath("['catalog.item'].puts").value(2));
+    }
+
+    //This test case passes when the statistics of the cache regions are not returned for a request with a wrong token.
+    @Test
+    public void shouldNotGetCacheStatisticsForWrongToken() throws Exception {
+        mockMvc
+                .perform(get("/admin/cache-statistics")
+                        .header("authorization", "Bearer customer-token"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("code").value("ATHR-005"));
+        verify(mockCatalogEntityCache, times(0)).getRegionStatistics();
+    }
+
+    //This test case passes when the meters are returned in the Prometheus text format for a request with the admin token.
+    @Test
+    public void shouldGetMetricsForAdminToken() throws Exception {
+        mockMvc
+                .perform(get("/admin/metrics")
+                        .header("authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString("jvm_memory_used_bytes")))
+                .andExpect(content().string(containsString("hibernate_sessions_open_total")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"customer-session\",result=\"hit\",}")));
+    }
+
+    //This test case passes when the meters are not returned for a request with a wrong token, and the error is counted.
+    @Test
+    public void shouldNotGetMetricsForWrongToken() throws Exception {
+        mockMvc
+                .perform(get("/admin/metrics")
+                        .header("authorization", "Bearer customer-token"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("code").value("ATHR-005"));
+        mockMvc
+                .perform(get("/admin/metrics")
+                        .header("authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("api_errors_total{code=\"ATHR-005\",status=\"403\",uri=\"/admin/metrics\",}")));
+    }
+
+}
@@ -17,6 +17,7 @@ import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
 import java.util.UUID;
@@ -177,6 +178,20 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("code").value("ATH-002"));
         verify(mockCustomerService, times(1)).authenticate("9090909090", "IncorrectPassword");
     }
+    //This test case passes when a login shed by a saturated password hashing pool is answered with 503 and a retry hint.
+    @Test
+    public void shouldNotLoginWhenPasswordHashingIsSaturated() throws Exception {
+        when(mockCustomerService.authenticate("9090909090", "CorrectPassword"))
+                .thenThrow(new ServiceBusyException("SVC-001", "Too many requests, please retry later", 2));
+        mockMvc
+                .perform(post("/customer/login")
+                        .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .header("authorization", "Basic " + getEncoder().encodeToString("9090909090:CorrectPassword".getBytes())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("code").value("SVC-001"));
+        verify(mockCustomerService, times(1)).authenticate("9090909090", "CorrectPassword");
+    }
     // ----------------------------- POST /customer/logout --------------------------------
     //This test case passes when you are able to logout successfully.
     @Test
@@ -0,0 +1,155 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.upgrad.FoodOrderingApp.api.cache.ResponseCache;
+import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
+import com.upgrad.FoodOrderingApp.service.businness.ReferenceDataCache;
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import java.util.Collections;
+import java.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+// This class contains the test cases regarding the response cache of the public catalog endpoints
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "food-ordering-app.response-cache.enabled=true")
+@AutoConfigureMockMvc
+public class ResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @MockBean
+    private PaymentService mockPaymentService;
+
+    // The scheduled refresh at startup would drop the cached responses while a test runs
+    @MockBean
+    private ReferenceDataCache mockReferenceDataCache;
+
+    @Before
+    public void setUp() {
+        final PaymentEntity paymentEntity = new PaymentEntity();
+        paymentEntity.setUuid(UUID.randomUUID().toString());
+        paymentEntity.setPaymentName("samplePaymentName");
+        when(mockPaymentService.getAllPaymentMethods()).thenReturn(Collections.singletonList(paymentEntity));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+    }
+
+    //This test case passes when a repeated request is answered with the cached body without calling the service again.
+    @Test
+    public void shouldServeRepeatedRequestFromCache() throws Exception {
+        final MvcResult first = mockMvc.perform(get("/payment"))
+                .andExpect(status().isOk())
+                .andReturn();
+        final String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        final MvcResult second = mockMvc.perform(get("/payment"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andReturn();
+        assertEquals(first.getResponse().getContentAsString(), second.getResponse().getContentAsString());
+        verify(mockPaymentService, times(1)).getAllPaymentMethods();
+    }
+
+    //This test case passes when a request carrying the current ETag is answered with 304 Not Modified.
+    @Test
+    public void shouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        final String etag = mockMvc.perform(get("/payment"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/payment").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        verify(mockPaymentService, times(1)).getAllPaymentMethods();
+    }
+
+    //This test case passes when the cached responses are dropped once the catalog changes.
+    @Test
+    public void shouldRebuildResponseAfterCatalogChange() throws Exception {
+        mockMvc.perform(get("/payment")).andExpect(status().isOk());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+        mockMvc.perform(get("/payment")).andExpect(status().isOk());
+        verify(mockPaymentService, times(2)).getAllPaymentMethods();
+    }
+
+    //This test case passes when a rating keeps the responses that show no ratings cached.
+    @Test
+    public void shouldKeepReferenceDataResponseAfterRating() throws Exception {
+        mockMvc.perform(get("/payment")).andExpect(status().isOk());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.RESTAURANT_RATING));
+        mockMvc.perform(get("/payment")).andExpect(status().isOk());
+        verify(mockPaymentService, times(1)).getAllPaymentMethods();
+    }
+
+    //This test case passes when a change drops only the entries declared to depend on it.
+    @Test
+    public void shouldDropOnlyEntriesDependingOnChange() {
+        final long[] generations = responseCache.getGenerations();
+        responseCache.put("/restaurant", generations, new byte[]{1}, "application/json",
+                CatalogChangedEvent.Change.REFERENCE_DATA, CatalogChangedEvent.Change.RESTAURANT_RATING);
+        responseCache.put("/states", generations, new byte[]{2}, "application/json",
+                CatalogChangedEvent.Change.REFERENCE_DATA);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.RESTAURANT_RATING));
+        assertNull(responseCache.get("/restaurant"));
+        assertNotNull(responseCache.get("/states"));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+        assertNull(responseCache.get("/states"));
+    }
+
+    //This test case passes when a body built while a change it depends on was committed is not cached, and a body
+    // not depending on the change is.
+    @Test
+    public void shouldNotCacheBodyBuiltAcrossChange() {
+        final long[] generations = responseCache.getGenerations();
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.RESTAURANT_RATING));
+        final ResponseCache.Entry entry = responseCache.put("/restaurant", generations, new byte[]{1},
+                "application/json", CatalogChangedEvent.Change.REFERENCE_DATA, CatalogChangedEvent.Change.RESTAURANT_RATING);
+        assertNotNull(entry.getEtag());
+        assertNull(responseCache.get("/restaurant"));
+        responseCache.put("/states", generations, new byte[]{2}, "application/json",
+                CatalogChangedEvent.Change.REFERENCE_DATA);
+        assertNotNull(responseCache.get("/states"));
+    }
+
+    //This test case passes when a response whose data changes while the controller builds it is not served again.
+    @Test
+    public void shouldRebuildResponseChangedWhileBuilt() throws Exception {
+        final PaymentEntity paymentEntity = new PaymentEntity();
+        paymentEntity.setUuid(UUID.randomUUID().toString());
+        paymentEntity.setPaymentName("samplePaymentName");
+        when(mockPaymentService.getAllPaymentMethods()).thenAnswer(invocation -> {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+            return Collections.singletonList(paymentEntity);
+        });
+        mockMvc.perform(get("/payment")).andExpect(status().isOk()).andExpect(header().exists("ETag"));
+        mockMvc.perform(get("/payment")).andExpect(status().isOk());
+        verify(mockPaymentService, times(2)).getAllPaymentMethods();
+    }
+}
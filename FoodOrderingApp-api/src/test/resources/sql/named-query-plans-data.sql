@@ -0,0 +1,57 @@
+-- Data for NamedQueryPlanIT, sized so that the planner only prefers a sequential scan where a whole table is read.
+-- The reference tables STATE and PAYMENT stay small, as they are in production.
+
+INSERT INTO STATE(id, uuid, state_name) SELECT i, md5('state' || i), 'State ' || i FROM generate_series(1, 36) i;
+
+INSERT INTO PAYMENT(id, uuid, payment_name) SELECT i, md5('payment' || i), 'Payment ' || i FROM generate_series(1, 5) i;
+
+INSERT INTO COUPON(id, uuid, coupon_name, percent) SELECT i, md5('coupon' || i), 'COUPON' || i, 1 + i % 50 FROM generate_series(1, 20000) i;
+
+INSERT INTO CATEGORY(id, uuid, category_name) SELECT i, md5('category' || i), 'Category ' || i FROM generate_series(1, 500) i;
+
+INSERT INTO CUSTOMER(id, uuid, firstname, lastname, email, contact_number, password, salt)
+  SELECT i, md5('customer' || i), 'First' || i, 'Last' || i, 'customer' || i || '@example.com', (9000000000 + i)::text, 'password', 'salt'
+  FROM generate_series(1, 100000) i;
+
+-- Addresses up to 100000 belong to customers, the ones above to restaurants
+INSERT INTO ADDRESS(id, uuid, flat_buil_number, locality, city, pincode, state_id, active)
+  SELECT i, md5('address' || i), 'Flat ' || i, 'Locality ' || i % 1000, 'City ' || i % 100, (400000 + i % 1000)::text, 1 + i % 36, 1
+  FROM generate_series(1, 120000) i;
+
+-- Restaurant addresses are spread over a city of about 40 by 20 km, customer addresses are not located
+UPDATE ADDRESS SET latitude = 18.9 + (id % 400) / 1000.0, longitude = 72.8 + (id / 400 % 200) / 1000.0 WHERE id > 100000;
+
+INSERT INTO CUSTOMER_ADDRESS(id, customer_id, address_id) SELECT i, i, i FROM generate_series(1, 100000) i;
+
+INSERT INTO RESTAURANT(id, uuid, restaurant_name, photo_url, customer_rating, average_price_for_two, number_of_customers_rated, address_id)
+  SELECT i, md5('restaurant' || i), 'Restaurant ' || md5('name' || i), NULL, 1 + (i % 41) / 10.0, 200 + i % 2000, i % 1000, 100000 + i
+  FROM generate_series(1, 20000) i;
+
+INSERT INTO ITEM(id, uuid, item_name, price, type) SELECT i, md5('item' || i), 'Item ' || i, 50 + i % 500, CASE WHEN i % 2 = 0 THEN 'VEG' ELSE 'NON_VEG' END
+  FROM generate_series(1, 100000) i;
+
+-- Every restaurant serves 5 items, every item belongs to 1 category and every restaurant to 3 categories
+INSERT INTO RESTAURANT_ITEM(id, item_id, restaurant_id) SELECT (r - 1) * 5 + k, (r - 1) * 5 + k, r
+  FROM generate_series(1, 20000) r, generate_series(1, 5) k;
+
+INSERT INTO CATEGORY_ITEM(id, item_id, category_id) SELECT i, i, 1 + i % 500 FROM generate_series(1, 100000) i;
+
+INSERT INTO RESTAURANT_CATEGORY(id, restaurant_id, category_id) SELECT (r - 1) * 3 + k, r, 1 + (r * 3 + k) % 500
+  FROM generate_series(1, 20000) r, generate_series(1, 3) k;
+
+INSERT INTO ORDERS(id, uuid, bill, coupon_id, discount, date, payment_id, customer_id, address_id, restaurant_id)
+  SELECT i, md5('order' || i), 100 + i % 900, CASE WHEN i % 10 = 0 THEN 1 + i % 20000 END, 0, now() - i * interval '1 minute',
+    1 + i % 5, 1 + i % 100000, 1 + i % 100000, 1 + i % 20000
+  FROM generate_series(1, 200000) i;
+
+-- Every order has 3 of the items of its restaurant
+INSERT INTO ORDER_ITEM(id, order_id, item_id, quantity, price) SELECT (o - 1) * 3 + k, o, (o % 20000) * 5 + k, 1 + o % 3, 100
+  FROM generate_series(1, 200000) o, generate_series(1, 3) k;
+
+-- Half of the sessions have been logged out
+INSERT INTO CUSTOMER_AUTH(id, uuid, customer_id, access_token, login_at, logout_at, expires_at)
+  SELECT i, md5('auth' || i), 1 + i % 100000, md5('token' || i), now() - i * interval '1 minute',
+    CASE WHEN i % 2 = 0 THEN now() - i * interval '1 minute' + interval '30 minutes' END, now() - i * interval '1 minute' + interval '8 hours'
+  FROM generate_series(1, 200000) i;
+
+ANALYZE;
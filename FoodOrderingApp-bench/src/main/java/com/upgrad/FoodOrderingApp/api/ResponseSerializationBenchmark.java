@@ -0,0 +1,124 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.model.CustomerOrderResponse;
+import com.upgrad.FoodOrderingApp.api.model.ItemQuantityResponse;
+import com.upgrad.FoodOrderingApp.api.model.ItemQuantityResponseItem;
+import com.upgrad.FoodOrderingApp.api.model.OrderList;
+import com.upgrad.FoodOrderingApp.api.model.OrderListAddress;
+import com.upgrad.FoodOrderingApp.api.model.OrderListAddressState;
+import com.upgrad.FoodOrderingApp.api.model.OrderListCoupon;
+import com.upgrad.FoodOrderingApp.api.model.OrderListCustomer;
+import com.upgrad.FoodOrderingApp.api.model.OrderListPayment;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantDetailsResponseAddress;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantDetailsResponseAddressState;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantList;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantListResponse;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serializing a page of GET /restaurant and of GET /order to the bytes of the response body, with
+ * an ObjectMapper configured like the one of Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+  // Restaurants or orders on the page
+  @Param({"20", "100"})
+  private int pageSize;
+
+  // Items of every order
+  private static final int ORDER_ITEMS = 5;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private RestaurantListResponse restaurantListResponse;
+
+  private CustomerOrderResponse customerOrderResponse;
+
+  @Setup
+  public void createResponses() {
+    final Random random = new Random(42);
+    final RestaurantDetailsResponseAddressState restaurantState = new RestaurantDetailsResponseAddressState()
+        .id(UUID.randomUUID()).stateName("Karnataka");
+    restaurantListResponse = new RestaurantListResponse().nextCursor("NC41OjEyMw");
+    for (int i = 0; i < pageSize; i++) {
+      restaurantListResponse.addRestaurantsItem(new RestaurantList()
+          .id(UUID.randomUUID())
+          .restaurantName("Restaurant " + i)
+          .photoURL("https://images.example.com/restaurants/" + i + ".jpg")
+          .customerRating(BigDecimal.valueOf(10 + random.nextInt(40), 1))
+          .averagePrice(200 + random.nextInt(800))
+          .numberCustomersRated(random.nextInt(5000))
+          .address(new RestaurantDetailsResponseAddress()
+              .id(UUID.randomUUID())
+              .flatBuildingName(i + ", Main Road")
+              .locality("Koramangala")
+              .city("Bangalore")
+              .pincode("560034")
+              .state(restaurantState))
+          .categories("Chinese, Drinks, Indian, Snacks"));
+    }
+
+    final OrderListCustomer customer = new OrderListCustomer().id(UUID.randomUUID()).firstName("Ravi")
+        .lastName("Kumar").emailAddress("ravi@example.com").contactNumber("9876543210");
+    final OrderListAddress address = new OrderListAddress().id(UUID.randomUUID()).flatBuildingName("12, Lake View")
+        .locality("Indiranagar").city("Bangalore").pincode("560038")
+        .state(new OrderListAddressState().id(UUID.randomUUID()).stateName("Karnataka"));
+    final OrderListPayment payment = new OrderListPayment().id(UUID.randomUUID()).paymentName("Net Banking");
+    final OrderListCoupon coupon = new OrderListCoupon().id(UUID.randomUUID()).couponName("FLAT30").percent(30);
+    customerOrderResponse = new CustomerOrderResponse().nextCursor("MTU1MjQ1NTMzNzAwMDo0Mg");
+    for (int i = 0; i < pageSize; i++) {
+      final OrderList order = new OrderList()
+          .id(UUID.randomUUID())
+          .bill(BigDecimal.valueOf(20000 + random.nextInt(100000), 2))
+          .coupon(coupon)
+          .discount(BigDecimal.valueOf(random.nextInt(10000), 2))
+          .date("2019-03-13 10:" + (10 + i % 50) + ":07.0")
+          .payment(payment)
+          .customer(customer)
+          .address(address);
+      for (int j = 0; j < ORDER_ITEMS; j++) {
+        final int price = 100 + random.nextInt(400);
+        final int quantity = 1 + random.nextInt(3);
+        order.addItemQuantitiesItem(new ItemQuantityResponse()
+            .item(new ItemQuantityResponseItem().id(UUID.randomUUID()).itemName("Item " + j).itemPrice(price)
+                .type(ItemQuantityResponseItem.TypeEnum.values()[j % ItemQuantityResponseItem.TypeEnum.values().length]))
+            .quantity(quantity)
+            .price(price * quantity));
+      }
+      customerOrderResponse.addOrdersItem(order);
+    }
+  }
+
+  @Benchmark
+  public byte[] restaurantListResponse() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(restaurantListResponse);
+  }
+
+  @Benchmark
+  public byte[] customerOrderResponse() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(customerOrderResponse);
+  }
+}
@@ -0,0 +1,38 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the command line options of JMH, and writes the results as JSON to
+ * target/jmh-results/jmh-result-&lt;time&gt;.json unless a result file or format is given, so that the
+ * results of runs can be kept and compared over time.
+ *
+ * <p>java -jar target/benchmarks.jar [JMH options] [benchmark regexp], -h lists the options.
+ */
+public final class BenchmarkRunner {
+
+  private static final String RESULTS_DIRECTORY = "target/jmh-results";
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final List<String> options = new ArrayList<>(Arrays.asList(args));
+    if (!options.contains("-rf") && !options.contains("-rff")) {
+      final File results = new File(RESULTS_DIRECTORY);
+      if (!results.isDirectory() && !results.mkdirs()) {
+        throw new IllegalStateException("Cannot create " + results.getAbsolutePath());
+      }
+      final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+      options.addAll(Arrays.asList("-rf", "json", "-rff",
+          new File(results, "jmh-result-" + timestamp + ".json").getPath()));
+    }
+    Main.main(options.toArray(new String[0]));
+  }
+}
@@ -0,0 +1,119 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryItemDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantItemDao;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantItemEntity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merging the items of a restaurant with the items of a category in
+ * ItemService.getItemsByCategoryAndRestaurant. The DAOs return synthetic rows from memory, the
+ * items shared by both lists are the same instances as within one persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+  // Items on the menu of the restaurant
+  @Param({"20", "200"})
+  private int restaurantItems;
+
+  // Items of the category across all restaurants
+  @Param({"50", "2000"})
+  private int categoryItems;
+
+  private final ItemService itemService = new ItemService();
+
+  @Setup
+  public void createMenu() {
+    final RestaurantEntity restaurantEntity = new RestaurantEntity();
+    restaurantEntity.setUuid(UUID.randomUUID().toString());
+    final CategoryEntity categoryEntity = new CategoryEntity();
+    categoryEntity.setUuid(UUID.randomUUID().toString());
+
+    final Random random = new Random(42);
+    final List<ItemEntity> items = new ArrayList<>();
+    for (int i = 0; i < restaurantItems + categoryItems; i++) {
+      final ItemEntity itemEntity = new ItemEntity();
+      itemEntity.setId(i);
+      itemEntity.setUuid(UUID.randomUUID().toString());
+      itemEntity.setItemName("item " + i);
+      itemEntity.setPrice(100 + random.nextInt(400));
+      itemEntity.setType(ItemType.values()[random.nextInt(ItemType.values().length)]);
+      items.add(itemEntity);
+    }
+    // A quarter of the menu of the restaurant is in the category
+    Collections.shuffle(items, random);
+    final List<RestaurantItemEntity> restaurantItemEntities = new ArrayList<>();
+    for (ItemEntity itemEntity : items.subList(0, restaurantItems)) {
+      final RestaurantItemEntity restaurantItemEntity = new RestaurantItemEntity();
+      restaurantItemEntity.setItem(itemEntity);
+      restaurantItemEntity.setRestaurant(restaurantEntity);
+      restaurantItemEntities.add(restaurantItemEntity);
+    }
+    final List<CategoryItemEntity> categoryItemEntities = new ArrayList<>();
+    for (ItemEntity itemEntity : items.subList(restaurantItems * 3 / 4, restaurantItems * 3 / 4 + categoryItems)) {
+      final CategoryItemEntity categoryItemEntity = new CategoryItemEntity();
+      categoryItemEntity.setItem(itemEntity);
+      categoryItemEntity.setCategory(categoryEntity);
+      categoryItemEntities.add(categoryItemEntity);
+    }
+
+    itemService.restaurantDao = new RestaurantDao() {
+      @Override
+      public RestaurantEntity getRestaurantByUUID(final String uuid) {
+        return restaurantEntity;
+      }
+    };
+    itemService.categoryDao = new CategoryDao() {
+      @Override
+      public CategoryEntity getCategoryByUuid(final String uuid) {
+        return categoryEntity;
+      }
+    };
+    itemService.restaurantItemDao = new RestaurantItemDao() {
+      @Override
+      public List<RestaurantItemEntity> getItemsByRestaurant(final RestaurantEntity restaurant) {
+        return restaurantItemEntities;
+      }
+    };
+    itemService.categoryItemDao = new CategoryItemDao() {
+      @Override
+      public List<CategoryItemEntity> getItemsByCategory(final CategoryEntity category) {
+        return categoryItemEntities;
+      }
+    };
+  }
+
+  @Benchmark
+  public List<ItemEntity> getItemsByCategoryAndRestaurant() {
+    return itemService.getItemsByCategoryAndRestaurant("restaurant", "category");
+  }
+}
@@ -0,0 +1,54 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Hashing of a new password, including the hand-off to the hashing pool, at fixed costs instead of
+ * the cost calibrated at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordCryptographyBenchmark {
+
+  @Param({"10000", "100000"})
+  private int iterations;
+
+  private PasswordCryptographyProvider passwordCryptographyProvider;
+
+  @Setup
+  public void startProvider() {
+    passwordCryptographyProvider = new PasswordCryptographyProvider();
+    ReflectionTestUtils.setField(passwordCryptographyProvider, "iterations", iterations);
+    ReflectionTestUtils.setField(passwordCryptographyProvider, "keyLength", 512);
+    ReflectionTestUtils.setField(passwordCryptographyProvider, "queueSize", 64);
+    passwordCryptographyProvider.startHashingExecutor();
+  }
+
+  @TearDown
+  public void stopProvider() {
+    passwordCryptographyProvider.stopHashingExecutor();
+  }
+
+  @Benchmark
+  public String[] encrypt() throws ServiceBusyException {
+    return passwordCryptographyProvider.encrypt("Str0ng#Passw0rd");
+  }
+}
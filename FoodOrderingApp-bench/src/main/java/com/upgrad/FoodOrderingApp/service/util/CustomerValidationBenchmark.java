@@ -0,0 +1,55 @@
+package com.upgrad.FoodOrderingApp.service.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The regular expression checks of CustomerValidator on the email, contact number and password of a
+ * signup, for a valid value and for one that fails the check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerValidationBenchmark {
+
+  @Benchmark
+  public boolean validEmail() {
+    return CustomerValidator.isValidEmail("customer@example.com");
+  }
+
+  @Benchmark
+  public boolean invalidEmail() {
+    return CustomerValidator.isValidEmail("customer.name@example");
+  }
+
+  @Benchmark
+  public boolean validContactNumber() {
+    return CustomerValidator.isValidContactNumber("9876543210");
+  }
+
+  @Benchmark
+  public boolean invalidContactNumber() {
+    return CustomerValidator.isValidContactNumber("98765-43210");
+  }
+
+  @Benchmark
+  public boolean strongPassword() {
+    return CustomerValidator.isStrongPassword("Str0ng#Passw0rd");
+  }
+
+  @Benchmark
+  public boolean weakPassword() {
+    return CustomerValidator.isStrongPassword("weakpassword");
+  }
+}
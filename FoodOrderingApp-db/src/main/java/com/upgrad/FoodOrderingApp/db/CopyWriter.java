@@ -0,0 +1,82 @@
+package com.upgrad.FoodOrderingApp.db;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Streams rows into one table with COPY ... FROM STDIN in the text format: columns separated by
+ * tabs, rows by newlines and NULL written as \N. The generated values never contain tabs,
+ * newlines or backslashes, so they are written without escaping.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PGCopyOutputStream copyStream;
+    private final Writer writer;
+    private boolean firstColumn = true;
+    private long rows;
+
+    CopyWriter(final Connection connection, final String table, final String columns) throws SQLException {
+        copyStream = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                "COPY " + table + "(" + columns + ") FROM STDIN", BUFFER_SIZE);
+        writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    CopyWriter column(final String value) throws IOException {
+        separate();
+        writer.write(value == null ? "\\N" : value);
+        return this;
+    }
+
+    CopyWriter column(final long value) throws IOException {
+        separate();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    CopyWriter column(final double value) throws IOException {
+        separate();
+        writer.write(Double.toString(value));
+        return this;
+    }
+
+    void endRow() throws IOException {
+        writer.write('\n');
+        firstColumn = true;
+        rows++;
+    }
+
+    private void separate() throws IOException {
+        if (!firstColumn) {
+            writer.write('\t');
+        }
+        firstColumn = false;
+    }
+
+    /**
+     * Ends the COPY, the rows are in the table once the transaction commits.
+     *
+     * @return The number of rows written.
+     */
+    long finish() throws IOException, SQLException {
+        writer.flush();
+        copyStream.endCopy();
+        return rows;
+    }
+
+    // Cancels a COPY left unfinished by a failure
+    @Override
+    public void close() throws SQLException {
+        if (copyStream.isActive()) {
+            copyStream.cancelCopy();
+        }
+    }
+}
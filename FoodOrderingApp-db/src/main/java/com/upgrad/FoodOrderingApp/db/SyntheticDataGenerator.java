@@ -0,0 +1,959 @@
+package com.upgrad.FoodOrderingApp.db;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.GeneralSecurityException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Replaces the customers, restaurants, menus, orders and sessions of the database with a synthetic
+ * dataset of a configurable scale, loaded with COPY. The reference data of insert.sql, states,
+ * categories, payments and coupons, is kept and used as is.
+ *
+ * <p>One unit of scale is 100 restaurants, 10,000 customers and 100,000 orders of about 5 items
+ * each, so scale 100 gives 10k restaurants, 1M customers and some 50M order items. The same seed
+ * and scale give the same rows, the timestamps are relative to {@code synthetic.now}, by default
+ * the time of the run.
+ *
+ * <ul>
+ * <li>Restaurants and customers are spread over a few cities, customers order from the restaurants
+ * of their city. Orders pick the customer and, within the city, the restaurant from Zipf
+ * distributions, so a few customers and restaurants account for most orders. Customers are ranked
+ * within blocks of one unit of scale, so that the most active ones do not order more the larger
+ * the dataset.</li>
+ * <li>Menu sizes and price levels are log-normal per restaurant, the items of an order follow a Zipf
+ * distribution over the menu and the number of items of an order a geometric one.</li>
+ * <li>Customers have one to three addresses and a number of past sessions that grows with how often
+ * they order. Most sessions were logged out, some ran into their expiry and about one customer in
+ * ten still has an open session, whose access token can be used as a bearer token.</li>
+ * <li>Every customer has the password {@code synthetic.customer-password}, hashed once.</li>
+ * <li>The ratings of restaurants are in their average and count only, RESTAURANT_RATING stays empty
+ * as for ratings given before it existed.</li>
+ * </ul>
+ */
+public final class SyntheticDataGenerator {
+
+    private static final int RESTAURANTS_PER_SCALE = 100;
+    private static final int CUSTOMERS_PER_SCALE = 10_000;
+    private static final int ORDERS_PER_SCALE = 100_000;
+
+    private static final double RESTAURANT_POPULARITY_EXPONENT = 1.1;
+    private static final double CUSTOMER_ACTIVITY_EXPONENT = 0.6;
+    private static final double MENU_POPULARITY_EXPONENT = 1.0;
+
+    private static final int MEDIAN_MENU_SIZE = 30;
+    private static final int MIN_MENU_SIZE = 5;
+    private static final int MAX_MENU_SIZE = 150;
+    private static final int MEDIAN_ITEM_PRICE = 220;
+    // One item and on average four more, at most 25 different items in an order
+    private static final double MORE_ORDER_ITEMS_PROBABILITY = 0.8;
+    private static final int MAX_ORDER_ITEMS = 25;
+    private static final int[] QUANTITY_PERCENTS = {75, 18, 5, 2};
+    private static final int COUPON_PERCENT = 15;
+    private static final int ORDER_HISTORY_DAYS = 365;
+    // Share of the ratings a restaurant gets from its orders
+    private static final double RATINGS_PER_ORDER = 0.2;
+
+    // Sessions last as long as the access tokens issued at login
+    private static final int SESSION_HOURS = 8;
+    private static final double SESSIONS_PER_ORDER = 0.5;
+    private static final int MAX_SESSIONS = 500;
+    private static final int OPEN_SESSION_PERCENT = 10;
+    private static final int LOGGED_OUT_SESSION_PERCENT = 80;
+
+    private static final String CUSTOMER_PASSWORD_FORMAT = "pbkdf2-sha512";
+    private static final int CUSTOMER_PASSWORD_ITERATIONS = 10_000;
+    private static final int CUSTOMER_PASSWORD_KEY_LENGTH = 512;
+
+    // Ordinals of ItemType as stored in ITEM.type
+    private static final int VEG = 0;
+    private static final int NON_VEG = 1;
+    private static final int VEGAN = 2;
+
+    // Tables replaced by the generator
+    private static final String[] TABLES = {"ADDRESS", "RESTAURANT", "RESTAURANT_CATEGORY", "ITEM", "CATEGORY_ITEM",
+            "RESTAURANT_ITEM", "CUSTOMER", "CUSTOMER_ADDRESS", "ORDERS", "ORDER_ITEM", "CUSTOMER_AUTH",
+            "RESTAURANT_RATING"};
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final City[] CITIES = {
+            new City("Mumbai", "Maharashtra", "400", 19.0760, 72.8777, 20),
+            new City("Delhi", "Delhi", "110", 28.6139, 77.2090, 20),
+            new City("Bangalore", "Karnataka", "560", 12.9716, 77.5946, 15),
+            new City("Hyderabad", "Telangana", "500", 17.3850, 78.4867, 10),
+            new City("Chennai", "Tamil Nadu", "600", 13.0827, 80.2707, 10),
+            new City("Kolkata", "West Bengal", "700", 22.5726, 88.3639, 10),
+            new City("Pune", "Maharashtra", "411", 18.5204, 73.8567, 7),
+            new City("Ahmedabad", "Gujarat", "380", 23.0225, 72.5714, 5),
+            new City("Jaipur", "Rajasthan", "302", 26.9124, 75.7873, 3)
+    };
+    // Standard deviation of the coordinates around the centre of a city, about 5 km
+    private static final double CITY_SPREAD_DEGREES = 0.05;
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Aditi", "Akash", "Ananya", "Arjun", "Deepa", "Divya",
+            "Farhan", "Gaurav", "Ishita", "Karan", "Kavya", "Meera", "Neha", "Nikhil", "Pooja", "Priya", "Rahul",
+            "Ravi", "Riya", "Rohan", "Sanjay", "Sara", "Shreya", "Sneha", "Suresh", "Tanvi", "Varun", "Vikram",
+            "Zoya"};
+    private static final String[] LAST_NAMES = {"Agarwal", "Banerjee", "Bose", "Chopra", "Das", "Desai", "Gupta",
+            "Iyer", "Jain", "Joshi", "Kapoor", "Khan", "Kumar", "Mehta", "Menon", "Nair", "Patel", "Pillai", "Rao",
+            "Reddy", "Shah", "Sharma", "Singh", "Verma"};
+    private static final String[] RESTAURANT_NAME_PREFIXES = {"Spice", "Royal", "Green", "Urban", "Golden",
+            "Tandoor", "Coastal", "Masala", "Saffron", "Blue", "Punjabi", "Madras", "Bombay", "Little", "Grand"};
+    private static final String[] RESTAURANT_NAME_SUFFIXES = {"Kitchen", "Bistro", "Dhaba", "Grill", "House",
+            "Express", "Corner", "Tiffins", "Cafe", "Diner", "Court", "Garden", "Bites", "Point", "Social"};
+    private static final String[] LOCALITIES = {"MG Road", "Civil Lines", "Station Road", "Old Town",
+            "Park Street", "Lake View", "Market Yard", "Nehru Nagar", "Gandhi Nagar", "Model Town", "Cantonment",
+            "Sector 12", "Sector 45", "Indira Colony", "Residency Road"};
+    private static final String[] BUILDINGS = {"Sunshine Apartments", "Lotus Towers", "Shanti Niwas",
+            "Green Park", "Silver Oak", "Orchid Heights", "Commercial Complex", "Galaxy Plaza"};
+    private static final String[] ITEM_NAME_PREFIXES = {"Classic", "Special", "Spicy", "House", "Mini", "Family"};
+
+    // Dishes by category name, with the ordinal of their ItemType. Categories not listed take the generic dishes.
+    private static final Map<String, Dish[]> DISHES = new HashMap<>();
+    private static final Dish[] GENERIC_DISHES = {new Dish("Chef's Platter", NON_VEG), new Dish("Veg Platter", VEG),
+            new Dish("Soup of the Day", VEG), new Dish("Grilled Chicken", NON_VEG), new Dish("Garden Salad", VEGAN)};
+
+    static {
+        DISHES.put("Italian", new Dish[]{new Dish("Margherita Pizza", VEG), new Dish("Pepperoni Pizza", NON_VEG),
+                new Dish("Penne Arrabbiata", VEGAN), new Dish("Lasagne", NON_VEG), new Dish("Risotto", VEG),
+                new Dish("Bruschetta", VEGAN), new Dish("Spaghetti Carbonara", NON_VEG), new Dish("Gnocchi", VEG)});
+        DISHES.put("Indian", new Dish[]{new Dish("Butter Chicken", NON_VEG), new Dish("Paneer Tikka", VEG),
+                new Dish("Dal Makhani", VEG), new Dish("Chicken Biryani", NON_VEG), new Dish("Chana Masala", VEGAN),
+                new Dish("Rogan Josh", NON_VEG), new Dish("Masala Dosa", VEG), new Dish("Aloo Paratha", VEG),
+                new Dish("Fish Curry", NON_VEG), new Dish("Veg Thali", VEG)});
+        DISHES.put("Snacks", new Dish[]{new Dish("Samosa", VEGAN), new Dish("Pav Bhaji", VEG),
+                new Dish("Vada Pav", VEGAN), new Dish("Chicken Roll", NON_VEG), new Dish("French Fries", VEGAN),
+                new Dish("Pani Puri", VEGAN), new Dish("Egg Puff", NON_VEG), new Dish("Paneer Sandwich", VEG)});
+        DISHES.put("Drinks", new Dish[]{new Dish("Masala Chai", VEG), new Dish("Cold Coffee", VEG),
+                new Dish("Fresh Lime Soda", VEGAN), new Dish("Mango Lassi", VEG), new Dish("Iced Tea", VEGAN),
+                new Dish("Coconut Water", VEGAN)});
+        DISHES.put("Sweet Dish", new Dish[]{new Dish("Gulab Jamun", VEG), new Dish("Rasmalai", VEG),
+                new Dish("Brownie", VEG), new Dish("Kulfi", VEG), new Dish("Fruit Sorbet", VEGAN),
+                new Dish("Gajar Halwa", VEG)});
+        DISHES.put("Chinese", new Dish[]{new Dish("Hakka Noodles", VEGAN), new Dish("Chilli Chicken", NON_VEG),
+                new Dish("Veg Manchurian", VEGAN), new Dish("Fried Rice", VEG), new Dish("Spring Rolls", VEGAN),
+                new Dish("Chicken Momos", NON_VEG), new Dish("Schezwan Noodles", VEG)});
+        DISHES.put("Continental", new Dish[]{new Dish("Grilled Fish", NON_VEG), new Dish("Chicken Steak", NON_VEG),
+                new Dish("Mushroom Soup", VEG), new Dish("Caesar Salad", NON_VEG), new Dish("Club Sandwich", NON_VEG),
+                new Dish("Baked Vegetables", VEG), new Dish("Roast Potatoes", VEGAN)});
+    }
+
+    // Drinks, snacks and desserts are cheaper than mains
+    private static final Map<String, Double> CATEGORY_PRICE_FACTORS = new HashMap<>();
+
+    static {
+        CATEGORY_PRICE_FACTORS.put("Drinks", 0.5);
+        CATEGORY_PRICE_FACTORS.put("Snacks", 0.6);
+        CATEGORY_PRICE_FACTORS.put("Sweet Dish", 0.6);
+    }
+
+    private final int scale;
+    private final long seed;
+    private final LocalDateTime now;
+    private final String customerPassword;
+
+    // Reference data of the database
+    private final Map<String, Integer> stateIds = new HashMap<>();
+    private final List<Integer> categoryIds = new ArrayList<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<Integer> paymentIds = new ArrayList<>();
+    private final List<Integer> couponIds = new ArrayList<>();
+    private final List<Integer> couponPercents = new ArrayList<>();
+
+    // Restaurants, indexed by id - 1
+    private int restaurants;
+    private byte[] restaurantCities;
+    private float[] restaurantPriceLevels;
+    private int[] restaurantRanks;
+    private int[][] restaurantCategories;
+    private int[] menuSizes;
+    private int[] firstItemIds;
+    private int[][] cityRestaurants;
+    private ZipfDistribution[] cityRestaurantPopularity;
+    private double[] cityOrderShares;
+    private final ZipfDistribution[] menuPopularity = new ZipfDistribution[MAX_MENU_SIZE + 1];
+
+    // Items, indexed by id - 1
+    private int[] itemPrices;
+    private byte[] itemCategories;
+    private byte[] itemSecondCategories;
+
+    // Customers, indexed by id - 1
+    private int customers;
+    private byte[] customerCities;
+    private byte[] customerAddressCounts;
+    private int[] customerFirstAddressIds;
+    private int[] customerRanks;
+    private int[] customersByRank;
+    // Over the ranks of one block of customers
+    private ZipfDistribution customerActivity;
+
+    private int orders;
+
+    /**
+     * @param scale            units of scale to generate, at least 1.
+     * @param seed             seed of the generated rows.
+     * @param now              time the generated timestamps are relative to.
+     * @param customerPassword password of every generated customer.
+     */
+    public SyntheticDataGenerator(final int scale, final long seed, final LocalDateTime now,
+            final String customerPassword) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("The scale must be at least 1");
+        }
+        this.scale = scale;
+        this.seed = seed;
+        this.now = now;
+        this.customerPassword = customerPassword;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final String url = System.getProperty("database.url");
+        if (url == null) {
+            throw new IllegalArgumentException("Set database.url, database.username and database.password");
+        }
+        final int scale = Integer.getInteger("synthetic.scale", 1);
+        final String nowProperty = System.getProperty("synthetic.now", "");
+        final LocalDateTime now = nowProperty.isEmpty()
+                ? LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS) : LocalDateTime.parse(nowProperty);
+        final SyntheticDataGenerator generator = new SyntheticDataGenerator(scale,
+                Long.getLong("synthetic.seed", 42L), now,
+                System.getProperty("synthetic.customer-password", "Synthetic#123"));
+
+        try (Connection connection = DriverManager.getConnection(url, System.getProperty("database.username"),
+                System.getProperty("database.password"))) {
+            generator.generate(connection);
+        }
+    }
+
+    /**
+     * Replaces the generated tables in one transaction and analyzes them once it committed.
+     *
+     * @param connection connection to the database, set up with tables.sql and insert.sql.
+     */
+    public void generate(final Connection connection) throws SQLException, IOException, GeneralSecurityException {
+        log("Generating scale %d with seed %d relative to %s", scale, seed, now.format(TIMESTAMP_FORMAT));
+        final long startedAt = System.nanoTime();
+        final SplittableRandom random = new SplittableRandom(seed);
+
+        connection.setAutoCommit(false);
+        try {
+            readReferenceData(connection);
+            plan(random.split());
+            final List<String> recreateStatements = dropIndexesAndForeignKeys(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE " + String.join(", ", TABLES));
+            }
+            copyAddresses(connection, random.split());
+            copyRestaurants(connection, random.split());
+            copyRestaurantCategories(connection);
+            copyItems(connection, random.split());
+            copyCategoryItems(connection);
+            copyRestaurantItems(connection);
+            copyCustomers(connection, random.split());
+            copyCustomerAddresses(connection);
+            final long ordersSeed = random.nextLong();
+            copyOrders(connection, ordersSeed);
+            copyOrderItems(connection, ordersSeed);
+            copyCustomerSessions(connection, random.split());
+            try (Statement statement = connection.createStatement()) {
+                // Memory for sorting the rows of one index at a time
+                statement.execute("SET LOCAL maintenance_work_mem = '256MB'");
+                for (String recreateStatement : recreateStatements) {
+                    statement.execute(recreateStatement);
+                }
+            }
+            log("Recreated %d indexes and foreign keys", recreateStatements.size());
+            restartSequences(connection);
+            connection.commit();
+        } catch (SQLException | IOException | GeneralSecurityException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        log("Generated in %d s", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt));
+    }
+
+    private void readReferenceData(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet states = statement.executeQuery("SELECT id, state_name FROM STATE")) {
+                while (states.next()) {
+                    stateIds.put(states.getString(2), states.getInt(1));
+                }
+            }
+            try (ResultSet categories = statement.executeQuery("SELECT id, category_name FROM CATEGORY ORDER BY id")) {
+                while (categories.next()) {
+                    categoryIds.add(categories.getInt(1));
+                    categoryNames.add(categories.getString(2));
+                }
+            }
+            try (ResultSet payments = statement.executeQuery("SELECT id FROM PAYMENT ORDER BY id")) {
+                while (payments.next()) {
+                    paymentIds.add(payments.getInt(1));
+                }
+            }
+            try (ResultSet coupons = statement.executeQuery("SELECT id, percent FROM COUPON ORDER BY id")) {
+                while (coupons.next()) {
+                    couponIds.add(coupons.getInt(1));
+                    couponPercents.add(coupons.getInt(2));
+                }
+            }
+        }
+        if (categoryIds.isEmpty() || paymentIds.isEmpty() || couponIds.isEmpty()) {
+            throw new IllegalStateException("Categories, payments and coupons are missing, run the setup profile first");
+        }
+        if (categoryIds.size() > Byte.MAX_VALUE) {
+            throw new IllegalStateException("At most " + Byte.MAX_VALUE + " categories are supported");
+        }
+        for (City city : CITIES) {
+            if (!stateIds.containsKey(city.state)) {
+                throw new IllegalStateException("The state " + city.state + " is missing, run the setup profile first");
+            }
+        }
+    }
+
+    /**
+     * Drops the foreign keys of the generated tables and their indexes other than primary keys and
+     * unique constraints. Loading the rows and then building every index in one pass, and checking
+     * every foreign key in one query, is much faster than maintaining them row by row.
+     *
+     * @return The statements recreating them, indexes first.
+     */
+    private static List<String> dropIndexesAndForeignKeys(final Connection connection) throws SQLException {
+        final String tables = "'" + String.join("', '", TABLES).toLowerCase(Locale.ROOT) + "'";
+        final List<String> dropStatements = new ArrayList<>();
+        final List<String> createIndexStatements = new ArrayList<>();
+        final List<String> addForeignKeyStatements = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet foreignKeys = statement.executeQuery("SELECT conrelid::regclass::text, conname,"
+                    + " pg_get_constraintdef(oid) FROM pg_constraint WHERE contype = 'f'"
+                    + " AND conrelid::regclass::text IN (" + tables + ")")) {
+                while (foreignKeys.next()) {
+                    final String table = foreignKeys.getString(1);
+                    final String name = foreignKeys.getString(2);
+                    dropStatements.add("ALTER TABLE " + table + " DROP CONSTRAINT " + name);
+                    addForeignKeyStatements.add("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " "
+                            + foreignKeys.getString(3));
+                }
+            }
+            try (ResultSet indexes = statement.executeQuery("SELECT indexrelid::regclass::text,"
+                    + " pg_get_indexdef(indexrelid) FROM pg_index i WHERE indrelid::regclass::text IN (" + tables + ")"
+                    + " AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)")) {
+                while (indexes.next()) {
+                    dropStatements.add("DROP INDEX " + indexes.getString(1));
+                    createIndexStatements.add(indexes.getString(2));
+                }
+            }
+            for (String dropStatement : dropStatements) {
+                statement.execute(dropStatement);
+            }
+        }
+        final List<String> recreateStatements = new ArrayList<>(createIndexStatements);
+        recreateStatements.addAll(addForeignKeyStatements);
+        return recreateStatements;
+    }
+
+    /**
+     * Decides the shape of the dataset up front: the city, price level, menu and categories of every
+     * restaurant, the city and addresses of every customer and how popular each of them is. The rows
+     * are derived from it table by table.
+     */
+    private void plan(final SplittableRandom random) {
+        restaurants = RESTAURANTS_PER_SCALE * scale;
+        customers = CUSTOMERS_PER_SCALE * scale;
+        orders = ORDERS_PER_SCALE * scale;
+
+        restaurantCities = new byte[restaurants];
+        restaurantPriceLevels = new float[restaurants];
+        restaurantCategories = new int[restaurants][];
+        menuSizes = new int[restaurants];
+        firstItemIds = new int[restaurants];
+        int items = 0;
+        for (int r = 0; r < restaurants; r++) {
+            // Every city has at least one restaurant
+            restaurantCities[r] = (byte) (r < CITIES.length ? r : pickCity(random));
+            restaurantPriceLevels[r] = (float) Math.exp(0.4 * gaussian(random));
+            restaurantCategories[r] = pickCategories(random);
+            menuSizes[r] = (int) Math.max(MIN_MENU_SIZE,
+                    Math.min(MAX_MENU_SIZE, Math.round(MEDIAN_MENU_SIZE * Math.exp(0.5 * gaussian(random)))));
+            firstItemIds[r] = items + 1;
+            items += menuSizes[r];
+        }
+        itemPrices = new int[items];
+        itemCategories = new byte[items];
+        itemSecondCategories = new byte[items];
+
+        // The restaurants of every city in the order of their popularity
+        final int[] cityRestaurantCounts = new int[CITIES.length];
+        for (int r = 0; r < restaurants; r++) {
+            cityRestaurantCounts[restaurantCities[r]]++;
+        }
+        cityRestaurants = new int[CITIES.length][];
+        cityRestaurantPopularity = new ZipfDistribution[CITIES.length];
+        for (int c = 0; c < CITIES.length; c++) {
+            cityRestaurants[c] = new int[cityRestaurantCounts[c]];
+            cityRestaurantPopularity[c] = new ZipfDistribution(cityRestaurantCounts[c], RESTAURANT_POPULARITY_EXPONENT);
+            cityRestaurantCounts[c] = 0;
+        }
+        for (int r = 0; r < restaurants; r++) {
+            cityRestaurants[restaurantCities[r]][cityRestaurantCounts[restaurantCities[r]]++] = r + 1;
+        }
+        restaurantRanks = new int[restaurants];
+        for (int c = 0; c < CITIES.length; c++) {
+            shuffle(cityRestaurants[c], random);
+            for (int rank = 0; rank < cityRestaurants[c].length; rank++) {
+                restaurantRanks[cityRestaurants[c][rank] - 1] = rank;
+            }
+        }
+
+        customerCities = new byte[customers];
+        customerAddressCounts = new byte[customers];
+        customerFirstAddressIds = new int[customers];
+        int addressId = restaurants;
+        for (int c = 0; c < customers; c++) {
+            customerCities[c] = (byte) pickCity(random);
+            final int percent = random.nextInt(100);
+            customerAddressCounts[c] = (byte) (percent < 60 ? 1 : percent < 90 ? 2 : 3);
+            customerFirstAddressIds[c] = addressId + 1;
+            addressId += customerAddressCounts[c];
+        }
+
+        // The customers in the order of how often they order, and the share of the orders of every city
+        customersByRank = new int[customers];
+        for (int c = 0; c < customers; c++) {
+            customersByRank[c] = c + 1;
+        }
+        shuffle(customersByRank, random);
+        customerRanks = new int[customers];
+        customerActivity = new ZipfDistribution(CUSTOMERS_PER_SCALE, CUSTOMER_ACTIVITY_EXPONENT);
+        cityOrderShares = new double[CITIES.length];
+        for (int rank = 0; rank < customers; rank++) {
+            final int customerId = customersByRank[rank];
+            customerRanks[customerId - 1] = rank;
+            cityOrderShares[customerCities[customerId - 1]] += customerOrderShare(rank);
+        }
+        log("Planned %d restaurants with %d items and %d customers with %d addresses", restaurants, items,
+                customers, addressId - restaurants);
+    }
+
+    private void copyAddresses(final Connection connection, final SplittableRandom random)
+            throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "ADDRESS",
+                "id, uuid, flat_buil_number, locality, city, pincode, state_id, active, latitude, longitude")) {
+            for (int r = 0; r < restaurants; r++) {
+                writeAddress(copy, r + 1, CITIES[restaurantCities[r]], random);
+            }
+            for (int c = 0; c < customers; c++) {
+                for (int a = 0; a < customerAddressCounts[c]; a++) {
+                    writeAddress(copy, customerFirstAddressIds[c] + a, CITIES[customerCities[c]], random);
+                }
+            }
+            logCopied("ADDRESS", copy.finish());
+        }
+    }
+
+    private void writeAddress(final CopyWriter copy, final int id, final City city, final SplittableRandom random)
+            throws IOException {
+        copy.column(id)
+                .column(randomUuid(random))
+                .column((1 + random.nextInt(500)) + ", " + pick(BUILDINGS, random))
+                .column(pick(LOCALITIES, random))
+                .column(city.name)
+                .column(city.pincodePrefix + String.format(Locale.ROOT, "%03d", random.nextInt(1000)))
+                .column(stateIds.get(city.state))
+                .column(1)
+                .column(city.latitude + CITY_SPREAD_DEGREES * gaussian(random))
+                .column(city.longitude + CITY_SPREAD_DEGREES * gaussian(random))
+                .endRow();
+    }
+
+    private void copyRestaurants(final Connection connection, final SplittableRandom random)
+            throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "RESTAURANT", "id, uuid, restaurant_name, photo_url,"
+                + " customer_rating, average_price_for_two, number_of_customers_rated, address_id")) {
+            for (int r = 0; r < restaurants; r++) {
+                final String uuid = randomUuid(random);
+                final double rating = Math.max(1, Math.min(5, 3.9 + 0.45 * gaussian(random)));
+                final double expectedOrders = orders * cityOrderShares[restaurantCities[r]]
+                        * cityRestaurantPopularity[restaurantCities[r]].probability(restaurantRanks[r]);
+                final long ratings = Math.round(expectedOrders * RATINGS_PER_ORDER * Math.exp(0.3 * gaussian(random)));
+                copy.column(r + 1)
+                        .column(uuid)
+                        .column(pick(RESTAURANT_NAME_PREFIXES, random) + " " + pick(RESTAURANT_NAME_SUFFIXES, random))
+                        .column("https://images.example.com/restaurants/" + uuid + ".jpg")
+                        .column(String.format(Locale.ROOT, "%.2f", rating))
+                        .column(Math.max(100, Math.round(2 * MEDIAN_ITEM_PRICE * restaurantPriceLevels[r] / 50) * 50))
+                        .column(ratings)
+                        .column(r + 1)
+                        .endRow();
+            }
+            logCopied("RESTAURANT", copy.finish());
+        }
+    }
+
+    private void copyRestaurantCategories(final Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "RESTAURANT_CATEGORY", "restaurant_id, category_id")) {
+            for (int r = 0; r < restaurants; r++) {
+                for (int category : restaurantCategories[r]) {
+                    copy.column(r + 1).column(categoryIds.get(category)).endRow();
+                }
+            }
+            logCopied("RESTAURANT_CATEGORY", copy.finish());
+        }
+    }
+
+    private void copyItems(final Connection connection, final SplittableRandom random)
+            throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "ITEM", "id, uuid, item_name, price, type")) {
+            for (int r = 0; r < restaurants; r++) {
+                final int[] categories = restaurantCategories[r];
+                for (int i = 0; i < menuSizes[r]; i++) {
+                    final int index = firstItemIds[r] + i - 1;
+                    final int category = categories[random.nextInt(categories.length)];
+                    itemCategories[index] = (byte) category;
+                    itemSecondCategories[index] = -1;
+                    if (categories.length > 1 && random.nextInt(100) < 15) {
+                        final int second = categories[random.nextInt(categories.length)];
+                        itemSecondCategories[index] = (byte) (second == category ? -1 : second);
+                    }
+
+                    final String categoryName = categoryNames.get(category);
+                    final Dish dish = pick(DISHES.getOrDefault(categoryName, GENERIC_DISHES), random);
+                    final String name = random.nextBoolean() ? dish.name : pick(ITEM_NAME_PREFIXES, random) + " " + dish.name;
+                    final double price = MEDIAN_ITEM_PRICE * CATEGORY_PRICE_FACTORS.getOrDefault(categoryName, 1.0)
+                            * restaurantPriceLevels[r] * Math.exp(0.35 * gaussian(random));
+                    itemPrices[index] = (int) Math.max(20, Math.round(price / 5) * 5);
+                    copy.column(index + 1)
+                            .column(randomUuid(random))
+                            .column(name.length() > 30 ? name.substring(0, 30) : name)
+                            .column(itemPrices[index])
+                            .column(dish.type)
+                            .endRow();
+                }
+            }
+            logCopied("ITEM", copy.finish());
+        }
+    }
+
+    private void copyCategoryItems(final Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "CATEGORY_ITEM", "item_id, category_id")) {
+            for (int index = 0; index < itemCategories.length; index++) {
+                copy.column(index + 1).column(categoryIds.get(itemCategories[index])).endRow();
+                if (itemSecondCategories[index] >= 0) {
+                    copy.column(index + 1).column(categoryIds.get(itemSecondCategories[index])).endRow();
+                }
+            }
+            logCopied("CATEGORY_ITEM", copy.finish());
+        }
+    }
+
+    private void copyRestaurantItems(final Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "RESTAURANT_ITEM", "item_id, restaurant_id")) {
+            for (int r = 0; r < restaurants; r++) {
+                for (int i = 0; i < menuSizes[r]; i++) {
+                    copy.column(firstItemIds[r] + i).column(r + 1).endRow();
+                }
+            }
+            logCopied("RESTAURANT_ITEM", copy.finish());
+        }
+    }
+
+    private void copyCustomers(final Connection connection, final SplittableRandom random)
+            throws SQLException, IOException, GeneralSecurityException {
+        final String[] saltAndPassword = hashCustomerPassword(random);
+        try (CopyWriter copy = new CopyWriter(connection, "CUSTOMER",
+                "id, uuid, firstname, lastname, email, contact_number, password, salt")) {
+            for (int c = 0; c < customers; c++) {
+                final String firstName = pick(FIRST_NAMES, random);
+                final String lastName = pick(LAST_NAMES, random);
+                copy.column(c + 1)
+                        .column(randomUuid(random))
+                        .column(firstName)
+                        .column(lastName)
+                        .column((firstName + lastName + (c + 1) + "@example.com").toLowerCase(Locale.ROOT))
+                        // Ten digits, unique by the id
+                        .column(String.format(Locale.ROOT, "9%09d", c + 1))
+                        .column(saltAndPassword[1])
+                        .column(saltAndPassword[0])
+                        .endRow();
+            }
+            logCopied("CUSTOMER", copy.finish());
+        }
+    }
+
+    /**
+     * Hashes the password of all customers once, in the format of PasswordCryptographyProvider, so
+     * that they can log in without a million hashes at load time.
+     *
+     * @return [0] encoded salt [1] hashed password.
+     */
+    private String[] hashCustomerPassword(final SplittableRandom random) throws GeneralSecurityException {
+        final byte[] salt = new byte[32];
+        for (int i = 0; i < salt.length; i++) {
+            salt[i] = (byte) random.nextInt(256);
+        }
+        final PBEKeySpec spec = new PBEKeySpec(customerPassword.toCharArray(), salt, CUSTOMER_PASSWORD_ITERATIONS,
+                CUSTOMER_PASSWORD_KEY_LENGTH);
+        final byte[] hash = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512").generateSecret(spec).getEncoded();
+        spec.clearPassword();
+        final StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(String.format(Locale.ROOT, "%02X", b));
+        }
+        return new String[]{Base64.getEncoder().encodeToString(salt), CUSTOMER_PASSWORD_FORMAT + "$"
+                + CUSTOMER_PASSWORD_ITERATIONS + "$" + CUSTOMER_PASSWORD_KEY_LENGTH + "$" + hex};
+    }
+
+    private void copyCustomerAddresses(final Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "CUSTOMER_ADDRESS", "id, customer_id, address_id")) {
+            int id = 0;
+            for (int c = 0; c < customers; c++) {
+                for (int a = 0; a < customerAddressCounts[c]; a++) {
+                    copy.column(++id).column(c + 1).column(customerFirstAddressIds[c] + a).endRow();
+                }
+            }
+            logCopied("CUSTOMER_ADDRESS", copy.finish());
+        }
+    }
+
+    private void copyOrders(final Connection connection, final long ordersSeed) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "ORDERS",
+                "id, uuid, bill, coupon_id, discount, date, payment_id, customer_id, address_id, restaurant_id")) {
+            generateOrders(ordersSeed, order -> copy.column(order.id)
+                    .column(order.uuid)
+                    .column(BigDecimal.valueOf(order.billPaise, 2).toPlainString())
+                    .column(order.couponId == 0 ? null : Integer.toString(order.couponId))
+                    .column(BigDecimal.valueOf(order.discountPaise, 2).toPlainString())
+                    .column(order.date.format(TIMESTAMP_FORMAT))
+                    .column(order.paymentId)
+                    .column(order.customerId)
+                    .column(order.addressId)
+                    .column(order.restaurantId)
+                    .endRow());
+            logCopied("ORDERS", copy.finish());
+        }
+    }
+
+    // Orders are generated a second time from the same seed for their items, a connection copies one table at a time
+    private void copyOrderItems(final Connection connection, final long ordersSeed) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "ORDER_ITEM", "id, order_id, item_id, quantity, price")) {
+            final long[] id = {0};
+            generateOrders(ordersSeed, order -> {
+                for (int i = 0; i < order.itemCount; i++) {
+                    copy.column(++id[0])
+                            .column(order.id)
+                            .column(order.itemIds[i])
+                            .column(order.quantities[i])
+                            .column((long) order.quantities[i] * itemPrices[order.itemIds[i] - 1])
+                            .endRow();
+                }
+            });
+            logCopied("ORDER_ITEM", copy.finish());
+        }
+    }
+
+    private void generateOrders(final long ordersSeed, final OrderConsumer consumer) throws IOException {
+        final SplittableRandom random = new SplittableRandom(ordersSeed);
+        final Order order = new Order();
+        for (int id = 1; id <= orders; id++) {
+            final int customer = customersByRank[random.nextInt(scale) * CUSTOMERS_PER_SCALE
+                    + customerActivity.sample(random)] - 1;
+            final int city = customerCities[customer];
+            final int restaurant = cityRestaurants[city][cityRestaurantPopularity[city].sample(random)] - 1;
+            order.id = id;
+            order.uuid = randomUuid(random);
+            order.customerId = customer + 1;
+            order.addressId = customerFirstAddressIds[customer] + random.nextInt(customerAddressCounts[customer]);
+            order.restaurantId = restaurant + 1;
+            order.paymentId = pick(paymentIds, random);
+            order.date = orderDate(random);
+
+            int wanted = 1;
+            while (wanted < MAX_ORDER_ITEMS && random.nextDouble() < MORE_ORDER_ITEMS_PROBABILITY) {
+                wanted++;
+            }
+            wanted = Math.min(wanted, menuSizes[restaurant]);
+            final ZipfDistribution menu = menuPopularity(menuSizes[restaurant]);
+            long subtotal = 0;
+            order.itemCount = 0;
+            // Popular items are drawn again and again, a few attempts are enough for distinct items
+            for (int attempt = 0; order.itemCount < wanted && attempt < 4 * wanted; attempt++) {
+                final int itemId = firstItemIds[restaurant] + menu.sample(random);
+                if (!order.contains(itemId)) {
+                    final int quantity = quantity(random);
+                    order.itemIds[order.itemCount] = itemId;
+                    order.quantities[order.itemCount] = quantity;
+                    order.itemCount++;
+                    subtotal += (long) quantity * itemPrices[itemId - 1];
+                }
+            }
+
+            order.couponId = 0;
+            order.discountPaise = 0;
+            if (random.nextInt(100) < COUPON_PERCENT) {
+                final int coupon = random.nextInt(couponIds.size());
+                order.couponId = couponIds.get(coupon);
+                // A percent of an amount in rupees is an exact amount in paise
+                order.discountPaise = subtotal * couponPercents.get(coupon);
+            }
+            order.billPaise = 100 * subtotal - order.discountPaise;
+            consumer.accept(order);
+        }
+    }
+
+    // Most orders at lunch and dinner time over the last year
+    private LocalDateTime orderDate(final SplittableRandom random) {
+        final int percent = random.nextInt(100);
+        final double hour = percent < 60 ? 20.5 + 1.2 * gaussian(random)
+                : percent < 90 ? 13 + gaussian(random) : 8 + 15 * random.nextDouble();
+        final long seconds = Math.max(0, Math.min(24 * 3600 - 1, Math.round(hour * 3600)));
+        final LocalDateTime date = now.toLocalDate().minusDays(random.nextInt(ORDER_HISTORY_DAYS)).atStartOfDay()
+                .plusSeconds(seconds);
+        return date.isAfter(now) ? date.minusDays(1) : date;
+    }
+
+    private static int quantity(final SplittableRandom random) {
+        int percent = random.nextInt(100);
+        for (int quantity = 1; quantity < QUANTITY_PERCENTS.length; quantity++) {
+            percent -= QUANTITY_PERCENTS[quantity - 1];
+            if (percent < 0) {
+                return quantity;
+            }
+        }
+        return QUANTITY_PERCENTS.length;
+    }
+
+    // Share of all orders placed by the customer of a rank
+    private double customerOrderShare(final int rank) {
+        return customerActivity.probability(rank % CUSTOMERS_PER_SCALE) / scale;
+    }
+
+    private ZipfDistribution menuPopularity(final int menuSize) {
+        if (menuPopularity[menuSize] == null) {
+            menuPopularity[menuSize] = new ZipfDistribution(menuSize, MENU_POPULARITY_EXPONENT);
+        }
+        return menuPopularity[menuSize];
+    }
+
+    /**
+     * Past sessions of every customer, more for customers who order more. The last session of about
+     * one customer in ten is still open and expires after the time of the run.
+     */
+    private void copyCustomerSessions(final Connection connection, final SplittableRandom random)
+            throws SQLException, IOException {
+        final long historySeconds = TimeUnit.DAYS.toSeconds(ORDER_HISTORY_DAYS);
+        final long sessionSeconds = TimeUnit.HOURS.toSeconds(SESSION_HOURS);
+        try (CopyWriter copy = new CopyWriter(connection, "CUSTOMER_AUTH",
+                "id, uuid, customer_id, access_token, login_at, logout_at, expires_at")) {
+            int id = 0;
+            for (int c = 0; c < customers; c++) {
+                final double expectedOrders = orders * customerOrderShare(customerRanks[c]);
+                final int sessions = 1 + Math.min(MAX_SESSIONS - 1, geometric(expectedOrders * SESSIONS_PER_ORDER, random));
+                for (int s = 0; s < sessions; s++) {
+                    final LocalDateTime loginAt;
+                    final LocalDateTime logoutAt;
+                    final LocalDateTime expiresAt;
+                    if (s == sessions - 1 && random.nextInt(100) < OPEN_SESSION_PERCENT) {
+                        loginAt = now.minusSeconds(random.nextLong(sessionSeconds));
+                        logoutAt = null;
+                        expiresAt = loginAt.plusSeconds(sessionSeconds);
+                    } else {
+                        // Ended before the time of the run, either logged out or expired
+                        loginAt = now.minusSeconds(sessionSeconds + random.nextLong(historySeconds));
+                        if (random.nextInt(100) < LOGGED_OUT_SESSION_PERCENT) {
+                            final long minutes = Math.round(20 * Math.exp(gaussian(random)));
+                            logoutAt = loginAt.plusSeconds(Math.min(sessionSeconds - 1, 60 * minutes));
+                            expiresAt = logoutAt;
+                        } else {
+                            logoutAt = null;
+                            expiresAt = loginAt.plusSeconds(sessionSeconds);
+                        }
+                    }
+                    copy.column(++id)
+                            .column(randomUuid(random))
+                            .column(c + 1)
+                            .column("synthetic-" + randomUuid(random))
+                            .column(loginAt.format(TIMESTAMP_FORMAT))
+                            .column(logoutAt == null ? null : logoutAt.format(TIMESTAMP_FORMAT))
+                            .column(expiresAt.format(TIMESTAMP_FORMAT))
+                            .endRow();
+                }
+            }
+            logCopied("CUSTOMER_AUTH", copy.finish());
+        }
+    }
+
+    // Sequences continue after the generated ids, as in migration/V1__sequence_ids.sql
+    private static void restartSequences(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                if ("RESTAURANT_RATING".equals(table)) {
+                    // Keyed by customer and restaurant
+                    continue;
+                }
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), COALESCE(MAX(id), 0) + 1,"
+                        + " false) FROM " + table);
+            }
+        }
+    }
+
+    private static int pickCity(final SplittableRandom random) {
+        int total = 0;
+        for (City city : CITIES) {
+            total += city.weight;
+        }
+        int weight = random.nextInt(total);
+        for (int c = 0; c < CITIES.length; c++) {
+            weight -= CITIES[c].weight;
+            if (weight < 0) {
+                return c;
+            }
+        }
+        return CITIES.length - 1;
+    }
+
+    // One to four different categories, two most often
+    private int[] pickCategories(final SplittableRandom random) {
+        final int percent = random.nextInt(100);
+        final int count = Math.min(categoryIds.size(), percent < 30 ? 1 : percent < 65 ? 2 : percent < 90 ? 3 : 4);
+        final int[] all = new int[categoryIds.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        shuffle(all, random);
+        final int[] categories = new int[count];
+        System.arraycopy(all, 0, categories, 0, count);
+        return categories;
+    }
+
+    // Number of failures before a success, with the given mean
+    private static int geometric(final double mean, final SplittableRandom random) {
+        if (mean <= 0) {
+            return 0;
+        }
+        final double failure = mean / (1 + mean);
+        return (int) Math.min(Integer.MAX_VALUE, Math.floor(Math.log(1 - random.nextDouble()) / Math.log(failure)));
+    }
+
+    // Standard normal by the Box-Muller transform, SplittableRandom has no nextGaussian
+    private static double gaussian(final SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static String randomUuid(final SplittableRandom random) {
+        final long mostSignificantBits = random.nextLong() & ~0xF000L | 0x4000L;
+        final long leastSignificantBits = random.nextLong() & ~(0xC000L << 48) | (0x8000L << 48);
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    private static <T> T pick(final T[] values, final SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(final List<T> values, final SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static void shuffle(final int[] values, final SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private static void logCopied(final String table, final long rows) {
+        log("Copied %d rows into %s", rows, table);
+    }
+
+    private static void log(final String format, final Object... args) {
+        System.out.println(LocalDateTime.now().format(TIMESTAMP_FORMAT) + " " + String.format(Locale.ROOT, format, args));
+    }
+
+    private static final class City {
+
+        private final String name;
+        private final String state;
+        private final String pincodePrefix;
+        private final double latitude;
+        private final double longitude;
+        private final int weight;
+
+        private City(final String name, final String state, final String pincodePrefix, final double latitude,
+                final double longitude, final int weight) {
+            this.name = name;
+            this.state = state;
+            this.pincodePrefix = pincodePrefix;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Dish {
+
+        private final String name;
+        private final int type;
+
+        private Dish(final String name, final int type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private static final class Order {
+
+        private int id;
+        private String uuid;
+        private int customerId;
+        private int addressId;
+        private int restaurantId;
+        private int paymentId;
+        private int couponId;
+        private long discountPaise;
+        private long billPaise;
+        private LocalDateTime date;
+        private int itemCount;
+        private final int[] itemIds = new int[MAX_ORDER_ITEMS];
+        private final int[] quantities = new int[MAX_ORDER_ITEMS];
+
+        private boolean contains(final int itemId) {
+            for (int i = 0; i < itemCount; i++) {
+                if (itemIds[i] == itemId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface OrderConsumer {
+
+        void accept(Order order) throws IOException;
+    }
+}
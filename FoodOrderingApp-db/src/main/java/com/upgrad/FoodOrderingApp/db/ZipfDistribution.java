@@ -0,0 +1,51 @@
+package com.upgrad.FoodOrderingApp.db;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, so that a few ranks
+ * get most of the draws and a long tail gets few. Sampling is a binary search of the cumulative
+ * distribution, which is kept as an array of n doubles.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(final int n, final double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("A Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        cumulative[n - 1] = 1;
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * @param random source of the draw.
+     * @return The rank drawn, 0 being the most frequent.
+     */
+    int sample(final SplittableRandom random) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @param rank rank between 0 and n-1.
+     * @return The probability of drawing the rank.
+     */
+    double probability(final int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
@@ -0,0 +1,21 @@
+-- Migrates a database created with the SERIAL ids of ADDRESS, CUSTOMER_ADDRESS, ORDERS, ORDER_ITEM and CUSTOMER_AUTH
+-- to sequences incremented in blocks of 50, as created by tables.sql. Run it with the application stopped, applications
+-- allocating ids one at a time from the old sequences would collide with the blocks handed out afterwards.
+-- Each sequence restarts right after the highest id in use, which becomes the lowest id of the first block.
+-- It must run once only, run again it would hand out the unused ids of blocks already reserved by the application a
+-- second time. The migrate profile records it in flyway_schema_history and never runs it again.
+
+ALTER SEQUENCE address_id_seq INCREMENT BY 50;
+SELECT setval('address_id_seq', COALESCE((SELECT MAX(id) FROM ADDRESS), 0) + 1, false);
+
+ALTER SEQUENCE customer_address_id_seq INCREMENT BY 50;
+SELECT setval('customer_address_id_seq', COALESCE((SELECT MAX(id) FROM CUSTOMER_ADDRESS), 0) + 1, false);
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+SELECT setval('orders_id_seq', COALESCE((SELECT MAX(id) FROM ORDERS), 0) + 1, false);
+
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
+SELECT setval('order_item_id_seq', COALESCE((SELECT MAX(id) FROM ORDER_ITEM), 0) + 1, false);
+
+ALTER SEQUENCE customer_auth_id_seq INCREMENT BY 50;
+SELECT setval('customer_auth_id_seq', COALESCE((SELECT MAX(id) FROM CUSTOMER_AUTH), 0) + 1, false);
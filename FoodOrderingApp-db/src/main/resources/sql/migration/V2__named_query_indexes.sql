@@ -0,0 +1,49 @@
+-- Secondary indexes for the access paths of the named queries on the entities. Primary keys and the UNIQUE uuid columns
+-- are indexed by their constraints already. Every statement can be run again, so the script serves both a new database
+-- created by tables.sql and an existing one. The indexes are built CONCURRENTLY so that the tables stay writable while
+-- they are built, an index whose build failed is left INVALID and has to be dropped before the script is run again.
+-- The trigram index needs the pg_trgm extension, creating it requires a role allowed to create extensions.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- customerAuthTokenByAccessToken, accessTokensLoggedOutSince
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_auth_access_token_idx ON CUSTOMER_AUTH(access_token);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_auth_logout_at_idx ON CUSTOMER_AUTH(logout_at) WHERE logout_at IS NOT NULL;
+
+-- customerByEmail
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_email_idx ON CUSTOMER(email);
+
+-- getAllCustomerAddressByCustomer, getCustomerAddressByAddress
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_address_customer_id_idx ON CUSTOMER_ADDRESS(customer_id, address_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS customer_address_address_id_idx ON CUSTOMER_ADDRESS(address_id);
+
+-- couponByCouponName
+CREATE INDEX CONCURRENTLY IF NOT EXISTS coupon_coupon_name_idx ON COUPON(coupon_name);
+
+-- pastOrdersByCustomerUUID and getOrdersByCustomers read the orders of a customer newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_customer_id_date_idx ON ORDERS(customer_id, date DESC);
+-- getOrdersByRestaurant, itemsByPopularity
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_restaurant_id_idx ON ORDERS(restaurant_id);
+-- getOrdersByAddress
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_address_id_idx ON ORDERS(address_id);
+
+-- itemsByOrderId, itemsByPopularity
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_item_order_id_idx ON ORDER_ITEM(order_id, item_id);
+
+-- getItemsByRestaurant, getCategorisedItemsByRestaurant and the items of a restaurant
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_item_restaurant_id_idx ON RESTAURANT_ITEM(restaurant_id, item_id);
+
+-- getItemsByCategory and the items of a category, getCategorisedItemsByRestaurant looks categories up by item
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_item_category_id_idx ON CATEGORY_ITEM(category_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_item_item_id_idx ON CATEGORY_ITEM(item_id, category_id);
+
+-- The categories of a restaurant and the restaurants of a category, both ways of the join table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_category_restaurant_id_idx ON RESTAURANT_CATEGORY(restaurant_id, category_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_category_category_id_idx ON RESTAURANT_CATEGORY(category_id, restaurant_id);
+
+-- getRestaurantsByName matches LOWER(restaurant_name) LIKE '%name%', which only a trigram index can serve
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_name_trgm_idx ON RESTAURANT USING gin (LOWER(restaurant_name) gin_trgm_ops);
+-- allRestaurantsByRating
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_customer_rating_idx ON RESTAURANT(customer_rating DESC);
+
+ANALYZE;
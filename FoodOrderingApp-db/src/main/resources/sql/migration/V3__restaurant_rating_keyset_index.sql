@@ -0,0 +1,8 @@
+-- The restaurant listings are paged by (customer_rating DESC, id), the id breaks ties between equal ratings. An index
+-- in the same order serves every page as a range scan from the cursor position, without sorting.
+
+-- restaurantsByRatingAfter, and the order of restaurantsByNameAfter and restaurantsByCategoryUuidAfter
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_customer_rating_id_idx ON RESTAURANT(customer_rating DESC, id);
+DROP INDEX CONCURRENTLY IF EXISTS restaurant_customer_rating_idx;
+
+ANALYZE RESTAURANT;
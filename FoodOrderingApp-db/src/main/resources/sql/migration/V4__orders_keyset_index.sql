@@ -0,0 +1,8 @@
+-- The order history of a customer is paged by (date DESC, id DESC), the id breaks ties between orders placed at the
+-- same time. An index in the same order serves every page as a range scan from the cursor position, without sorting.
+
+-- pastOrdersByCustomerUUIDAfter, getOrdersByCustomers
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_customer_id_date_id_idx ON ORDERS(customer_id, date DESC, id DESC);
+DROP INDEX CONCURRENTLY IF EXISTS orders_customer_id_date_idx;
+
+ANALYZE ORDERS;
@@ -0,0 +1,7 @@
+-- Adds RESTAURANT_RATING, as created by tables.sql, which records the latest rating of every customer for every
+-- restaurant. Ratings given before it existed were not recorded per customer and stay in the average and the count of
+-- RESTAURANT, a customer who rated before is counted again with their first rating afterwards.
+
+-- The primary key serves the lookups of the rating of a customer for a restaurant, the index the deletes of restaurants
+CREATE TABLE IF NOT EXISTS RESTAURANT_RATING(customer_id INTEGER NOT NULL, restaurant_id INTEGER NOT NULL, rating DECIMAL NOT NULL, rated_at TIMESTAMP NOT NULL, PRIMARY KEY (customer_id, restaurant_id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_rating_restaurant_id_idx ON RESTAURANT_RATING(restaurant_id);
@@ -0,0 +1,13 @@
+-- Adds the coordinates of addresses, as created by tables.sql, which locate restaurants for GET /restaurant/nearby.
+-- Existing addresses are left without coordinates and their restaurants are not found nearby until they are located.
+ALTER TABLE ADDRESS ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE ADDRESS ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+-- restaurantLocationsInBox, read while the in-memory location index is not built. Addresses without coordinates are
+-- never looked up by them and are left out of the index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS address_latitude_longitude_idx ON ADDRESS(latitude, longitude) WHERE latitude IS NOT NULL;
+-- restaurantLocationsInBox joins the restaurants to the addresses found
+CREATE INDEX CONCURRENTLY IF NOT EXISTS restaurant_address_id_idx ON RESTAURANT(address_id);
+
+ANALYZE ADDRESS;
+ANALYZE RESTAURANT;
@@ -1,3 +1,10 @@
+-- ADDRESS, CUSTOMER_ADDRESS, ORDERS, ORDER_ITEM and CUSTOMER_AUTH draw their ids from sequences incremented in blocks of 50,
+-- the application reserves a block per sequence call and hands out its ids without further round trips.
+-- Keep the increments in line with the allocationSize of the entities.
+
+-- The tables are created anew, the versioned scripts are recorded as applied to them again by the setup profile
+DROP TABLE IF EXISTS flyway_schema_history;
+
 DROP TABLE IF EXISTS CUSTOMER CASCADE;
 CREATE TABLE CUSTOMER(id SERIAL, uuid VARCHAR(200) UNIQUE NOT NULL, firstname VARCHAR(30) NOT NULL, lastname VARCHAR(30) ,email VARCHAR(50),
   contact_number VARCHAR(30) UNIQUE NOT NULL, password VARCHAR(255) NOT NULL, salt VARCHAR(255) NOT NULL ,PRIMARY KEY(id));
@@ -15,10 +22,16 @@ DROP TABLE IF EXISTS STATE CASCADE;
 CREATE TABLE STATE(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, state_name VARCHAR(30),PRIMARY KEY (id));
 
 DROP TABLE IF EXISTS ADDRESS CASCADE;
-CREATE TABLE ADDRESS(id SERIAL, uuid VARCHAR(200) UNIQUE NOT NULL,flat_buil_number VARCHAR(255), locality VARCHAR(255),city VARCHAR(30),pincode VARCHAR(30), state_id INTEGER, active INTEGER DEFAULT(1), PRIMARY KEY (id),FOREIGN KEY (state_id) REFERENCES STATE(id) ON DELETE CASCADE);
+DROP SEQUENCE IF EXISTS address_id_seq;
+CREATE SEQUENCE address_id_seq INCREMENT BY 50;
+CREATE TABLE ADDRESS(id INTEGER NOT NULL DEFAULT nextval('address_id_seq'), uuid VARCHAR(200) UNIQUE NOT NULL,flat_buil_number VARCHAR(255), locality VARCHAR(255),city VARCHAR(30),pincode VARCHAR(30), state_id INTEGER, active INTEGER DEFAULT(1), latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, PRIMARY KEY (id),FOREIGN KEY (state_id) REFERENCES STATE(id) ON DELETE CASCADE);
+ALTER SEQUENCE address_id_seq OWNED BY ADDRESS.id;
 
 DROP TABLE IF EXISTS CUSTOMER_ADDRESS CASCADE;
-CREATE TABLE CUSTOMER_ADDRESS(id SERIAL,customer_id INTEGER NOT NULL,address_id INTEGER NOT NULL,PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE,FOREIGN KEY (address_id) REFERENCES ADDRESS(id) ON DELETE CASCADE);
+DROP SEQUENCE IF EXISTS customer_address_id_seq;
+CREATE SEQUENCE customer_address_id_seq INCREMENT BY 50;
+CREATE TABLE CUSTOMER_ADDRESS(id INTEGER NOT NULL DEFAULT nextval('customer_address_id_seq'),customer_id INTEGER NOT NULL,address_id INTEGER NOT NULL,PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE,FOREIGN KEY (address_id) REFERENCES ADDRESS(id) ON DELETE CASCADE);
+ALTER SEQUENCE customer_address_id_seq OWNED BY CUSTOMER_ADDRESS.id;
 
 DROP TABLE IF EXISTS ITEM CASCADE;
 CREATE TABLE ITEM(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, item_name VARCHAR(30) NOT NULL, price INTEGER NOT NULL, type VARCHAR(10) NOT NULL, PRIMARY KEY (id));
@@ -27,7 +40,10 @@ DROP TABLE IF EXISTS RESTAURANT CASCADE;
 CREATE TABLE RESTAURANT(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, restaurant_name VARCHAR(50) NOT NULL, photo_url VARCHAR(255), customer_rating DECIMAL NOT NULL, average_price_for_two INTEGER NOT NULL, number_of_customers_rated INTEGER NOT NULL DEFAULT 0, address_id INTEGER NOT NULL , PRIMARY KEY(id), FOREIGN KEY (address_id) REFERENCES ADDRESS(id) ON DELETE CASCADE);
 
 DROP TABLE IF EXISTS ORDERS CASCADE;
-CREATE TABLE ORDERS(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, bill DECIMAL NOT NULL, coupon_id INTEGER,discount DECIMAL DEFAULT 0, date TIMESTAMP NOT NULL , payment_id INTEGER,customer_id INTEGER NOT NULL, address_id INTEGER NOT NULL,PRIMARY KEY(id), restaurant_id INTEGER NOT NULL ,FOREIGN KEY (payment_id) REFERENCES PAYMENT(id),FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id),FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (address_id) REFERENCES ADDRESS(id),FOREIGN KEY (coupon_id) REFERENCES COUPON(id));
+DROP SEQUENCE IF EXISTS orders_id_seq;
+CREATE SEQUENCE orders_id_seq INCREMENT BY 50;
+CREATE TABLE ORDERS(id INTEGER NOT NULL DEFAULT nextval('orders_id_seq'),uuid VARCHAR(200) UNIQUE NOT NULL, bill DECIMAL NOT NULL, coupon_id INTEGER,discount DECIMAL DEFAULT 0, date TIMESTAMP NOT NULL , payment_id INTEGER,customer_id INTEGER NOT NULL, address_id INTEGER NOT NULL,PRIMARY KEY(id), restaurant_id INTEGER NOT NULL ,FOREIGN KEY (payment_id) REFERENCES PAYMENT(id),FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id),FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (address_id) REFERENCES ADDRESS(id),FOREIGN KEY (coupon_id) REFERENCES COUPON(id));
+ALTER SEQUENCE orders_id_seq OWNED BY ORDERS.id;
 
 DROP TABLE IF EXISTS CATEGORY_ITEM CASCADE;
 CREATE TABLE CATEGORY_ITEM(id SERIAL,item_id INTEGER NOT NULL,category_id INTEGER NOT NULL, PRIMARY KEY (id),FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE, FOREIGN KEY (category_id) REFERENCES CATEGORY(id) ON DELETE CASCADE);
@@ -36,10 +52,22 @@ DROP TABLE IF EXISTS RESTAURANT_ITEM CASCADE;
 CREATE TABLE RESTAURANT_ITEM(id SERIAL,item_id INTEGER NOT NULL, restaurant_id INTEGER NOT NULL, PRIMARY KEY (id),FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
 
 DROP TABLE IF EXISTS ORDER_ITEM CASCADE;
-CREATE TABLE ORDER_ITEM(id SERIAL,order_id INTEGER NOT NULL, item_id INTEGER NOT NULL, quantity INTEGER NOT NULL, price INTEGER NOT NULL ,PRIMARY KEY (id),FOREIGN KEY (item_id) REFERENCES item(id), FOREIGN KEY (order_id) REFERENCES ORDERS(id) ON DELETE CASCADE);
+DROP SEQUENCE IF EXISTS order_item_id_seq;
+CREATE SEQUENCE order_item_id_seq INCREMENT BY 50;
+CREATE TABLE ORDER_ITEM(id INTEGER NOT NULL DEFAULT nextval('order_item_id_seq'),order_id INTEGER NOT NULL, item_id INTEGER NOT NULL, quantity INTEGER NOT NULL, price INTEGER NOT NULL ,PRIMARY KEY (id),FOREIGN KEY (item_id) REFERENCES item(id), FOREIGN KEY (order_id) REFERENCES ORDERS(id) ON DELETE CASCADE);
+ALTER SEQUENCE order_item_id_seq OWNED BY ORDER_ITEM.id;
 
 DROP TABLE IF EXISTS RESTAURANT_CATEGORY CASCADE;
 CREATE TABLE RESTAURANT_CATEGORY(id SERIAL,restaurant_id INTEGER NOT NULL, category_id INTEGER NOT NULL,PRIMARY KEY (id), FOREIGN KEY (category_id) REFERENCES CATEGORY(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
 
 DROP TABLE IF EXISTS CUSTOMER_AUTH CASCADE;
-CREATE TABLE CUSTOMER_AUTH(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), login_at TIMESTAMP, logout_at TIMESTAMP,expires_at TIMESTAMP, PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE);
\ No newline at end of file
+DROP SEQUENCE IF EXISTS customer_auth_id_seq;
+CREATE SEQUENCE customer_auth_id_seq INCREMENT BY 50;
+CREATE TABLE CUSTOMER_AUTH(id INTEGER NOT NULL DEFAULT nextval('customer_auth_id_seq'),uuid VARCHAR(200) UNIQUE NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), login_at TIMESTAMP, logout_at TIMESTAMP,expires_at TIMESTAMP, PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE);
+ALTER SEQUENCE customer_auth_id_seq OWNED BY CUSTOMER_AUTH.id;
+
+-- The latest rating of every customer for every restaurant. RESTAURANT keeps the average and the count of the ratings,
+-- which the application adjusts by the difference whenever it writes ratings here.
+DROP TABLE IF EXISTS RESTAURANT_RATING CASCADE;
+CREATE TABLE RESTAURANT_RATING(customer_id INTEGER NOT NULL, restaurant_id INTEGER NOT NULL, rating DECIMAL NOT NULL, rated_at TIMESTAMP NOT NULL, PRIMARY KEY (customer_id, restaurant_id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
+CREATE INDEX restaurant_rating_restaurant_id_idx ON RESTAURANT_RATING(restaurant_id);
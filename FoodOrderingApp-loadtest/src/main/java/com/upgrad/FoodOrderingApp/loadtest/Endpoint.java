@@ -0,0 +1,55 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+/**
+ * The endpoints of the traffic mix, with the key that names them in loadtest.mix and their default
+ * share of the requests, which add up to 100.
+ */
+enum Endpoint {
+
+  BROWSE("browse", "GET /restaurant", 35),
+  RESTAURANT("restaurant", "GET /restaurant/{restaurant_id}", 30),
+  LOGIN("login", "POST /customer/login", 5),
+  ORDERS("orders", "GET /order", 10),
+  PLACE_ORDER("place-order", "POST /order", 8),
+  ADDRESSES("addresses", "GET /address/customer", 7),
+  SAVE_ADDRESS("save-address", "POST /address", 3),
+  DELETE_ADDRESS("delete-address", "DELETE /address/{address_id}", 2);
+
+  private final String key;
+
+  private final String route;
+
+  private final int defaultWeight;
+
+  Endpoint(final String key, final String route, final int defaultWeight) {
+    this.key = key;
+    this.route = route;
+    this.defaultWeight = defaultWeight;
+  }
+
+  String getKey() {
+    return key;
+  }
+
+  String getRoute() {
+    return route;
+  }
+
+  int getDefaultWeight() {
+    return defaultWeight;
+  }
+
+  // Endpoints sent with the access token of a logged in customer
+  boolean isAuthenticated() {
+    return this != BROWSE && this != RESTAURANT && this != LOGIN;
+  }
+
+  static Endpoint byKey(final String key) {
+    for (Endpoint endpoint : values()) {
+      if (endpoint.key.equals(key)) {
+        return endpoint;
+      }
+    }
+    throw new IllegalArgumentException("Unknown endpoint " + key + " in loadtest.mix");
+  }
+}
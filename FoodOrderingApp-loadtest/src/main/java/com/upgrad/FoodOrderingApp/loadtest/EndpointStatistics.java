@@ -0,0 +1,102 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and outcomes of the requests to one endpoint. Latencies are recorded in microseconds
+ * with three significant digits, longer ones than ten minutes as ten minutes.
+ */
+final class EndpointStatistics {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+  private final Histogram latencies = newHistogram();
+
+  // Responses by status code, failed requests by exception
+  private final Map<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+
+  private final LongAdder errors = new LongAdder();
+
+  private final LongAdder dropped = new LongAdder();
+
+  static Histogram newHistogram() {
+    return new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, 3);
+  }
+
+  static void recordNanos(final Histogram histogram, final long nanos) {
+    histogram.recordValue(Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS)));
+  }
+
+  /**
+   * @param latencyNanos from the time the request was due to the end of its response.
+   * @param outcome      status code of the response, or the exception the request failed with.
+   * @param error        whether the request failed or was answered with an error status.
+   */
+  void record(final long latencyNanos, final String outcome, final boolean error) {
+    recordNanos(latencies, latencyNanos);
+    outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    if (error) {
+      errors.increment();
+    }
+  }
+
+  // A request left out as too many were waiting for a connection already
+  void recordDropped() {
+    dropped.increment();
+  }
+
+  long getRequests() {
+    return latencies.getTotalCount();
+  }
+
+  long getErrors() {
+    return errors.sum();
+  }
+
+  long getDropped() {
+    return dropped.sum();
+  }
+
+  Histogram getLatencies() {
+    return latencies;
+  }
+
+  ObjectNode toJson() {
+    final ObjectNode json = JsonNodeFactory.instance.objectNode();
+    json.put("requests", getRequests());
+    json.put("errors", getErrors());
+    json.put("dropped", getDropped());
+    final ObjectNode outcomesJson = json.putObject("outcomes");
+    outcomes.forEach((outcome, count) -> outcomesJson.put(outcome, count.sum()));
+    json.set("latencyMillis", latenciesToJson(latencies));
+    return json;
+  }
+
+  static ObjectNode latenciesToJson(final Histogram histogram) {
+    final ObjectNode json = JsonNodeFactory.instance.objectNode();
+    if (histogram.getTotalCount() == 0) {
+      return json;
+    }
+    json.put("mean", toMillis(histogram.getMean()));
+    for (int i = 0; i < PERCENTILES.length; i++) {
+      json.put(PERCENTILE_NAMES[i], toMillis(histogram.getValueAtPercentile(PERCENTILES[i])));
+    }
+    json.put("max", toMillis(histogram.getMaxValue()));
+    return json;
+  }
+
+  private static double toMillis(final double micros) {
+    return Math.round(micros) / 1000.0;
+  }
+}
@@ -0,0 +1,364 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.upgrad.FoodOrderingApp.api.model.ItemQuantity;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantListResponse;
+import com.upgrad.FoodOrderingApp.api.model.SaveAddressRequest;
+import com.upgrad.FoodOrderingApp.api.model.SaveAddressResponse;
+import com.upgrad.FoodOrderingApp.api.model.SaveOrderRequest;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Sends the requests of the traffic mix in an open loop: requests arrive as a Poisson process of
+ * the configured rate whether or not the earlier ones were answered, as the requests of many
+ * independent customers do. A request waits for a free connection when all are busy and its
+ * latency is measured from the time it was due, so that a slow server shows in the latencies
+ * instead of lowering the rate of the requests.
+ *
+ * <p>The endpoints of logged in customers are sent for a customer that logged in during the run or
+ * has an open session in the database, a login is sent in their place while there is none. A
+ * delete removes an address saved by the run and saves one instead when the customer has none
+ * left, so that the run does not remove the addresses of the dataset.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+  private static final int FIRST_PAGE_PERCENT = 70;
+
+  private static final int MAX_ORDER_ITEMS = 4;
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+
+  private static final int SOCKET_TIMEOUT_MILLIS = 60_000;
+
+  // Requests due over this many seconds at most wait for a connection, the ones arriving beyond are dropped
+  private static final int MAX_WAITING_SECONDS = 10;
+
+  private final String baseUrl;
+
+  private final Workload workload;
+
+  private final TrafficMix mix;
+
+  private final double rate;
+
+  private final String customerPassword;
+
+  private final SplittableRandom random;
+
+  private final CloseableHttpClient httpClient;
+
+  private final ThreadPoolExecutor executor;
+
+  private final int maxWaiting;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  LoadGenerator(final LoadTestSettings settings, final String baseUrl, final Workload workload) {
+    this.baseUrl = baseUrl;
+    this.workload = workload;
+    mix = settings.mix;
+    rate = settings.rate;
+    customerPassword = settings.customerPassword;
+    random = new SplittableRandom(settings.seed);
+
+    final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(settings.connections);
+    connectionManager.setDefaultMaxPerRoute(settings.connections);
+    httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+            .setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+            .build())
+        .disableAutomaticRetries()
+        .disableCookieManagement()
+        .disableRedirectHandling()
+        .build();
+
+    final AtomicInteger threads = new AtomicInteger();
+    executor = new ThreadPoolExecutor(settings.connections, settings.connections, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          final Thread thread = new Thread(runnable, "loadtest-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    maxWaiting = (int) Math.max(settings.connections, Math.ceil(rate * MAX_WAITING_SECONDS));
+  }
+
+  /**
+   * Starts the requests due within the given time, the last ones may still be in flight when it
+   * returns.
+   *
+   * @param seconds time to send requests for.
+   * @return The statistics the requests are recorded in.
+   */
+  Statistics run(final int seconds) {
+    final Statistics statistics = new Statistics(seconds);
+    final long start = System.nanoTime();
+    final long end = start + TimeUnit.SECONDS.toNanos(seconds);
+    long due = start;
+    while (true) {
+      // Exponential intervals between the arrivals of a Poisson process
+      due += (long) (-Math.log(1 - random.nextDouble()) / rate * TimeUnit.SECONDS.toNanos(1));
+      if (due >= end) {
+        return statistics;
+      }
+      for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+        LockSupport.parkNanos(wait);
+      }
+      final Endpoint endpoint = mix.next(random);
+      if (executor.getQueue().size() >= maxWaiting) {
+        statistics.get(endpoint).recordDropped();
+        continue;
+      }
+      final long requestDue = due;
+      final SplittableRandom requestRandom = random.split();
+      executor.execute(() -> send(endpoint, requestDue, requestRandom, statistics));
+    }
+  }
+
+  /**
+   * Waits for the requests in flight to be answered.
+   *
+   * @return Whether they were answered within the timeout.
+   */
+  boolean awaitCompletion(final long timeout, final TimeUnit unit) throws InterruptedException {
+    executor.shutdown();
+    return executor.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public void close() throws IOException {
+    executor.shutdownNow();
+    httpClient.close();
+  }
+
+  private void send(final Endpoint due, final long dueNanos, final SplittableRandom random,
+      final Statistics statistics) {
+    statistics.recordSchedulingDelay(System.nanoTime() - dueNanos);
+    Endpoint endpoint = due;
+    VirtualCustomer customer = null;
+    if (endpoint.isAuthenticated()) {
+      customer = workload.nextLoggedInCustomer(random);
+      if (customer == null) {
+        endpoint = Endpoint.LOGIN;
+      }
+    }
+    String addressId = null;
+    if (endpoint == Endpoint.DELETE_ADDRESS) {
+      addressId = customer.takeSavedAddressId();
+      if (addressId == null) {
+        endpoint = Endpoint.SAVE_ADDRESS;
+      }
+    }
+    if (endpoint == Endpoint.LOGIN) {
+      customer = workload.nextCustomer(random);
+    }
+
+    try (CloseableHttpResponse response = httpClient.execute(request(endpoint, customer, addressId, random))) {
+      final HttpEntity entity = response.getEntity();
+      final byte[] body = entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
+      final long latency = System.nanoTime() - dueNanos;
+      final int status = response.getStatusLine().getStatusCode();
+      String outcome = Integer.toString(status);
+      boolean error = status >= 400;
+      if (!error) {
+        try {
+          handleResponse(endpoint, customer, response, body);
+        } catch (IOException e) {
+          // A response the run cannot use counts as an error
+          outcome += " " + e.getClass().getSimpleName();
+          error = true;
+        }
+      }
+      statistics.get(endpoint).record(latency, outcome, error);
+    } catch (IOException | RuntimeException e) {
+      statistics.get(endpoint).record(System.nanoTime() - dueNanos, e.getClass().getSimpleName(), true);
+    }
+  }
+
+  private HttpUriRequest request(final Endpoint endpoint, final VirtualCustomer customer, final String addressId,
+      final SplittableRandom random) throws IOException {
+    switch (endpoint) {
+      case BROWSE:
+        final String cursor = random.nextInt(100) < FIRST_PAGE_PERCENT ? null : workload.nextCursor(random);
+        return new HttpGet(baseUrl + "/restaurant" + (cursor == null ? "" : "?cursor=" + encode(cursor)));
+      case RESTAURANT:
+        return new HttpGet(baseUrl + "/restaurant/" + workload.nextRestaurant(random).id);
+      case LOGIN:
+        final HttpPost login = new HttpPost(baseUrl + "/customer/login");
+        login.setHeader("authorization", "Basic " + Base64.getEncoder().encodeToString(
+            (customer.getContactNumber() + ":" + customerPassword).getBytes(StandardCharsets.UTF_8)));
+        login.setHeader("Content-Type", ContentType.APPLICATION_JSON.toString());
+        return login;
+      case ORDERS:
+        return authorize(new HttpGet(baseUrl + "/order"), customer);
+      case PLACE_ORDER:
+        final HttpPost order = new HttpPost(baseUrl + "/order");
+        order.setEntity(json(orderRequest(customer, random)));
+        return authorize(order, customer);
+      case ADDRESSES:
+        return authorize(new HttpGet(baseUrl + "/address/customer"), customer);
+      case SAVE_ADDRESS:
+        final HttpPost address = new HttpPost(baseUrl + "/address");
+        address.setEntity(json(new SaveAddressRequest()
+            .flatBuildingName((1 + random.nextInt(500)) + ", Load Test Residency")
+            .locality("Test Nagar")
+            .city("Bangalore")
+            .pincode(Integer.toString(560001 + random.nextInt(100)))
+            .stateUuid(workload.nextStateId(random))));
+        return authorize(address, customer);
+      case DELETE_ADDRESS:
+        return authorize(new HttpDelete(baseUrl + "/address/" + addressId), customer);
+      default:
+        throw new IllegalArgumentException("No request for " + endpoint);
+    }
+  }
+
+  // An order of a few items of the menu of a restaurant, paid in full
+  private SaveOrderRequest orderRequest(final VirtualCustomer customer, final SplittableRandom random) {
+    final Workload.Restaurant restaurant = workload.nextRestaurant(random);
+    final SaveOrderRequest request = new SaveOrderRequest()
+        .addressId(customer.getAddressIds().get(random.nextInt(customer.getAddressIds().size())))
+        .paymentId(UUID.fromString(workload.nextPaymentId(random)))
+        .restaurantId(UUID.fromString(restaurant.id))
+        .discount(BigDecimal.ZERO);
+    int bill = 0;
+    if (restaurant.itemIds.length > 0) {
+      final int items = 1 + random.nextInt(MAX_ORDER_ITEMS);
+      for (int i = 0; i < items; i++) {
+        final int item = random.nextInt(restaurant.itemIds.length);
+        final int quantity = random.nextInt(4) == 0 ? 2 : 1;
+        final int price = restaurant.itemPrices[item] * quantity;
+        request.addItemQuantitiesItem(new ItemQuantity()
+            .itemId(UUID.fromString(restaurant.itemIds[item]))
+            .quantity(quantity)
+            .price(price));
+        bill += price;
+      }
+    }
+    return request.bill(BigDecimal.valueOf(bill));
+  }
+
+  private void handleResponse(final Endpoint endpoint, final VirtualCustomer customer,
+      final CloseableHttpResponse response, final byte[] body) throws IOException {
+    switch (endpoint) {
+      case BROWSE:
+        final String nextCursor = objectMapper.readValue(body, RestaurantListResponse.class).getNextCursor();
+        if (nextCursor != null) {
+          workload.addCursor(nextCursor);
+        }
+        break;
+      case LOGIN:
+        if (response.containsHeader("access-token")) {
+          workload.loggedIn(customer, response.getFirstHeader("access-token").getValue());
+        }
+        break;
+      case SAVE_ADDRESS:
+        customer.addSavedAddressId(objectMapper.readValue(body, SaveAddressResponse.class).getId());
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static <T extends HttpUriRequest> T authorize(final T request, final VirtualCustomer customer) {
+    request.setHeader("authorization", "Bearer " + customer.getAccessToken());
+    return request;
+  }
+
+  private ByteArrayEntity json(final Object body) throws IOException {
+    return new ByteArrayEntity(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+  }
+
+  private static String encode(final String value) throws UnsupportedEncodingException {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+  }
+
+  /**
+   * The requests of one phase of the run by endpoint, and how late they were sent.
+   */
+  static final class Statistics {
+
+    private final int seconds;
+
+    private final Map<Endpoint, EndpointStatistics> endpoints = new EnumMap<>(Endpoint.class);
+
+    // From the time a request was due to the time it got a connection and was sent
+    private final Histogram schedulingDelays = EndpointStatistics.newHistogram();
+
+    private Statistics(final int seconds) {
+      this.seconds = seconds;
+      for (Endpoint endpoint : Endpoint.values()) {
+        endpoints.put(endpoint, new EndpointStatistics());
+      }
+    }
+
+    EndpointStatistics get(final Endpoint endpoint) {
+      return endpoints.get(endpoint);
+    }
+
+    Map<Endpoint, EndpointStatistics> getEndpoints() {
+      return endpoints;
+    }
+
+    private void recordSchedulingDelay(final long nanos) {
+      EndpointStatistics.recordNanos(schedulingDelays, nanos);
+    }
+
+    ObjectNode toJson() {
+      long requests = 0;
+      long errors = 0;
+      long dropped = 0;
+      final ObjectNode endpointsJson = JsonNodeFactory.instance.objectNode();
+      for (Map.Entry<Endpoint, EndpointStatistics> entry : endpoints.entrySet()) {
+        requests += entry.getValue().getRequests();
+        errors += entry.getValue().getErrors();
+        dropped += entry.getValue().getDropped();
+        if (entry.getValue().getRequests() > 0 || entry.getValue().getDropped() > 0) {
+          endpointsJson.set(entry.getKey().getRoute(), entry.getValue().toJson());
+        }
+      }
+      final ObjectNode json = JsonNodeFactory.instance.objectNode();
+      json.put("seconds", seconds);
+      json.put("requests", requests);
+      json.put("errors", errors);
+      json.put("dropped", dropped);
+      json.put("throughput", Math.round(requests * 10.0 / seconds) / 10.0);
+      json.set("schedulingDelayMillis", EndpointStatistics.latenciesToJson(schedulingDelays));
+      json.set("endpoints", endpointsJson);
+      return json;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.db.SyntheticDataGenerator;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Drives the API with a mix of the requests of browsing and ordering customers at a fixed rate,
+ * and writes the latencies of every endpoint as JSON to
+ * target/loadtest-results/loadtest-&lt;time&gt;.json, so that the results of runs can be kept and
+ * compared over time.
+ *
+ * <p>Unless loadtest.url points to a running instance the application is started in-process against
+ * the database of spring.datasource, optionally loaded with synthetic data of loadtest.seed-scale
+ * first. The requests are made of the restaurants, menus and customers read from that database. The
+ * run warms up for loadtest.warmup-seconds, whose requests are not reported, then measures for
+ * loadtest.duration-seconds.
+ *
+ * <p>java [-Dloadtest.rate=100 ...] -jar target/loadtest.jar, see the Readme for the settings.
+ */
+public final class LoadTestRunner {
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  // Requests in flight when the measurement ends are waited for this long
+  private static final int COMPLETION_TIMEOUT_SECONDS = 60;
+
+  private LoadTestRunner() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    // The application started in-process reads the same database
+    System.setProperty("spring.datasource.url", settings.datasourceUrl);
+    System.setProperty("spring.datasource.username", settings.datasourceUsername);
+    System.setProperty("spring.datasource.password", settings.datasourcePassword);
+
+    if (settings.seedScale > 0) {
+      try (Connection connection = connect(settings)) {
+        new SyntheticDataGenerator(settings.seedScale, settings.seed,
+            LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), settings.customerPassword).generate(connection);
+      }
+    }
+
+    ConfigurableApplicationContext application = null;
+    String baseUrl = settings.url;
+    if (baseUrl.isEmpty()) {
+      // Printing every statement, as the development configuration does, would be most of the latency
+      if (System.getProperty("spring.jpa.show-sql") == null) {
+        System.setProperty("spring.jpa.show-sql", "false");
+      }
+      application = SpringApplication.run(FoodOrderingAppApiApplication.class, "--server.port=" + settings.port);
+      baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort()
+          + application.getEnvironment().getProperty("server.servlet.context-path", "");
+    }
+
+    try {
+      final Workload workload;
+      try (Connection connection = connect(settings)) {
+        workload = Workload.read(connection, settings.customers, new SplittableRandom(settings.seed));
+      }
+      log("Driving %s at %.1f requests per second with %d restaurants and %d customers, %d logged in",
+          baseUrl, settings.rate, workload.getRestaurantCount(), workload.getCustomerCount(),
+          workload.getLoggedInCustomerCount());
+      final ObjectNode report = JsonNodeFactory.instance.objectNode();
+      report.put("startedAt", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString());
+      report.put("target", baseUrl);
+      report.put("inProcess", application != null);
+      report.set("settings", settingsToJson(settings));
+      final ObjectNode dataset = report.putObject("dataset");
+      dataset.put("restaurants", workload.getRestaurantCount());
+      dataset.put("customers", workload.getCustomerCount());
+      dataset.put("loggedInCustomers", workload.getLoggedInCustomerCount());
+
+      try (LoadGenerator generator = new LoadGenerator(settings, baseUrl, workload)) {
+        if (settings.warmupSeconds > 0) {
+          log("Warming up for %d seconds", settings.warmupSeconds);
+          generator.run(settings.warmupSeconds);
+        }
+        log("Measuring for %d seconds", settings.durationSeconds);
+        final LoadGenerator.Statistics statistics = generator.run(settings.durationSeconds);
+        final boolean complete = generator.awaitCompletion(COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (!complete) {
+          log("Requests still in flight %d seconds after the end are left out", COMPLETION_TIMEOUT_SECONDS);
+        }
+        report.put("complete", complete);
+        report.setAll(statistics.toJson());
+        writeReport(report, settings.report);
+        printSummary(statistics);
+      }
+    } finally {
+      if (application != null) {
+        application.close();
+      }
+    }
+  }
+
+  private static Connection connect(final LoadTestSettings settings) throws SQLException {
+    return DriverManager.getConnection(settings.datasourceUrl, settings.datasourceUsername,
+        settings.datasourcePassword);
+  }
+
+  private static ObjectNode settingsToJson(final LoadTestSettings settings) {
+    final ObjectNode json = JsonNodeFactory.instance.objectNode();
+    json.put("rate", settings.rate);
+    json.put("warmupSeconds", settings.warmupSeconds);
+    json.put("durationSeconds", settings.durationSeconds);
+    json.put("connections", settings.connections);
+    json.put("customers", settings.customers);
+    json.put("seed", settings.seed);
+    json.put("seedScale", settings.seedScale);
+    final ObjectNode mix = json.putObject("mix");
+    settings.mix.getWeights().forEach((endpoint, weight) -> mix.put(endpoint.getKey(), weight));
+    return json;
+  }
+
+  private static void writeReport(final ObjectNode report, final File file) throws Exception {
+    final File directory = file.getAbsoluteFile().getParentFile();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IllegalStateException("Cannot create " + directory);
+    }
+    Jackson2ObjectMapperBuilder.json().indentOutput(true).build().writeValue(file, report);
+    log("Wrote %s", file.getPath());
+  }
+
+  private static void printSummary(final LoadGenerator.Statistics statistics) {
+    System.out.println(String.format(Locale.ROOT, "%-32s %9s %7s %7s %9s %9s %9s %9s", "endpoint", "requests",
+        "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+    for (Map.Entry<Endpoint, EndpointStatistics> entry : statistics.getEndpoints().entrySet()) {
+      final EndpointStatistics endpoint = entry.getValue();
+      if (endpoint.getRequests() == 0 && endpoint.getDropped() == 0) {
+        continue;
+      }
+      final Histogram latencies = endpoint.getLatencies();
+      System.out.println(String.format(Locale.ROOT, "%-32s %9d %7d %7d %9.1f %9.1f %9.1f %9.1f",
+          entry.getKey().getRoute(), endpoint.getRequests(), endpoint.getErrors(), endpoint.getDropped(),
+          latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+          latencies.getValueAtPercentile(99.9) / 1000.0, latencies.getMaxValue() / 1000.0));
+    }
+  }
+
+  private static void log(final String format, final Object... args) {
+    System.out.println(LocalDateTime.now().format(TIMESTAMP_FORMAT) + " " + String.format(Locale.ROOT, format, args));
+  }
+}
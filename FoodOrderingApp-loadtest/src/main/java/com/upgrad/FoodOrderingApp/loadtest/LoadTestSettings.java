@@ -0,0 +1,85 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * The settings of a run, read from system properties. The database is the one of
+ * spring.datasource, so that an application started in-process uses the same.
+ */
+final class LoadTestSettings {
+
+  private static final String RESULTS_DIRECTORY = "target/loadtest-results";
+
+  // Base URL of a running instance, the application is started in-process when empty
+  final String url;
+
+  // Port of the application started in-process, 0 for any free port
+  final int port;
+
+  final String datasourceUrl;
+
+  final String datasourceUsername;
+
+  final String datasourcePassword;
+
+  // Units of synthetic data loaded before the run, 0 keeps the data of the database as is
+  final int seedScale;
+
+  // Seed of the synthetic data, of the arrivals and of the choices of the requests
+  final long seed;
+
+  final String customerPassword;
+
+  // Requests started per second, on average
+  final double rate;
+
+  final int warmupSeconds;
+
+  final int durationSeconds;
+
+  // Requests in flight at most, the ones arriving beyond wait for a connection
+  final int connections;
+
+  // Customers drawn from the database to send the requests of logged in customers
+  final int customers;
+
+  final TrafficMix mix;
+
+  final File report;
+
+  private LoadTestSettings() {
+    url = trimTrailingSlash(System.getProperty("loadtest.url", ""));
+    port = Integer.getInteger("loadtest.port", 0);
+    datasourceUrl = System.getProperty("spring.datasource.url", "jdbc:postgresql://localhost:54321/restaurantdb");
+    datasourceUsername = System.getProperty("spring.datasource.username", "postgres");
+    datasourcePassword = System.getProperty("spring.datasource.password", "postgres");
+    seedScale = Integer.getInteger("loadtest.seed-scale", 0);
+    seed = Long.getLong("loadtest.seed", 42L);
+    customerPassword = System.getProperty("loadtest.customer-password", "Synthetic#123");
+    rate = Double.parseDouble(System.getProperty("loadtest.rate", "100"));
+    warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 30);
+    durationSeconds = Integer.getInteger("loadtest.duration-seconds", 120);
+    connections = Integer.getInteger("loadtest.connections", 200);
+    customers = Integer.getInteger("loadtest.customers", 2000);
+    mix = TrafficMix.parse(System.getProperty("loadtest.mix", ""));
+    final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    report = new File(System.getProperty("loadtest.report",
+        new File(RESULTS_DIRECTORY, "loadtest-" + timestamp + ".json").getPath()));
+
+    if (rate <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || connections <= 0 || customers <= 0
+        || seedScale < 0) {
+      throw new IllegalArgumentException("loadtest.rate, loadtest.duration-seconds, loadtest.connections and "
+          + "loadtest.customers must be positive, loadtest.warmup-seconds and loadtest.seed-scale not negative");
+    }
+  }
+
+  static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings();
+  }
+
+  private static String trimTrailingSlash(final String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+}
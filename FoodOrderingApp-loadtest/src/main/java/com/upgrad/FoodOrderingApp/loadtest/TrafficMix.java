@@ -0,0 +1,72 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Draws the endpoint of every request with a probability proportional to its weight.
+ */
+final class TrafficMix {
+
+  private final Map<Endpoint, Integer> weights;
+
+  private final Endpoint[] endpoints;
+
+  private final int[] cumulativeWeights;
+
+  TrafficMix(final Map<Endpoint, Integer> weights) {
+    this.weights = new EnumMap<>(weights);
+    endpoints = this.weights.keySet().toArray(new Endpoint[0]);
+    cumulativeWeights = new int[endpoints.length];
+    int sum = 0;
+    for (int i = 0; i < endpoints.length; i++) {
+      sum += this.weights.get(endpoints[i]);
+      cumulativeWeights[i] = sum;
+    }
+    if (sum <= 0) {
+      throw new IllegalArgumentException("loadtest.mix must give a positive weight to one endpoint at least");
+    }
+  }
+
+  /**
+   * Parses a mix like "browse=35,restaurant=30,login=5", the endpoints left out get no requests.
+   *
+   * @param mix comma separated endpoint keys and weights, the default mix when empty.
+   * @return The mix.
+   */
+  static TrafficMix parse(final String mix) {
+    final Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+    if (mix.trim().isEmpty()) {
+      for (Endpoint endpoint : Endpoint.values()) {
+        weights.put(endpoint, endpoint.getDefaultWeight());
+      }
+      return new TrafficMix(weights);
+    }
+    for (String entry : mix.split(",")) {
+      final String[] keyAndWeight = entry.split("=");
+      if (keyAndWeight.length != 2) {
+        throw new IllegalArgumentException("Expected endpoint=weight in loadtest.mix, got " + entry);
+      }
+      final int weight = Integer.parseInt(keyAndWeight[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Negative weight in loadtest.mix: " + entry);
+      }
+      weights.put(Endpoint.byKey(keyAndWeight[0].trim()), weight);
+    }
+    return new TrafficMix(weights);
+  }
+
+  Map<Endpoint, Integer> getWeights() {
+    return weights;
+  }
+
+  Endpoint next(final SplittableRandom random) {
+    final int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int i = 0;
+    while (cumulativeWeights[i] <= draw) {
+      i++;
+    }
+    return endpoints[i];
+  }
+}
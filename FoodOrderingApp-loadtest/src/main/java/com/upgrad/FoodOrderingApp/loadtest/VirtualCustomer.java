@@ -0,0 +1,55 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A customer of the database the requests of logged in customers are sent for, with the access
+ * token of its latest login and the addresses it saved during the run.
+ */
+final class VirtualCustomer {
+
+  private final String contactNumber;
+
+  // Addresses of the customer in the database when the run started
+  private final List<String> addressIds;
+
+  // Addresses saved by the run and not deleted yet, the only ones the run deletes
+  private final Deque<String> savedAddressIds = new ArrayDeque<>();
+
+  private volatile String accessToken;
+
+  VirtualCustomer(final String contactNumber, final List<String> addressIds, final String accessToken) {
+    this.contactNumber = contactNumber;
+    this.addressIds = addressIds;
+    this.accessToken = accessToken;
+  }
+
+  String getContactNumber() {
+    return contactNumber;
+  }
+
+  List<String> getAddressIds() {
+    return addressIds;
+  }
+
+  String getAccessToken() {
+    return accessToken;
+  }
+
+  void setAccessToken(final String accessToken) {
+    this.accessToken = accessToken;
+  }
+
+  synchronized void addSavedAddressId(final String addressId) {
+    savedAddressIds.addLast(addressId);
+  }
+
+  /**
+   * @return The address saved first by the run and not taken yet, null when there is none.
+   */
+  synchronized String takeSavedAddressId() {
+    return savedAddressIds.pollFirst();
+  }
+}
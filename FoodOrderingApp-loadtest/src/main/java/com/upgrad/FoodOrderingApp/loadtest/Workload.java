@@ -0,0 +1,268 @@
+package com.upgrad.FoodOrderingApp.loadtest;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * What the requests are made of, read from the database before the run: the restaurants with
+ * their menus, the states and payment methods, and a sample of the customers with their addresses
+ * and open sessions. Restaurants are drawn in proportion to their number of ratings, so that the
+ * popular ones get most of the views and orders, customers uniformly from the sample.
+ */
+final class Workload {
+
+  // Cursors of the next pages seen by the run, a browse asks for one of them instead of the first page
+  private static final int CURSORS = 256;
+
+  private final Restaurant[] restaurants;
+
+  private final double[] cumulativePopularity;
+
+  private final String[] stateIds;
+
+  private final String[] paymentIds;
+
+  private final VirtualCustomer[] customers;
+
+  private final List<VirtualCustomer> loggedInCustomers = new ArrayList<>();
+
+  private final AtomicReferenceArray<String> cursors = new AtomicReferenceArray<>(CURSORS);
+
+  private final AtomicLong cursorCount = new AtomicLong();
+
+  private Workload(final Restaurant[] restaurants, final String[] stateIds, final String[] paymentIds,
+      final VirtualCustomer[] customers) {
+    this.restaurants = restaurants;
+    this.stateIds = stateIds;
+    this.paymentIds = paymentIds;
+    this.customers = customers;
+    cumulativePopularity = new double[restaurants.length];
+    double sum = 0;
+    for (int i = 0; i < restaurants.length; i++) {
+      sum += restaurants[i].popularity;
+      cumulativePopularity[i] = sum;
+    }
+    for (VirtualCustomer customer : customers) {
+      if (customer.getAccessToken() != null) {
+        loggedInCustomers.add(customer);
+      }
+    }
+  }
+
+  /**
+   * @param connection connection to the database of the application.
+   * @param sampleSize customers to draw, the ones without an address are left out.
+   * @param random     source of the sample.
+   * @return The workload.
+   */
+  static Workload read(final Connection connection, final int sampleSize, final SplittableRandom random)
+      throws SQLException {
+    final Restaurant[] restaurants = readRestaurants(connection);
+    final String[] stateIds = readUuids(connection, "SELECT uuid FROM state ORDER BY id");
+    final String[] paymentIds = readUuids(connection, "SELECT uuid FROM payment ORDER BY id");
+    if (restaurants.length == 0 || stateIds.length == 0 || paymentIds.length == 0) {
+      throw new IllegalStateException("The database has no restaurants, states or payment methods, set it up first");
+    }
+    final VirtualCustomer[] customers = readCustomers(connection, sampleSize, random);
+    if (customers.length == 0) {
+      throw new IllegalStateException("The database has no customers with an address, load synthetic data first");
+    }
+    return new Workload(restaurants, stateIds, paymentIds, customers);
+  }
+
+  private static Restaurant[] readRestaurants(final Connection connection) throws SQLException {
+    final Map<Integer, Restaurant> restaurants = new LinkedHashMap<>();
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(
+            "SELECT id, uuid, number_of_customers_rated FROM restaurant ORDER BY id")) {
+      while (resultSet.next()) {
+        // Restaurants nobody rated yet get a few visits too
+        restaurants.put(resultSet.getInt(1), new Restaurant(resultSet.getString(2), resultSet.getInt(3) + 1));
+      }
+    }
+    final Map<Integer, List<String>> itemIds = new HashMap<>();
+    final Map<Integer, List<Integer>> itemPrices = new HashMap<>();
+    try (Statement statement = connection.createStatement()) {
+      statement.setFetchSize(10_000);
+      try (ResultSet resultSet = statement.executeQuery("SELECT ri.restaurant_id, i.uuid, i.price"
+          + " FROM restaurant_item ri JOIN item i ON i.id = ri.item_id ORDER BY ri.restaurant_id, i.id")) {
+        while (resultSet.next()) {
+          itemIds.computeIfAbsent(resultSet.getInt(1), id -> new ArrayList<>()).add(resultSet.getString(2));
+          itemPrices.computeIfAbsent(resultSet.getInt(1), id -> new ArrayList<>()).add(resultSet.getInt(3));
+        }
+      }
+    }
+    for (Map.Entry<Integer, Restaurant> entry : restaurants.entrySet()) {
+      final List<String> ids = itemIds.getOrDefault(entry.getKey(), new ArrayList<>());
+      final List<Integer> prices = itemPrices.getOrDefault(entry.getKey(), new ArrayList<>());
+      entry.getValue().itemIds = ids.toArray(new String[0]);
+      entry.getValue().itemPrices = prices.stream().mapToInt(Integer::intValue).toArray();
+    }
+    return restaurants.values().toArray(new Restaurant[0]);
+  }
+
+  private static String[] readUuids(final Connection connection, final String query) throws SQLException {
+    final List<String> uuids = new ArrayList<>();
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(query)) {
+      while (resultSet.next()) {
+        uuids.add(resultSet.getString(1));
+      }
+    }
+    return uuids.toArray(new String[0]);
+  }
+
+  private static VirtualCustomer[] readCustomers(final Connection connection, final int sampleSize,
+      final SplittableRandom random) throws SQLException {
+    int minId = 0;
+    int maxId = -1;
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT min(id), max(id) FROM customer")) {
+      if (resultSet.next() && resultSet.getObject(1) != null) {
+        minId = resultSet.getInt(1);
+        maxId = resultSet.getInt(2);
+      }
+    }
+    // Ids drawn without replacement, all of them when the customers are fewer than the sample
+    final Set<Integer> sample = new HashSet<>();
+    if ((long) maxId - minId + 1 <= sampleSize) {
+      for (int id = minId; id <= maxId; id++) {
+        sample.add(id);
+      }
+    } else {
+      while (sample.size() < sampleSize) {
+        sample.add(minId + random.nextInt(maxId - minId + 1));
+      }
+    }
+    final Integer[] ids = sample.toArray(new Integer[0]);
+    Arrays.sort(ids);
+    final Array idArray = connection.createArrayOf("integer", ids);
+
+    final Map<Integer, String> contactNumbers = new LinkedHashMap<>();
+    final Map<Integer, List<String>> addressIds = new HashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement("SELECT c.id, c.contact_number, a.uuid"
+        + " FROM customer c JOIN customer_address ca ON ca.customer_id = c.id JOIN address a ON a.id = ca.address_id"
+        + " WHERE c.id = ANY(?) AND a.active = 1 ORDER BY c.id, a.id")) {
+      statement.setArray(1, idArray);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          contactNumbers.put(resultSet.getInt(1), resultSet.getString(2));
+          addressIds.computeIfAbsent(resultSet.getInt(1), id -> new ArrayList<>()).add(resultSet.getString(3));
+        }
+      }
+    }
+    // The latest open session of the customers that have one
+    final Map<Integer, String> accessTokens = new HashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement("SELECT DISTINCT ON (customer_id)"
+        + " customer_id, access_token FROM customer_auth WHERE customer_id = ANY(?) AND logout_at IS NULL"
+        + " AND expires_at > now() ORDER BY customer_id, login_at DESC")) {
+      statement.setArray(1, idArray);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          accessTokens.put(resultSet.getInt(1), resultSet.getString(2));
+        }
+      }
+    }
+
+    final List<VirtualCustomer> customers = new ArrayList<>();
+    for (Map.Entry<Integer, String> entry : contactNumbers.entrySet()) {
+      customers.add(new VirtualCustomer(entry.getValue(), addressIds.get(entry.getKey()),
+          accessTokens.get(entry.getKey())));
+    }
+    return customers.toArray(new VirtualCustomer[0]);
+  }
+
+  int getRestaurantCount() {
+    return restaurants.length;
+  }
+
+  int getCustomerCount() {
+    return customers.length;
+  }
+
+  int getLoggedInCustomerCount() {
+    synchronized (loggedInCustomers) {
+      return loggedInCustomers.size();
+    }
+  }
+
+  Restaurant nextRestaurant(final SplittableRandom random) {
+    final double draw = random.nextDouble() * cumulativePopularity[cumulativePopularity.length - 1];
+    final int index = Arrays.binarySearch(cumulativePopularity, draw);
+    return restaurants[Math.min(index >= 0 ? index + 1 : -index - 1, restaurants.length - 1)];
+  }
+
+  String nextStateId(final SplittableRandom random) {
+    return stateIds[random.nextInt(stateIds.length)];
+  }
+
+  String nextPaymentId(final SplittableRandom random) {
+    return paymentIds[random.nextInt(paymentIds.length)];
+  }
+
+  VirtualCustomer nextCustomer(final SplittableRandom random) {
+    return customers[random.nextInt(customers.length)];
+  }
+
+  /**
+   * @return A customer with an access token, null when no customer logged in yet.
+   */
+  VirtualCustomer nextLoggedInCustomer(final SplittableRandom random) {
+    synchronized (loggedInCustomers) {
+      return loggedInCustomers.isEmpty() ? null
+          : loggedInCustomers.get(random.nextInt(loggedInCustomers.size()));
+    }
+  }
+
+  void loggedIn(final VirtualCustomer customer, final String accessToken) {
+    synchronized (loggedInCustomers) {
+      if (customer.getAccessToken() == null) {
+        loggedInCustomers.add(customer);
+      }
+      customer.setAccessToken(accessToken);
+    }
+  }
+
+  void addCursor(final String cursor) {
+    cursors.set((int) (cursorCount.getAndIncrement() % CURSORS), cursor);
+  }
+
+  /**
+   * @return One of the latest cursors seen, null when none was seen yet.
+   */
+  String nextCursor(final SplittableRandom random) {
+    final long count = Math.min(cursorCount.get(), CURSORS);
+    return count == 0 ? null : cursors.get(random.nextInt((int) count));
+  }
+
+  static final class Restaurant {
+
+    final String id;
+
+    final int popularity;
+
+    String[] itemIds;
+
+    int[] itemPrices;
+
+    private Restaurant(final String id, final int popularity) {
+      this.id = id;
+      this.popularity = popularity;
+    }
+  }
+}
@@ -37,6 +37,9 @@ public class AddressService {
     @Autowired
     StateDao stateDao; //Handles all data related to the StateEntity
 
+    @Autowired
+    ReferenceDataCache referenceDataCache; //Serves the states without a DB call once loaded
+
     @Autowired
     CustomerAddressDao customerAddressDao; //Handles all Data of CustomerAddressEntity
 
@@ -74,6 +77,7 @@ public class AddressService {
 
     /*This method is to getAllAddress of the customerEntity.This method takes Customer Entity and returns list of AddressEntity.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<AddressEntity> getAllAddress(CustomerEntity customerEntity) {
 
         //Creating List of AddressEntities.
@@ -94,9 +98,13 @@ public class AddressService {
     /*This method is to getStateByUUID using UUID of state.
     If error throws exception with error code and error message.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public StateEntity getStateByUUID (String uuid)throws AddressNotFoundException{
-        //Calls getStateByUuid od StateDao to get all the State details.
-        StateEntity stateEntity = stateDao.getStateByUuid(uuid);
+        //Looks up the cached states first, then calls getStateByUuid od StateDao to get all the State details.
+        StateEntity stateEntity = referenceDataCache.getStateByUuid(uuid);
+        if (stateEntity == null) {
+            stateEntity = stateDao.getStateByUuid(uuid);
+        }
         if(stateEntity == null) {//Checking if its null to return error message.
             throw new AddressNotFoundException("ANF-002", "No state by this id");
         }
@@ -168,9 +176,13 @@ public class AddressService {
 
     /*This method is to getAllStates in DB.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<StateEntity> getAllStates(){
-        //Calls getAllStates of stateDao to get all States.
-        List<StateEntity> stateEntities = stateDao.getAllStates();
+        //Uses the cached states, calls getAllStates of stateDao to get all States until they are loaded.
+        List<StateEntity> stateEntities = referenceDataCache.getStates();
+        if (stateEntities == null) {
+            stateEntities = stateDao.getAllStates();
+        }
         return stateEntities;
     }
 }
@@ -0,0 +1,31 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+//This Class handles the operational endpoints that are only open to holders of the admin token
+
+@Service
+public class AdminService {
+
+  //Admin endpoints are disabled while no token is configured
+  @Value("${food-ordering-app.admin.token:}")
+  private String adminToken;
+
+  /**
+   * Checks the token passed to an admin endpoint against the configured admin token
+   *
+   * @param accessToken The token from the authorization header
+   * @throws AuthorizationFailedException If admin endpoints are disabled or the token doesn't match
+   */
+  public void authorize(final String accessToken) throws AuthorizationFailedException {
+    if (adminToken == null || adminToken.isEmpty() || accessToken == null
+        || !MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8),
+            accessToken.getBytes(StandardCharsets.UTF_8))) {
+      throw new AuthorizationFailedException("ATHR-005", "Admin access is not permitted.");
+    }
+  }
+}
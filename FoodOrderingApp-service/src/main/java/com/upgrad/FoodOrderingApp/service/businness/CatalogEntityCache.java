@@ -0,0 +1,114 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the second-level cache of the catalog entities and queries in step with changes Hibernate
+ * does not see, and reports the statistics of its regions.
+ *
+ * <p>Changes made through Hibernate update the cached entities and invalidate the cached queries
+ * on their own. Ratings are written to the restaurants with plain SQL though, and the reference
+ * tables are changed outside of the application, so the rated restaurants are evicted after every
+ * written batch of ratings, and the regions of the reference tables whenever a reference data
+ * refresh finds them changed. Other catalog tables changed outside of the application show once
+ * their regions expire.
+ */
+@Component
+public class CatalogEntityCache {
+
+  // Query cache region of the restaurant listings, which are ordered by rating
+  private static final String RESTAURANT_QUERY_REGION = "query.restaurants";
+
+  // Query cache region of the menu queries, allCategories among them
+  private static final String MENU_QUERY_REGION = "query.menu";
+
+  // Entities of the reference tables and the collections of the categories
+  private static final Class<?>[] REFERENCE_ENTITIES = {
+      StateEntity.class, PaymentEntity.class, CategoryEntity.class, CouponEntity.class};
+  private static final String[] REFERENCE_COLLECTIONS = {
+      CategoryEntity.class.getName() + ".items", CategoryEntity.class.getName() + ".restaurants"};
+
+  private final SessionFactory sessionFactory;
+
+  @Autowired
+  public CatalogEntityCache(final EntityManagerFactory entityManagerFactory) {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+  }
+
+  /**
+   * Evicts the states, payment methods, categories and coupons, along with the collections of the
+   * categories and the menu queries, when the reference data changed. Rated restaurants are evicted
+   * by evictRestaurants.
+   *
+   * @param event The catalog change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(final CatalogChangedEvent event) {
+    if (event.getChange() == CatalogChangedEvent.Change.REFERENCE_DATA) {
+      final Cache cache = sessionFactory.getCache();
+      for (Class<?> entityClass : REFERENCE_ENTITIES) {
+        cache.evictEntityRegion(entityClass);
+      }
+      for (String role : REFERENCE_COLLECTIONS) {
+        cache.evictCollectionRegion(role);
+      }
+      cache.evictQueryRegion(MENU_QUERY_REGION);
+    }
+  }
+
+  /**
+   * Evicts restaurants whose rating was written with SQL, along with the cached restaurant listings.
+   *
+   * @param restaurantIds The ids of the changed restaurants
+   */
+  public void evictRestaurants(final Collection<Integer> restaurantIds) {
+    if (restaurantIds.isEmpty()) {
+      return;
+    }
+    restaurantIds.forEach(restaurantId -> sessionFactory.getCache().evictEntity(RestaurantEntity.class, restaurantId));
+    sessionFactory.getCache().evictQueryRegion(RESTAURANT_QUERY_REGION);
+  }
+
+  /**
+   * The hits, misses and puts of every region of the second-level cache since startup, for the
+   * regions in use so far.
+   *
+   * @return The counts by region name and then by count name, empty if statistics are disabled
+   */
+  public Map<String, Map<String, Long>> getRegionStatistics() {
+    final Statistics statistics = sessionFactory.getStatistics();
+    final Map<String, Map<String, Long>> regions = new TreeMap<>();
+    if (!statistics.isStatisticsEnabled()) {
+      return regions;
+    }
+    for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+      final SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(regionName);
+      if (regionStatistics == null) {
+        continue;
+      }
+      final Map<String, Long> counts = new LinkedHashMap<>();
+      counts.put("hits", regionStatistics.getHitCount());
+      counts.put("misses", regionStatistics.getMissCount());
+      counts.put("puts", regionStatistics.getPutCount());
+      regions.put(regionName, counts);
+    }
+    return regions;
+  }
+}
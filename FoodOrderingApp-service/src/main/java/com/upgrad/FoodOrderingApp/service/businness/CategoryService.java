@@ -5,11 +5,16 @@ import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CategoryService {
@@ -18,14 +23,23 @@ public class CategoryService {
     private CategoryDao categoryDao;
     @Autowired
     private RestaurantDao restaurantDao;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
+    //Served from the reference data snapshot, already sorted by name, once it is loaded
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<CategoryEntity> getAllCategoriesOrderedByName()
     {
+        List<CategoryEntity> categories = referenceDataCache.getCategoriesOrderedByName();
+        if (categories != null) {
+            return categories;
+        }
         return categoryDao.getAllCategories()
                 .stream().sorted(Comparator.comparing(CategoryEntity::getCategoryName)).collect(Collectors.toList());
     }
 
     //Get a category entity by category UUID
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public CategoryEntity getCategoryById(String categoryUuid) throws CategoryNotFoundException {
         if (categoryUuid.equals("")) {
             throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
@@ -42,11 +56,39 @@ public class CategoryService {
 
 
     //List all categories mapped to a restaurant - list by restaurant UUID
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<CategoryEntity> getCategoriesByRestaurant(String restaurantUUID) {
         RestaurantEntity restaurantEntity = restaurantDao.getRestaurantByUUID(restaurantUUID);
         return restaurantEntity.getCategories().stream()
                 .sorted(Comparator.comparing(CategoryEntity::getCategoryName))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Lists the category names of every restaurant in the given list, fetched in batched queries
+     * rather than once per restaurant. Used by the restaurant listing endpoints.
+     *
+     * @param restaurants The restaurants for which category names are required
+     * @return Map of restaurant UUID to its category names sorted by name
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Map<String, List<String>> getCategoryNamesByRestaurants(List<RestaurantEntity> restaurants) {
+        Map<Integer, String> restaurantUuidById = new HashMap<>();
+        for (RestaurantEntity restaurantEntity : restaurants) {
+            restaurantUuidById.put(restaurantEntity.getId(), restaurantEntity.getUuid());
+        }
+
+        Map<String, List<String>> categoryNamesByRestaurant = new HashMap<>();
+        if (restaurantUuidById.isEmpty()) {
+            return categoryNamesByRestaurant;
+        }
+        for (Object[] row : categoryDao.getCategoryNamesByRestaurantIds(new ArrayList<>(restaurantUuidById.keySet()))) {
+            categoryNamesByRestaurant
+                    .computeIfAbsent(restaurantUuidById.get(row[0]), uuid -> new ArrayList<>())
+                    .add((String) row[1]);
+        }
+        categoryNamesByRestaurant.values().forEach(categoryNames -> categoryNames.sort(Comparator.naturalOrder()));
+        return categoryNamesByRestaurant;
+    }
 }
 
@@ -1,19 +1,28 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
+import com.upgrad.FoodOrderingApp.service.util.CustomerValidator;
 import java.time.ZonedDateTime;
 import java.util.UUID;
-import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class CustomerService {
@@ -24,13 +33,38 @@ public class CustomerService {
   @Autowired
   private PasswordCryptographyProvider passwordCryptographyProvider;
 
+  @Autowired
+  private CustomerSessionCache customerSessionCache;
+
+  @Autowired
+  private TokenRevocationList tokenRevocationList;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  //Server-side key for signing access tokens, tokens are signed with the customer's password hash when empty
+  @Value("${food-ordering-app.jwt.secret:}")
+  private String jwtSecret;
+
+  private JwtTokenProvider serverTokenProvider;
+
+  @PostConstruct
+  void initServerTokenProvider() {
+    if (jwtSecret != null && !jwtSecret.isEmpty()) {
+      serverTokenProvider = new JwtTokenProvider(jwtSecret);
+    }
+  }
+
   /**signup business service.
+   * The password is hashed between two short transactions, so that waiting for the hash holds no
+   * database connection.
    * @param customerEntity user entity
    * @return CustomerEntity
    * @throws SignUpRestrictedException SignUpRestrictedException
+   * @throws ServiceBusyException ServiceBusyException
    */
-  @Transactional(propagation = Propagation.REQUIRED)
-  public CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException {
+  public CustomerEntity saveCustomer(CustomerEntity customerEntity)
+      throws SignUpRestrictedException, ServiceBusyException {
 
     //Perform null check for mandatory fields
     if (customerEntity == null || customerEntity.getFirstName() == null
@@ -45,83 +79,54 @@ public class CustomerService {
     }
 
     //If customer already exists with same contact number throw respective exceptions
-    CustomerEntity existingUser1 = customerDao
-        .getCustomerByContactNumber(customerEntity.getContactNumber());
+    CustomerEntity existingUser1 = inTransaction(status -> customerDao
+        .getCustomerByContactNumber(customerEntity.getContactNumber()));
     if (existingUser1 != null) {
       throw new SignUpRestrictedException("SGR-001",
           "This contact number is already registered! Try other contact number.");
     }
 
     //(SGR-002) and message (Invalid email-id format!).
-    if(!isValidEmail(customerEntity.getEmail())){
+    if(!CustomerValidator.isValidEmail(customerEntity.getEmail())){
       throw new SignUpRestrictedException("SGR-002", "Invalid email-id format!");
     }
 
     // (SGR-003) and message (Invalid contact number!)
-    if (!isValidContactNumber(customerEntity.getContactNumber())) {
+    if (!CustomerValidator.isValidContactNumber(customerEntity.getContactNumber())) {
       throw new SignUpRestrictedException("SGR-003", "Invalid contact number");
     }
 
     // (SGR-004) and message (Weak password!)
-    if(!isWeakPassword(customerEntity.getPassword())){
+    if(!CustomerValidator.isStrongPassword(customerEntity.getPassword())){
       throw new SignUpRestrictedException("SGR-004", "Weak password!");
     }
 
     String[] encryptedText = passwordCryptographyProvider.encrypt(customerEntity.getPassword());
     customerEntity.setSalt(encryptedText[0]);
     customerEntity.setPassword(encryptedText[1]);
-    return customerDao.createCustomer(customerEntity);
-  }
-  //valid email  determining logic
-  private boolean isValidEmail(String email) {
-    String emailRegex = "^[A-Z0-9]+@[A-Z0-9]+\\.[A-Z0-9]{2,7}$";
-
-    Pattern pat = Pattern.compile(emailRegex, Pattern.CASE_INSENSITIVE);
-    if (email == null)
-      return false;
-    return pat.matcher(email).matches();
-  }
-
-  // valid contact number determining logic
-  private boolean isValidContactNumber(String contactNumber) {
-    String contactNUmberRegex = "\\d{10}";
-
-    Pattern pat = Pattern.compile(contactNUmberRegex);
-    if (contactNumber == null)
-      return false;
-    return pat.matcher(contactNumber).matches();
+    return inTransaction(status -> customerDao.createCustomer(customerEntity));
   }
 
-  //Strong password determining logic
-  private boolean isWeakPassword(String password) {
-
-    String passwordRegex = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^]).{8,}$";
-
-    Pattern pat = Pattern.compile(passwordRegex);
-    if (password == null)
-      return false;
-    return pat.matcher(password).matches();
-  }
-
-
   /** authenticate incoming login.
+   * The customer is read and the session written in two short transactions, the password is
+   * verified and rehashed between them, so that waiting for the hash holds no database connection.
    * @param contactNumber contactNUmber
    * @param password password
    * @return CustomerAuthEntity
    * @throws AuthenticationFailedException AuthenticationFailedException
+   * @throws ServiceBusyException ServiceBusyException
    */
-  @Transactional(propagation = Propagation.REQUIRED)
   public CustomerAuthEntity authenticate(final String contactNumber, final String password)
-      throws AuthenticationFailedException {
-    CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(contactNumber);
+      throws AuthenticationFailedException, ServiceBusyException {
+    CustomerEntity customerEntity = inTransaction(status -> customerDao.getCustomerByContactNumber(contactNumber));
     if (customerEntity == null) {
       throw new AuthenticationFailedException("ATH-001", "This contact number has not been registered!");
     }
 
-    final String encryptedPassword = PasswordCryptographyProvider
-        .encrypt(password, customerEntity.getSalt());
-    if (encryptedPassword.equals(customerEntity.getPassword())) {
-      JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(encryptedPassword);
+    if (passwordCryptographyProvider
+        .matches(password, customerEntity.getSalt(), customerEntity.getPassword())) {
+      JwtTokenProvider jwtTokenProvider = serverTokenProvider != null
+          ? serverTokenProvider : new JwtTokenProvider(customerEntity.getPassword());
       CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
       customerAuthEntity.setCustomer(customerEntity);
       final ZonedDateTime now = ZonedDateTime.now();
@@ -135,9 +140,20 @@ public class CustomerService {
       customerAuthEntity.setExpiresAt(expiresAt);
       customerAuthEntity.setLogoutAt(null);//case of relogin
 
-      customerDao.createAuthToken(customerAuthEntity);
-
-      customerDao.updateCustomer(customerEntity);
+      //Upgrade a hash stored below the minimum cost while the password is at hand
+      final String[] encryptedText = passwordCryptographyProvider.needsRehash(customerEntity.getPassword())
+          ? passwordCryptographyProvider.encrypt(password) : null;
+
+      inTransaction(status -> {
+        if (encryptedText != null) {
+          customerEntity.setSalt(encryptedText[0]);
+          customerEntity.setPassword(encryptedText[1]);
+        }
+        customerDao.createAuthToken(customerAuthEntity);
+        customerSessionCache.putAfterCommit(customerAuthEntity);
+        customerDao.updateCustomer(customerEntity);
+        return customerAuthEntity;
+      });
       return customerAuthEntity;
     } else {
       throw new AuthenticationFailedException("ATH-002", "Invalid Credentials");
@@ -157,10 +173,14 @@ public class CustomerService {
     customerAuthEntity.setExpiresAt(ZonedDateTime.now());
     customerAuthEntity.setLogoutAt(ZonedDateTime.now());
     customerDao.updateCustomerAuth(customerAuthEntity);
+    customerSessionCache.putAfterCommit(customerAuthEntity);
+    tokenRevocationList.revokeAfterCommit(acessToken);
     return customerAuthEntity;
   }
 
   /**Service to validate Bearer authorization token.
+   * Logged out, revoked and expired sessions are rejected from the session cache without a database
+   * lookup.
    * @param accessToken accessToken
    * @return CustomerAuthEntity
    * @throws AuthorizationFailedException AuthorizationFailedException
@@ -168,19 +188,72 @@ public class CustomerService {
   @Transactional(propagation = Propagation.REQUIRED)
   public CustomerAuthEntity validateBearerAuthentication(final String accessToken)
       throws AuthorizationFailedException {
+    CustomerSessionCache.Session session = customerSessionCache.get(accessToken);
+    if (session != null) {
+      checkCachedSession(session);
+    }
+    return getCustomerAuth(accessToken);
+  }
+
+  //Reads the session of the access token from the database and caches it
+  private CustomerAuthEntity getCustomerAuth(final String accessToken)
+      throws AuthorizationFailedException {
     CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByToken(accessToken);
     if (customerAuthEntity == null) {
       throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
-    } else if (customerAuthEntity.getLogoutAt() != null) {
+    }
+    customerSessionCache.put(customerAuthEntity);
+    checkSession(customerAuthEntity.getLogoutAt() != null, customerAuthEntity.getExpiresAt());
+    return customerAuthEntity;
+  }
+
+  //Resolves the customer of a token signed with the server-side key without reading customer_auth.
+  //Returns null when the token has to be checked against the database instead.
+  private CustomerEntity getVerifiedCustomer(final String accessToken)
+      throws AuthorizationFailedException {
+    if (serverTokenProvider == null || !tokenRevocationList.isSynchronized()) {
+      return null;
+    }
+    DecodedJWT jwt;
+    try {
+      jwt = serverTokenProvider.verifyToken(accessToken);
+    } catch (TokenExpiredException e) {
+      throw new AuthorizationFailedException("ATHR-003",
+          "Your session is expired. Log in again to access this endpoint.");
+    } catch (JWTVerificationException e) {
+      //Tokens signed before the server-side key was configured
+      return null;
+    }
+    if (tokenRevocationList.isRevoked(jwt.getKeyId())) {
+      throw new AuthorizationFailedException("ATHR-002",
+          "Customer is logged out. Log in again to access this endpoint.");
+    }
+    if (jwt.getAudience() == null || jwt.getAudience().isEmpty()) {
+      return null;
+    }
+    return customerDao.getCustomerByUUID(jwt.getAudience().get(0));
+  }
+
+  //Rejects cached sessions that are logged out, here or on another instance as far as the
+  //revocation list has synchronized, or past their expiry
+  private void checkCachedSession(final CustomerSessionCache.Session session)
+      throws AuthorizationFailedException {
+    checkSession(session.isLoggedOut() || tokenRevocationList.isRevoked(session.getKeyId()),
+        session.getExpiresAt());
+  }
+
+  //Rejects sessions that are logged out or past their expiry
+  private void checkSession(final boolean loggedOut, final ZonedDateTime expiresAt)
+      throws AuthorizationFailedException {
+    if (loggedOut) {
       //This is good enough logic that makes the test cases pass
       throw new AuthorizationFailedException("ATHR-002",
           "Customer is logged out. Log in again to access this endpoint.");
     }
-    if(ZonedDateTime.now().compareTo(customerAuthEntity.getExpiresAt()) >= 0){
+    if(ZonedDateTime.now().compareTo(expiresAt) >= 0){
       throw new AuthorizationFailedException("ATHR-003",
           "Your session is expired. Log in again to access this endpoint.");
     }
-    return customerAuthEntity;
   }
 
 //  /** Service to split authorization header to get Beare access token.
@@ -219,50 +292,75 @@ public class CustomerService {
 
 
   /**Get Customer.
-   * @param
-   * @return
-   * @throws
+   * A cached session whose token is not revoked is resolved to the customer by primary key, and a
+   * token signed with the server-side key by its verified claims, instead of looking up the token.
+   * @param acessToken access token
+   * @return CustomerEntity
+   * @throws AuthorizationFailedException AuthorizationFailedException
    */
+  // Runs in a transaction that is not read-only, so that tokens are always looked up on the primary and
+  // one just issued by another instance is never missed on a lagging replica. The connection is given
+  // back when it ends, rather than held by the session of the request while it hashes a password
   @Transactional(propagation = Propagation.REQUIRED)
   public CustomerEntity getCustomer(final String acessToken)
       throws AuthorizationFailedException {
-    CustomerAuthEntity customerAuthEntity = validateBearerAuthentication(acessToken);
+    CustomerSessionCache.Session session = customerSessionCache.get(acessToken);
+    if (session != null) {
+      checkCachedSession(session);
+      CustomerEntity customer = customerDao.getCustomerById(session.getCustomerId());
+      if (customer != null) {
+        return customer;
+      }
+    }
+    CustomerEntity verifiedCustomer = getVerifiedCustomer(acessToken);
+    if (verifiedCustomer != null) {
+      return verifiedCustomer;
+    }
+    CustomerAuthEntity customerAuthEntity = getCustomerAuth(acessToken);
     CustomerEntity customer = customerAuthEntity.getCustomer();
     return customer;
   }
 
 
   /**Change Password.
+   * The passwords are hashed outside of any transaction, the customer is written in a short one, so
+   * that waiting for the hashes holds no database connection.
    * @param
    * @return
    * @throws
    */
-  @Transactional(propagation = Propagation.REQUIRED)
   public CustomerEntity updateCustomerPassword(
       final String oldPassword, final String newPassword, CustomerEntity customer)
-      throws UpdateCustomerException {
+      throws UpdateCustomerException, ServiceBusyException {
 
-    if(!isWeakPassword(newPassword)){
+    if(!CustomerValidator.isStrongPassword(newPassword)){
       throw new UpdateCustomerException("UCR-001", "Weak password!");
     }
 
-    final String encryptedOldPassword = PasswordCryptographyProvider
-        .encrypt(oldPassword, customer.getSalt());
-
-    if(!encryptedOldPassword.equals(customer.getPassword())) {
+    if(!passwordCryptographyProvider.matches(oldPassword, customer.getSalt(), customer.getPassword())) {
       throw new UpdateCustomerException("UCR-004", "Incorrect old password!");
     }
-    final String encryptedNewPassword = PasswordCryptographyProvider
-        .encrypt(newPassword, customer.getSalt());
 
-    if(encryptedOldPassword.equals(encryptedNewPassword)){
+    //Comparing the raw passwords, the old one has just been verified; no need to hash to find out
+    if(oldPassword.equals(newPassword)){
       throw new UpdateCustomerException("UCR-900", "New password cannot be the same!");
     }
+    //The new password gets a fresh salt and the current cost
+    final String[] encryptedNewPassword = passwordCryptographyProvider.encrypt(newPassword);
 
-    customer.setPassword(encryptedNewPassword);
-    customerDao.updateCustomer(customer);
+    inTransaction(status -> {
+      customer.setSalt(encryptedNewPassword[0]);
+      customer.setPassword(encryptedNewPassword[1]);
+      customerDao.updateCustomer(customer);
+      return customer;
+    });
 
     return customer;
   }
 
+  //Runs a short transaction of its own, or joins the one of the caller
+  private <T> T inTransaction(final TransactionCallback<T> action) {
+    return new TransactionTemplate(transactionManager).execute(action);
+  }
+
 }
@@ -0,0 +1,189 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of customer sessions keyed by the SHA-256 hash of the access token, so
+ * that authenticated requests do not look up CUSTOMER_AUTH by token on every call. Only the
+ * customer id/uuid, the key id of the token, the session expiry and the logout state are kept,
+ * never the token itself.
+ *
+ * <p>A logout made on another instance is not seen by the cached session. Callers check the key id
+ * against the TokenRevocationList, which learns of it within one sync interval. Entries are dropped
+ * after a configurable time to live, and the least recently used entry is evicted once the cache
+ * is full.
+ */
+@Component
+public class CustomerSessionCache {
+
+  private final int maxSize;
+
+  private final long ttlMillis;
+
+  private final Map<String, Session> sessions;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public CustomerSessionCache(
+      @Value("${food-ordering-app.session-cache.max-size:10000}") final int maxSize,
+      @Value("${food-ordering-app.session-cache.ttl-seconds:300}") final long ttlSeconds) {
+    this.maxSize = maxSize;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.sessions = new LinkedHashMap<String, Session>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+        if (size() > CustomerSessionCache.this.maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Looks up the session of an access token.
+   *
+   * @param accessToken The access token of the request
+   * @return The cached session, or null if the token is not cached or its entry has outlived the
+   *     time to live
+   */
+  public Session get(final String accessToken) {
+    String key = hash(accessToken);
+    Session session;
+    synchronized (sessions) {
+      session = sessions.get(key);
+      if (session != null && System.currentTimeMillis() >= session.cachedUntil) {
+        sessions.remove(key);
+        session = null;
+      }
+    }
+    if (session == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return session;
+  }
+
+  /**
+   * Caches the session of an access token as read from or written to the database.
+   *
+   * @param customerAuthEntity The customer auth entity of the access token
+   */
+  public void put(final CustomerAuthEntity customerAuthEntity) {
+    Session session = new Session(customerAuthEntity.getCustomer().getId(),
+        customerAuthEntity.getCustomer().getUuid(), keyId(customerAuthEntity.getAccessToken()),
+        customerAuthEntity.getExpiresAt(), customerAuthEntity.getLogoutAt() != null,
+        System.currentTimeMillis() + ttlMillis);
+    String key = hash(customerAuthEntity.getAccessToken());
+    synchronized (sessions) {
+      sessions.put(key, session);
+    }
+  }
+
+  /**
+   * Caches the session once the surrounding transaction commits, so that a session is never
+   * cached in a state that was rolled back.
+   *
+   * @param customerAuthEntity The customer auth entity that has been saved
+   */
+  public void putAfterCommit(final CustomerAuthEntity customerAuthEntity) {
+    UtilityProvider.runAfterCommit(() -> put(customerAuthEntity));
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public int size() {
+    synchronized (sessions) {
+      return sessions.size();
+    }
+  }
+
+  // The key id of a token this application issued, null for any other token
+  private static String keyId(final String accessToken) {
+    try {
+      return JWT.decode(accessToken).getKeyId();
+    } catch (JWTDecodeException e) {
+      return null;
+    }
+  }
+
+  private static String hash(final String accessToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder().encodeToString(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * The cached state of one access token.
+   */
+  public static final class Session {
+
+    private final long customerId;
+    private final String customerUuid;
+    private final String keyId;
+    private final ZonedDateTime expiresAt;
+    private final boolean loggedOut;
+    private final long cachedUntil;
+
+    private Session(final long customerId, final String customerUuid, final String keyId,
+        final ZonedDateTime expiresAt, final boolean loggedOut, final long cachedUntil) {
+      this.customerId = customerId;
+      this.customerUuid = customerUuid;
+      this.keyId = keyId;
+      this.expiresAt = expiresAt;
+      this.loggedOut = loggedOut;
+      this.cachedUntil = cachedUntil;
+    }
+
+    public long getCustomerId() {
+      return customerId;
+    }
+
+    public String getCustomerUuid() {
+      return customerUuid;
+    }
+
+    public String getKeyId() {
+      return keyId;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+      return expiresAt;
+    }
+
+    public boolean isLoggedOut() {
+      return loggedOut;
+    }
+  }
+}
@@ -0,0 +1,490 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.OrderDao;
+import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the total quantity ordered of every item per restaurant in memory, along with a bounded
+ * min-heap of the most ordered items, so that the popular items of a restaurant are read in O(K)
+ * instead of aggregating the whole order history. Items ordered equally often are ranked by name in
+ * the order of code points, then by id, as the itemsByPopularity query ranks them with collate_c.
+ *
+ * <p>Counters are fed from the order items committed on this instance, rebuilt from ORDER_ITEM by
+ * the first reconciliation run and compared with ORDER_ITEM on every run after that. Orders placed
+ * on other instances are picked up by the comparison, so they show within two runs. Until the first
+ * rebuild has succeeded the tracker reports itself as not ready and callers fall back to the
+ * database.
+ */
+@Component
+public class ItemPopularityTracker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ItemPopularityTracker.class);
+
+  // Restaurants are spread over a fixed number of independently locked stripes
+  private static final int STRIPES = 16;
+
+  @Autowired
+  private OrderDao orderDao;
+
+  @Value("${food-ordering-app.popularity.top-k:5}")
+  private int topK;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  // Names of the counted items, which rank items ordered equally often
+  private final Map<Integer, String> itemNames = new ConcurrentHashMap<>();
+
+  private volatile boolean ready;
+
+  // Differences found by the previous reconciliation run, keyed by restaurant and item id
+  private Map<Long, Long> suspectedDrifts = new HashMap<>();
+
+  public ItemPopularityTracker() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Counts the quantity of the order item towards its restaurant once the surrounding transaction
+   * commits, so that rolled back orders are never counted.
+   *
+   * @param orderItem The order item that has been saved
+   */
+  public void recordOrderItem(OrderItemEntity orderItem) {
+    if (orderItem.getOrder() == null || orderItem.getOrder().getRestaurant() == null
+        || orderItem.getItem() == null || orderItem.getQuantity() == null) {
+      return;
+    }
+    final Integer restaurantId = orderItem.getOrder().getRestaurant().getId();
+    final Integer itemId = orderItem.getItem().getId();
+    final String itemName = orderItem.getItem().getItemName();
+    final int quantity = orderItem.getQuantity();
+    if (restaurantId == null || itemId == null) {
+      return;
+    }
+
+    UtilityProvider.runAfterCommit(() -> add(restaurantId, itemId, itemName, quantity));
+  }
+
+  /**
+   * Lists the ids of the most ordered items of a restaurant, most ordered first.
+   *
+   * @param restaurantId The id of the restaurant
+   * @param limit The maximum number of item ids to return
+   * @return The item ids, or null if the counters are not loaded yet or the limit is larger than
+   *     the number of items tracked per restaurant
+   */
+  public List<Integer> getTopItemIds(Integer restaurantId, int limit) {
+    if (!ready || limit > topK) {
+      return null;
+    }
+    Stripe stripe = stripeOf(restaurantId);
+    synchronized (stripe) {
+      RestaurantPopularity popularity = stripe.restaurants.get(restaurantId);
+      return popularity == null ? new ArrayList<>() : popularity.topItemIds(limit);
+    }
+  }
+
+  /**
+   * Loads the counters from ORDER_ITEM on the first run and compares them with it on later runs.
+   * A difference is corrected by the part of it that two consecutive runs agree on, which leaves
+   * out orders committed while the comparison was in progress. Corrections are applied as deltas
+   * so concurrent increments are not lost.
+   */
+  @Scheduled(fixedDelayString = "${food-ordering-app.popularity.reconcile-interval-ms:600000}")
+  public void reconcile() {
+    try {
+      if (!ready) {
+        rebuild();
+      } else {
+        compareWithDatabase();
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Item popularity reconciliation failed: {}", e.getMessage());
+    }
+  }
+
+  private void rebuild() {
+    // Orders committed from here on are counted into the loaded counters as well. An order
+    // committed just before the query may be counted twice, which the next comparisons correct.
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.sinceRebuild = new HashMap<>();
+      }
+    }
+    try {
+      List<Object[]> rows = orderDao.getItemQuantitiesByRestaurant();
+
+      List<Map<Integer, RestaurantPopularity>> loaded = new ArrayList<>(STRIPES);
+      for (int i = 0; i < STRIPES; i++) {
+        loaded.add(new HashMap<>());
+      }
+      for (Object[] row : rows) {
+        Integer restaurantId = (Integer) row[0];
+        Integer itemId = (Integer) row[1];
+        if (row[2] != null) {
+          itemNames.put(itemId, (String) row[2]);
+        }
+        loaded.get(stripeIndex(restaurantId))
+            .computeIfAbsent(restaurantId, id -> new RestaurantPopularity(topK, itemNames))
+            .add(itemId, ((Number) row[3]).longValue());
+      }
+
+      for (int i = 0; i < STRIPES; i++) {
+        synchronized (stripes[i]) {
+          Map<Integer, RestaurantPopularity> restaurants = loaded.get(i);
+          for (Map.Entry<Long, Long> increment : stripes[i].sinceRebuild.entrySet()) {
+            long key = increment.getKey();
+            restaurants.computeIfAbsent((int) (key >>> 32), id -> new RestaurantPopularity(topK, itemNames))
+                .add((int) key, increment.getValue());
+          }
+          stripes[i].restaurants = restaurants;
+        }
+      }
+      ready = true;
+      LOGGER.info("Item popularity counters loaded for {} restaurant items", rows.size());
+    } finally {
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          stripe.sinceRebuild = null;
+        }
+      }
+    }
+  }
+
+  private void compareWithDatabase() {
+    List<Object[]> rows = orderDao.getItemQuantitiesByRestaurant();
+
+    Map<Long, Long> drifts = new HashMap<>();
+    Set<Long> keysInDatabase = new HashSet<>(rows.size() * 2);
+    for (Object[] row : rows) {
+      int restaurantId = (Integer) row[0];
+      int itemId = (Integer) row[1];
+      if (row[2] != null) {
+        itemNames.putIfAbsent(itemId, (String) row[2]);
+      }
+      long key = key(restaurantId, itemId);
+      keysInDatabase.add(key);
+      long drift = ((Number) row[3]).longValue() - count(restaurantId, itemId);
+      if (drift != 0) {
+        drifts.put(key, drift);
+      }
+    }
+
+    // Counted items that no longer have any order in the database
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        for (Map.Entry<Integer, RestaurantPopularity> entry : stripe.restaurants.entrySet()) {
+          IntLongMap quantities = entry.getValue().quantities;
+          for (int slot = 0; slot < quantities.keys.length; slot++) {
+            int itemId = quantities.keys[slot];
+            if (itemId != IntLongMap.EMPTY && quantities.values[slot] != 0
+                && !keysInDatabase.contains(key(entry.getKey(), itemId))) {
+              drifts.put(key(entry.getKey(), itemId), -quantities.values[slot]);
+            }
+          }
+        }
+      }
+    }
+
+    int corrected = 0;
+    Map<Long, Long> stillSuspected = new HashMap<>();
+    for (Map.Entry<Long, Long> drift : drifts.entrySet()) {
+      long key = drift.getKey();
+      long correction = agreedDrift(suspectedDrifts.get(key), drift.getValue());
+      if (correction != 0) {
+        add((int) (key >>> 32), (int) key, null, correction);
+        corrected++;
+      }
+      if (drift.getValue() != correction) {
+        stillSuspected.put(key, drift.getValue() - correction);
+      }
+    }
+    suspectedDrifts = stillSuspected;
+
+    if (!drifts.isEmpty()) {
+      LOGGER.info("Item popularity reconciliation found {} differing counters, corrected {}",
+          drifts.size(), corrected);
+    }
+  }
+
+  /**
+   * @return The part of a difference seen by two consecutive runs that both agree on: the smaller
+   *     of the two if they have the same sign, 0 otherwise. Orders of other instances keep adding to
+   *     a difference, orders in flight during one run are gone from it by the next.
+   */
+  static long agreedDrift(Long previous, long current) {
+    if (previous == null || Long.signum(previous) != Long.signum(current)) {
+      return 0L;
+    }
+    return current > 0 ? Math.min(previous, current) : Math.max(previous, current);
+  }
+
+  private void add(int restaurantId, int itemId, String itemName, long quantity) {
+    if (itemName != null) {
+      itemNames.putIfAbsent(itemId, itemName);
+    }
+    Stripe stripe = stripeOf(restaurantId);
+    synchronized (stripe) {
+      stripe.restaurants.computeIfAbsent(restaurantId, id -> new RestaurantPopularity(topK, itemNames))
+          .add(itemId, quantity);
+      if (stripe.sinceRebuild != null) {
+        stripe.sinceRebuild.merge(key(restaurantId, itemId), quantity, Long::sum);
+      }
+    }
+  }
+
+  private long count(int restaurantId, int itemId) {
+    Stripe stripe = stripeOf(restaurantId);
+    synchronized (stripe) {
+      RestaurantPopularity popularity = stripe.restaurants.get(restaurantId);
+      return popularity == null ? 0L : popularity.quantities.get(itemId);
+    }
+  }
+
+  private Stripe stripeOf(int restaurantId) {
+    return stripes[stripeIndex(restaurantId)];
+  }
+
+  private static int stripeIndex(int restaurantId) {
+    return IntLongMap.mix(restaurantId) & (STRIPES - 1);
+  }
+
+  private static long key(int restaurantId, int itemId) {
+    return ((long) restaurantId << 32) | (itemId & 0xffffffffL);
+  }
+
+  private static final class Stripe {
+    private Map<Integer, RestaurantPopularity> restaurants = new HashMap<>();
+    // Increments made while the counters are rebuilt, keyed by restaurant and item id
+    private Map<Long, Long> sinceRebuild;
+  }
+
+  /**
+   * Item quantities of one restaurant and a min-heap of its K most ordered items, the least popular
+   * of them at the root. Quantities only grow between reconciliations, so an item outside the heap
+   * can only enter it by overtaking the current minimum; a decrease rebuilds the heap from the
+   * counters.
+   */
+  static final class RestaurantPopularity {
+
+    final IntLongMap quantities = new IntLongMap();
+    private final Map<Integer, String> itemNames;
+    private final int[] heapItems;
+    private final long[] heapQuantities;
+    private int heapSize;
+
+    RestaurantPopularity(int capacity, Map<Integer, String> itemNames) {
+      this.itemNames = itemNames;
+      heapItems = new int[capacity];
+      heapQuantities = new long[capacity];
+    }
+
+    void add(int itemId, long quantity) {
+      long total = quantities.addTo(itemId, quantity);
+      if (quantity < 0) {
+        rebuildHeap();
+      } else {
+        offer(itemId, total);
+      }
+    }
+
+    List<Integer> topItemIds(int limit) {
+      int[] items = heapItems.clone();
+      long[] totals = heapQuantities.clone();
+      List<Integer> itemIds = new ArrayList<>(limit);
+      // Selection over at most K entries, most ordered first
+      for (int taken = 0; taken < Math.min(limit, heapSize); taken++) {
+        int best = taken;
+        for (int i = taken + 1; i < heapSize; i++) {
+          if (morePopular(items[i], totals[i], items[best], totals[best])) {
+            best = i;
+          }
+        }
+        swap(items, totals, taken, best);
+        itemIds.add(items[taken]);
+      }
+      return itemIds;
+    }
+
+    private void offer(int itemId, long total) {
+      for (int i = 0; i < heapSize; i++) {
+        if (heapItems[i] == itemId) {
+          heapQuantities[i] = total;
+          siftDown(i);
+          return;
+        }
+      }
+      if (heapSize < heapItems.length) {
+        heapItems[heapSize] = itemId;
+        heapQuantities[heapSize] = total;
+        siftUp(heapSize++);
+      } else if (heapSize > 0 && morePopular(itemId, total, heapItems[0], heapQuantities[0])) {
+        heapItems[0] = itemId;
+        heapQuantities[0] = total;
+        siftDown(0);
+      }
+    }
+
+    private void rebuildHeap() {
+      heapSize = 0;
+      for (int slot = 0; slot < quantities.keys.length; slot++) {
+        if (quantities.keys[slot] != IntLongMap.EMPTY && quantities.values[slot] > 0) {
+          offer(quantities.keys[slot], quantities.values[slot]);
+        }
+      }
+    }
+
+    // Ordered more often, or as often and first by name as in itemsByPopularity, then by id. Names are
+    // compared by code point, the order of their UTF-8 bytes in the C collation
+    private boolean morePopular(int item, long total, int otherItem, long otherTotal) {
+      if (total != otherTotal) {
+        return total > otherTotal;
+      }
+      String name = itemNames.get(item);
+      String otherName = itemNames.get(otherItem);
+      if (name != null && otherName != null && !name.equals(otherName)) {
+        return compareCodePoints(name, otherName) < 0;
+      }
+      if ((name == null) != (otherName == null)) {
+        return name != null;
+      }
+      return item < otherItem;
+    }
+
+    // Unlike String.compareTo, which compares UTF-16 units, this puts supplementary characters last
+    private int compareCodePoints(String name, String otherName) {
+      int i = 0;
+      int j = 0;
+      while (i < name.length() && j < otherName.length()) {
+        int c = name.codePointAt(i);
+        int otherC = otherName.codePointAt(j);
+        if (c != otherC) {
+          return Integer.compare(c, otherC);
+        }
+        i += Character.charCount(c);
+        j += Character.charCount(otherC);
+      }
+      return Integer.compare(name.length() - i, otherName.length() - j);
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (!morePopular(heapItems[parent], heapQuantities[parent], heapItems[i], heapQuantities[i])) {
+          return;
+        }
+        swap(heapItems, heapQuantities, parent, i);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int least = i;
+        int left = 2 * i + 1;
+        int right = left + 1;
+        if (left < heapSize
+            && morePopular(heapItems[least], heapQuantities[least], heapItems[left], heapQuantities[left])) {
+          least = left;
+        }
+        if (right < heapSize
+            && morePopular(heapItems[least], heapQuantities[least], heapItems[right], heapQuantities[right])) {
+          least = right;
+        }
+        if (least == i) {
+          return;
+        }
+        swap(heapItems, heapQuantities, least, i);
+        i = least;
+      }
+    }
+
+    private static void swap(int[] items, long[] totals, int a, int b) {
+      int item = items[a];
+      items[a] = items[b];
+      items[b] = item;
+      long total = totals[a];
+      totals[a] = totals[b];
+      totals[b] = total;
+    }
+  }
+
+  /**
+   * Open addressing map of int item id to long quantity, avoiding a boxed entry per counter. Item
+   * ids come from a serial column and are always positive, so 0 marks an empty slot.
+   */
+  static final class IntLongMap {
+
+    static final int EMPTY = 0;
+
+    int[] keys = new int[16];
+    long[] values = new long[16];
+    private int size;
+
+    long get(int key) {
+      int slot = slotOf(keys, key);
+      return keys[slot] == key ? values[slot] : 0L;
+    }
+
+    long addTo(int key, long delta) {
+      int slot = slotOf(keys, key);
+      if (keys[slot] == key) {
+        return values[slot] += delta;
+      }
+      keys[slot] = key;
+      values[slot] = delta;
+      if (++size * 4 >= keys.length * 3) {
+        grow();
+      }
+      return delta;
+    }
+
+    int size() {
+      return size;
+    }
+
+    private void grow() {
+      int[] oldKeys = keys;
+      long[] oldValues = values;
+      keys = new int[oldKeys.length * 2];
+      values = new long[oldValues.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != EMPTY) {
+          int slot = slotOf(keys, oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+
+    private static int slotOf(int[] keys, int key) {
+      int mask = keys.length - 1;
+      int slot = mix(key) & mask;
+      while (keys[slot] != EMPTY && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    static int mix(int key) {
+      int h = key * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+}
@@ -3,24 +3,25 @@ package com.upgrad.FoodOrderingApp.service.businness;
 import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
 import com.upgrad.FoodOrderingApp.service.dao.CategoryItemDao;
 import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
-import com.upgrad.FoodOrderingApp.service.dao.OrderDao;
 import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
 import com.upgrad.FoodOrderingApp.service.dao.RestaurantItemDao;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
-import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
-import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantItemEntity;
 import com.upgrad.FoodOrderingApp.service.exception.ItemNotFoundException;
-import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 //This Class handles all service related to the Item
 
@@ -42,16 +43,13 @@ public class ItemService {
     @Autowired
     CategoryDao categoryDao;
 
-
-    @Autowired
-    OrderDao orderDao;
-
     @Autowired
-    UtilityProvider utilityProvider;
+    ItemPopularityTracker itemPopularityTracker;
 
 
     /* This method is to get Items By Category And Restaurant and returns list of ItemEntity it takes restaurantUuid & categoryUuid as input.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<ItemEntity> getItemsByCategoryAndRestaurant(String restaurantUuid, String categoryUuid) {
 
         //Calls getRestaurantByUuid of restaurantDao to get the  RestaurantEntity
@@ -81,53 +79,58 @@ public class ItemService {
     }
 
 
-    /* This method is to get Items By Popularity and returns list of ItemEntity it takes restaurantEntity as input.
+    /* This method is to get the menu of a restaurant and returns a map of CategoryEntity to list of ItemEntity it takes restaurantEntity as input.
+    Categories are sorted by name, items within a category by item name. Items of all categories are read in one query and bucketed by category id.
      */
-    public List<ItemEntity> getItemsByPopularity(RestaurantEntity restaurantEntity) {
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Map<CategoryEntity, List<ItemEntity>> getMenuByRestaurant(RestaurantEntity restaurantEntity) {
 
-      //Calls getOrdersByRestaurant method of orderDao to get the  OrderEntity
-      List<OrderEntity> ordersEntities = orderDao.getOrdersByRestaurant(restaurantEntity);
+        //Bucketing the restaurant items by the id of the category they belong to.
+        Map<Integer, List<ItemEntity>> itemsByCategoryId = new HashMap<>();
+        for (Object[] row : restaurantItemDao.getCategorisedItemsByRestaurant(restaurantEntity)) {
+            itemsByCategoryId.computeIfAbsent((Integer) row[0], categoryId -> new LinkedList<>()).add((ItemEntity) row[1]);
+        }
 
-        //Creating list of ItemEntity which are ordered from the restaurant.
-        List <ItemEntity> itemEntities = new LinkedList<>();
+        //Creating the menu in the order of category name, categories without items get an empty list.
+        List<CategoryEntity> categoryEntities = categoryDao.getCategoriesByRestaurant(restaurantEntity);
+        categoryEntities.sort(Comparator.comparing(CategoryEntity::getCategoryName));
+        Map<CategoryEntity, List<ItemEntity>> menu = new LinkedHashMap<>();
+        categoryEntities.forEach(categoryEntity ->
+                menu.put(categoryEntity, itemsByCategoryId.getOrDefault(categoryEntity.getId(), Collections.emptyList())));
 
-        //Looping in for each ordersEntity in ordersEntities to get the corresponding orders
-        ordersEntities.forEach(ordersEntity -> {
-            //Calls getItemsByOrders method of orderItemDao to get the  OrderItemEntity
-          List<OrderItemEntity> orderItemEntities = orderDao.getItemsByOrders(ordersEntity);
-            orderItemEntities.forEach(orderItemEntity -> { //Looping in to get each tem from the OrderItemEntity.
-                itemEntities.add(orderItemEntity.getItem());
-            });
-        });
+        return menu;
+    }
 
-        //Creating a HashMap to count the frequency of the order.
-        Map<String,Integer> itemCountMap = new HashMap<String,Integer>();
-        itemEntities.forEach(itemEntity -> { //Looping in to count the frequency of Item ordered correspondingly updating the count.
-            Integer count = itemCountMap.get(itemEntity.getUuid());
-            itemCountMap.put(itemEntity.getUuid(),(count == null) ? 1 : count+1);
-        });
 
-        //Calls sortMapByValues method of uitilityProvider and get sorted map by value.
-        Map<String,Integer> sortedItemCountMap = utilityProvider.sortMapByValues(itemCountMap);
-
-        //Creating the top 5 Itementity list
-        List<ItemEntity> sortedItemEntites = new LinkedList<>();
-        Integer count = 0;
-        for(Map.Entry<String,Integer> item:sortedItemCountMap.entrySet()){
-            if(count < 5) {
-                //Calls getItemByUUID to get the Itemtentity
-                sortedItemEntites.add(itemDao.getItemByUUID(item.getKey()));
-                count = count+1;
-            }else{
-                break;
-            }
+    /* This method is to get Items By Popularity and returns list of ItemEntity it takes restaurantEntity as input.
+    Items are ranked by the total quantity ordered from the restaurant and the top 5 are returned.
+    The ranking is read from the in-memory counters, the aggregate query is used until they are loaded.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<ItemEntity> getItemsByPopularity(RestaurantEntity restaurantEntity) {
+        List<Integer> itemIds = itemPopularityTracker.getTopItemIds(restaurantEntity.getId(), 5);
+        if (itemIds == null) {
+            return itemDao.getItemsByPopularity(restaurantEntity, 5);
+        }
+        if (itemIds.isEmpty()) {
+            return new LinkedList<>();
         }
 
-        return sortedItemEntites;
+        //Fetching the ranked items together and putting them back in rank order.
+        Map<Integer, ItemEntity> itemsById = new HashMap<>();
+        itemDao.getItemsByIds(itemIds).forEach(itemEntity -> itemsById.put(itemEntity.getId(), itemEntity));
+        List<ItemEntity> itemEntities = new LinkedList<>();
+        for (Integer itemId : itemIds) {
+            if (itemsById.containsKey(itemId)) {
+                itemEntities.add(itemsById.get(itemId));
+            }
+        }
+        return itemEntities;
     }
 
     /* This method is to get Items By Category and returns list of ItemEntity it takes CategoryEntity as input.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<ItemEntity> getItemsByCategory(CategoryEntity categoryEntity) {
 
         //Calls getItemsByCategory method of categoryItemDao to get the  CategoryItemEntity
@@ -140,6 +143,7 @@ public class ItemService {
         return itemEntities;
     }
 
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public ItemEntity getItemByUUID(String itemUuid) throws ItemNotFoundException {
         ItemEntity itemEntity = itemDao.getItemByUUID(itemUuid);
         if(itemEntity == null){
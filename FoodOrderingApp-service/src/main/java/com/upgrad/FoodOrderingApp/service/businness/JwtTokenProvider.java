@@ -1,11 +1,13 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
 import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
 import java.util.UUID;
 
@@ -15,18 +17,21 @@ public class JwtTokenProvider {
 
     private final Algorithm algorithm;
 
+    private final JWTVerifier verifier;
+
     public JwtTokenProvider(final String secret) {
         try {
             algorithm = Algorithm.HMAC512(secret);
         } catch (IllegalArgumentException e) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
+        verifier = JWT.require(algorithm).withIssuer(TOKEN_ISSUER).build();
     }
 
     public String generateToken(final String customerUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
 
         return JWT.create().withIssuer(TOKEN_ISSUER) //
                 .withKeyId(UUID.randomUUID().toString())
@@ -34,4 +39,15 @@ public class JwtTokenProvider {
                 .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
     }
 
+    /**
+     * Verifies the signature, issuer and expiry of a token signed with this provider's secret.
+     *
+     * @param token The token to be verified
+     * @return The decoded token, its audience is the customer uuid and its key id identifies the token
+     * @throws JWTVerificationException If the token is invalid, TokenExpiredException if it has expired
+     */
+    public DecodedJWT verifyToken(final String token) throws JWTVerificationException {
+        return verifier.verify(token);
+    }
+
 }
@@ -1,17 +1,29 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.upgrad.FoodOrderingApp.service.common.Page;
 import com.upgrad.FoodOrderingApp.service.dao.CouponDao;
 import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
 import com.upgrad.FoodOrderingApp.service.dao.OrderDao;
 import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CouponNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageRequestException;
+import com.upgrad.FoodOrderingApp.service.exception.ItemNotFoundException;
 import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +40,21 @@ public class OrderService {
   @Autowired
   private ItemDao itemDao;
 
+  @Autowired
+  private ItemPopularityTracker itemPopularityTracker;
+
+  @Autowired
+  private ReferenceDataCache referenceDataCache;
+
+  @Value("${food-ordering-app.pagination.default-page-size:20}")
+  private int defaultPageSize;
+
+  @Value("${food-ordering-app.pagination.max-page-size:100}")
+  private int maxPageSize;
+
+  // Later than any order, so that the first page starts at the newest one
+  private static final Timestamp FIRST_PAGE_DATE = Timestamp.from(Instant.parse("9999-12-31T23:59:59Z"));
+
   /**
    * Retrieve the Coupon Information matched with the Coupon name passed
    *
@@ -35,12 +62,16 @@ public class OrderService {
    * @return The Coupon info matched with the coupon name
    * @throws CouponNotFoundException If the coupon name doesn't match with the Database records
    */
+  @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
   public CouponEntity getCouponByCouponName(String couponName) throws CouponNotFoundException {
     // If coupon name is empty
     if (UtilityProvider.isInValid(couponName)) {
       throw new CouponNotFoundException("CPF-002", "Coupon name field should not be empty");
     }
-    CouponEntity coupon = couponDao.getCouponByCouponName(couponName);
+    CouponEntity coupon = referenceDataCache.getCouponByName(couponName);
+    if (coupon == null) {
+      coupon = couponDao.getCouponByCouponName(couponName);
+    }
     // No match with the Database for the coupon name
     if (coupon == null) {
       throw new CouponNotFoundException("CPF-001", "No coupon by this name");
@@ -56,8 +87,12 @@ public class OrderService {
    * @return The Coupon details pulled from Database
    * @throws CouponNotFoundException If the coupon uuid doesn't match with database
    */
+  @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
   public CouponEntity getCouponByCouponId(String couponUUID) throws CouponNotFoundException {
-    CouponEntity coupon = couponDao.getCouponByUUID(couponUUID);
+    CouponEntity coupon = referenceDataCache.getCouponByUuid(couponUUID);
+    if (coupon == null) {
+      coupon = couponDao.getCouponByUUID(couponUUID);
+    }
     if (coupon == null) {
       throw new CouponNotFoundException("CPF-002", "No coupon by this id");
     }
@@ -83,7 +118,8 @@ public class OrderService {
   }
 
   /**
-   * Saves the order item to the database with all the details received
+   * Saves the order item to the database with all the details received, its quantity is counted
+   * towards the popularity of the item once the order is committed
    *
    * @param orderItem The Item details while placing as order which is to be saved
    * @return The persisted order item after updating to the Database
@@ -91,26 +127,88 @@ public class OrderService {
   @Transactional(propagation = Propagation.REQUIRED)
   public OrderItemEntity saveOrderItem(OrderItemEntity orderItem) {
     orderDao.saveOrderItem(orderItem);
+    itemPopularityTracker.recordOrderItem(orderItem);
     return orderItem;
   }
 
   /**
-   * Retrieves the list of orders matched by the customer uuid
+   * Places an order with all its items in one transaction, so that either the order and every
+   * order item are saved or nothing is. The items are looked up together by uuid before anything
+   * is written
    *
-   * @param customerUUID The uuid of the logged in customer
-   * @return The list of Order details fetched from Dao (Database)
+   * @param order      The order Entity to be saved to Database
+   * @param orderItems The items of the order, each referring to its item by the item uuid only
+   * @return The Persisted order after updating to the Database
+   * @throws ItemNotFoundException If any of the item uuids doesn't match with the Database records
    */
-  public List<OrderEntity> getOrdersByCustomers(String customerUUID) {
-    return orderDao.getPastOrdersByCustomerId(customerUUID);
+  @Transactional(propagation = Propagation.REQUIRED, rollbackFor = ItemNotFoundException.class)
+  public OrderEntity placeOrder(OrderEntity order, List<OrderItemEntity> orderItems)
+      throws ItemNotFoundException {
+    // Resolve all the items with one query and fail before writing if any of them doesn't exist
+    Set<String> itemUUIDs = new HashSet<>();
+    orderItems.forEach(orderItem -> itemUUIDs.add(orderItem.getItem().getUuid()));
+    Map<String, ItemEntity> itemsByUUID = new HashMap<>();
+    if (!itemUUIDs.isEmpty()) {
+      itemDao.getItemsByUUIDs(itemUUIDs).forEach(item -> itemsByUUID.put(item.getUuid(), item));
+    }
+    for (OrderItemEntity orderItem : orderItems) {
+      ItemEntity item = itemsByUUID.get(orderItem.getItem().getUuid());
+      if (item == null) {
+        throw new ItemNotFoundException("INF-003", "No item by this id exist");
+      }
+      orderItem.setItem(item);
+    }
+
+    saveOrder(order);
+    for (OrderItemEntity orderItem : orderItems) {
+      orderItem.setOrder(order);
+      saveOrderItem(orderItem);
+    }
+    return order;
   }
 
   /**
-   * Retrieves the list of available items under a particular order using id of order
+   * Retrieves a page of the orders matched by the customer uuid, newest first, with the order
+   * items of every order loaded. A page takes two queries whatever its size, one for the orders
+   * with their coupon, payment, address and restaurant and one for the items of all of them. Each
+   * page continues after the date and id of the last order of the previous page, carried in an
+   * opaque cursor, so orders placed while the customer pages through do not shift the pages
    *
-   * @param orderId The id value of Order entity
-   * @return The list of items placed with the order
+   * @param customerUUID The uuid of the logged in customer
+   * @param cursor       The next cursor of the previous page, null for the first page
+   * @param limit        The maximum number of orders in the page, null for the default
+   * @return The page of Order details fetched from Dao (Database)
+   * @throws InvalidPageRequestException If the cursor is malformed or the limit is out of range
    */
-  public List<OrderItemEntity> getOrderItemsByOrderId(Integer orderId) {
-    return itemDao.getItemsByOrderId(orderId);
+  @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+  public Page<OrderEntity> getOrdersByCustomers(String customerUUID, String cursor, Integer limit)
+      throws InvalidPageRequestException {
+    int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+    Timestamp afterDate = FIRST_PAGE_DATE;
+    Integer afterId = Integer.MAX_VALUE;
+    if (cursor != null && !cursor.isEmpty()) {
+      String[] position = Page.decodeCursor(cursor);
+      try {
+        afterDate = Timestamp.from(Instant.parse(position[0]));
+        afterId = Integer.valueOf(position[1]);
+      } catch (DateTimeException | NumberFormatException e) {
+        throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+      }
+    }
+
+    // One more order than the page size is read, its presence tells that a next page exists
+    List<OrderEntity> orders = orderDao.getPastOrdersByCustomerId(customerUUID, afterDate, afterId,
+        pageSize + 1);
+    String nextCursor = null;
+    if (orders.size() > pageSize) {
+      orders = orders.subList(0, pageSize);
+      OrderEntity last = orders.get(pageSize - 1);
+      // The instant keeps the microseconds of the stored date, which the milliseconds would lose
+      nextCursor = Page.encodeCursor(last.getDate().toInstant() + ":" + last.getId());
+    }
+    if (!orders.isEmpty()) {
+      orderDao.fetchOrderItems(orders);
+    }
+    return new Page<>(orders, nextCursor);
   }
 }
\ No newline at end of file
@@ -1,47 +1,253 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
 
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
+/**
+ * Hashes passwords with PBKDF2 on a dedicated, bounded pool of threads so that login, signup and
+ * password change cannot tie up every request thread. When all hashing threads are busy and the
+ * queue is full the request is shed with a ServiceBusyException instead of waiting, and so is a
+ * request whose hash is not done within the timeout. Callers hash outside of their transactions, so
+ * that a request waiting for its hash holds no database connection.
+ *
+ * <p>Hashes are stored in a self-describing format, {@code pbkdf2-sha512$<iterations>$<key bits>$<hex>},
+ * so the cost can be changed without invalidating existing passwords. Hashes without the prefix were
+ * written with the original fixed cost of 1000 iterations and a 64 bit key. The cost for new hashes is
+ * either configured or, by default, calibrated at startup so that one hash takes about the target time,
+ * rounded down to a power of two so that instances on similar hardware agree. Stored hashes are only
+ * replaced when they cost less than the configured minimum, not whenever they differ from the cost of
+ * this instance, so instances calibrated differently do not rehash each other's passwords.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordCryptographyProvider.class);
+
     private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
+    private static final String HASH_FORMAT_PREFIX = "pbkdf2-sha512";
+    private static final String HASH_FORMAT_SEPARATOR = "$";
+    // Cost of the hashes stored before the format carried its own parameters
+    private static final int LEGACY_HASHING_ITERATIONS = 1000;
+    private static final int LEGACY_HASHING_KEY_LENGTH = 64;
+    private static final int CALIBRATION_ITERATIONS = 10000;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    // SecretKeyFactory instances are not thread safe, each hashing thread keeps its own
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    @Value("${food-ordering-app.password-hashing.parallelism:0}")
+    private int parallelism;
+
+    @Value("${food-ordering-app.password-hashing.queue-size:64}")
+    private int queueSize;
+
+    @Value("${food-ordering-app.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    // Longest a request waits for its hash, in the queue and hashing
+    @Value("${food-ordering-app.password-hashing.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    // Iterations for new hashes, 0 calibrates against the target time
+    @Value("${food-ordering-app.password-hashing.iterations:0}")
+    private int iterations;
+
+    @Value("${food-ordering-app.password-hashing.key-length:512}")
+    private int keyLength;
+
+    @Value("${food-ordering-app.password-hashing.target-millis:50}")
+    private long targetMillis;
+
+    @Value("${food-ordering-app.password-hashing.min-iterations:10000}")
+    private int minIterations;
+
+    private ThreadPoolExecutor hashingExecutor;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Long::max, 0L);
+
+    @PostConstruct
+    void startHashingExecutor() {
+        // Hashing is CPU bound, by default one thread per processor
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        hashingExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        if (iterations <= 0) {
+            iterations = calibrateIterations();
+        }
+        LOGGER.info("Password hashing uses {} iterations with a {} bit key", iterations, keyLength);
+    }
+
     /**
-     * This method generates Salt and hashed Password
+     * Times a hash at a known cost and scales it to the number of iterations that takes the target time,
+     * rounded down to a power of two. A single timing varies by some percent between runs, the rounding
+     * keeps it from changing the cost of every restart.
+     *
+     * @return The calibrated iterations, never below the configured minimum.
+     */
+    private int calibrateIterations() {
+        final char[] sample = "calibration".toCharArray();
+        final byte[] salt = generateSaltBytes();
+        deriveKey(sample, salt, CALIBRATION_ITERATIONS, keyLength);
+        final long startedAt = System.nanoTime();
+        deriveKey(sample, salt, CALIBRATION_ITERATIONS, keyLength);
+        final long nanos = Math.max(1L, System.nanoTime() - startedAt);
+        final long calibrated = TimeUnit.MILLISECONDS.toNanos(targetMillis) * CALIBRATION_ITERATIONS / nanos;
+        final int rounded = Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE, Math.max(1L, calibrated)));
+        return Math.max(minIterations, rounded);
+    }
+
+    @PreDestroy
+    void stopHashingExecutor() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * This method generates Salt and hashed Password with the current cost
      *
      * @param password char array.
      * @return String array with [0] encoded salt [1] hashed password.
+     * @throws ServiceBusyException If the hashing pool is saturated or the hash times out.
      */
-    public String[] encrypt(final String password) {
+    public String[] encrypt(final String password) throws ServiceBusyException {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+        byte[] hashedPassword = hashPassword(password.toCharArray(), salt, iterations, keyLength);
+        return new String[]{getBase64EncodedBytesAsString(salt), formatHash(iterations, keyLength, hashedPassword)};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
-     * This will be used during authentication.
+     * This method re-generates hashed Password from raw-password and salt with the cost recorded in the
+     * stored hash, and compares the two. This will be used during authentication.
      *
-     * @param password char array.
-     * @param salt     byte array.
-     * @return byte array of hashed password.
+     * @param password   raw password.
+     * @param salt       encoded salt.
+     * @param storedHash hashed password as stored.
+     * @return true if the password matches the stored hash, false as well if the hash or salt cannot be read.
+     * @throws ServiceBusyException If the hashing pool is saturated or the hash times out.
      */
-    public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+    public boolean matches(final String password, final String salt, final String storedHash)
+            throws ServiceBusyException {
+        final StoredHash stored = StoredHash.parse(storedHash);
+        if (stored == null) {
+            LOGGER.warn("Stored password hash is not in a known format");
+            return false;
+        }
+        final byte[] saltBytes;
+        try {
+            saltBytes = getBase64DecodedStringAsBytes(salt);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Stored password salt is not Base64");
+            return false;
+        }
+
+        final byte[] hashedPassword = hashPassword(password.toCharArray(), saltBytes, stored.iterations,
+                stored.keyLength);
+        return MessageDigest.isEqual(bytesToHex(hashedPassword).getBytes(), stored.hex.getBytes());
+    }
+
+    /**
+     * Tells whether a stored hash is weaker than the minimum cost and should be replaced once the
+     * raw password is known again. Hashes of more iterations than the minimum are kept even if this
+     * instance hashes new passwords with more, so that instances differing in cost don't rehash back
+     * and forth.
+     *
+     * @param storedHash hashed password as stored.
+     * @return true if the hash is in the legacy format, cannot be read, or uses fewer iterations than
+     *     the minimum or a shorter key than the current one.
+     */
+    public boolean needsRehash(final String storedHash) {
+        final StoredHash stored = StoredHash.parse(storedHash);
+        return stored == null || stored.legacy
+                || stored.iterations < minIterations
+                || stored.keyLength < keyLength;
+    }
+
+    /**
+     * The cost and hex digest of a stored hash, either in the current format or the legacy one.
+     */
+    private static final class StoredHash {
+
+        private final boolean legacy;
+        private final int iterations;
+        private final int keyLength;
+        private final String hex;
+
+        private StoredHash(final boolean legacy, final int iterations, final int keyLength, final String hex) {
+            this.legacy = legacy;
+            this.iterations = iterations;
+            this.keyLength = keyLength;
+            this.hex = hex;
+        }
+
+        /**
+         * @return The parsed hash, or null if it starts with the format prefix but its fields cannot be read.
+         */
+        private static StoredHash parse(final String storedHash) {
+            if (storedHash == null) {
+                return null;
+            }
+            if (!storedHash.startsWith(HASH_FORMAT_PREFIX + HASH_FORMAT_SEPARATOR)) {
+                return new StoredHash(true, LEGACY_HASHING_ITERATIONS, LEGACY_HASHING_KEY_LENGTH, storedHash);
+            }
+            final String[] parts = storedHash.split(Pattern.quote(HASH_FORMAT_SEPARATOR), -1);
+            if (parts.length != 4 || parts[3].isEmpty()) {
+                return null;
+            }
+            try {
+                final int iterations = Integer.parseInt(parts[1]);
+                final int keyLength = Integer.parseInt(parts[2]);
+                return iterations > 0 && keyLength > 0 ? new StoredHash(false, iterations, keyLength, parts[3]) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private static String formatHash(final int iterations, final int keyLength, final byte[] hashedPassword) {
+        return HASH_FORMAT_PREFIX + HASH_FORMAT_SEPARATOR + iterations + HASH_FORMAT_SEPARATOR + keyLength
+                + HASH_FORMAT_SEPARATOR + bytesToHex(hashedPassword);
     }
 
     /**
@@ -57,24 +263,90 @@ public class PasswordCryptographyProvider {
     }
 
     /**
-     * This method generates hashed Password
+     * This method generates hashed Password on the hashing pool, the calling thread waits for the result
+     * up to the timeout.
      *
-     * @param password char array.
-     * @param salt     byte array.
+     * @param password   char array.
+     * @param salt       byte array.
+     * @param iterations PBKDF2 iterations.
+     * @param keyLength  length of the derived key in bits.
      * @return byte array of hashed password.
+     * @throws ServiceBusyException If the hashing pool is saturated or the hash times out.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private byte[] hashPassword(final char[] password, final byte[] salt, final int iterations,
+            final int keyLength) throws ServiceBusyException {
+        final long submittedAt = System.nanoTime();
+        Future<byte[]> hash;
+        try {
+            hash = hashingExecutor.submit(() -> {
+                final long startedAt = System.nanoTime();
+                totalQueueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return deriveKey(password, salt, iterations, keyLength);
+                } finally {
+                    final long hashNanos = System.nanoTime() - startedAt;
+                    hashCount.increment();
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulate(hashNanos);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new ServiceBusyException("SVC-001", "Too many requests, please retry later", retryAfterSeconds);
+        }
+
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
-            SecretKey key = skf.generateSecret(spec);
-            byte[] res = key.getEncoded();
-            return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            return hash.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A hash still in the queue is dropped from it, one already running is left to finish
+            hashingExecutor.remove((Runnable) hash);
+            rejectedCount.increment();
+            throw new ServiceBusyException("SVC-001", "Too many requests, please retry later", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
     }
 
+    private static byte[] deriveKey(final char[] password, final byte[] salt, final int iterations,
+            final int keyLength) {
+        try {
+            PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
+            SecretKey key = SECRET_KEY_FACTORY.get().generateSecret(spec);
+            spec.clearPassword();
+            return key.getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    // Hashes refused because the queue was full or not done within the timeout
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getTotalHashNanos() {
+        return totalHashNanos.sum();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    public long getTotalQueueWaitNanos() {
+        return totalQueueWaitNanos.sum();
+    }
+
+    public int getQueueDepth() {
+        return hashingExecutor.getQueue().size();
+    }
+
     private static String bytesToHex(byte[] bytes) {
         char[] hexChars = new char[bytes.length * 2];
         for (int j = 0; j < bytes.length; j++) {
@@ -7,6 +7,8 @@ import com.upgrad.FoodOrderingApp.service.exception.PaymentMethodNotFoundExcepti
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PaymentService {
@@ -14,7 +16,16 @@ public class PaymentService {
     @Autowired
     private PaymentDao paymentDao;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    //Payment methods are served from the reference data snapshot once it is loaded
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<PaymentEntity> getAllPaymentMethods() {
+        List<PaymentEntity> paymentMethods = referenceDataCache.getPaymentMethods();
+        if (paymentMethods != null) {
+            return paymentMethods;
+        }
         return paymentDao.getAllPaymentMethods();
 
     }
@@ -27,9 +38,13 @@ public class PaymentService {
      * @return The Payment Details retrieved from Database with the matched uuid
      * @throws PaymentMethodNotFoundException If the uuid doesn't match with any Database record
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public PaymentEntity getPaymentByUUID(String paymentUUID)
         throws PaymentMethodNotFoundException {
-        PaymentEntity payment = paymentDao.getMethodbyId(paymentUUID);
+        PaymentEntity payment = referenceDataCache.getPaymentMethodByUuid(paymentUUID);
+        if (payment == null) {
+            payment = paymentDao.getMethodbyId(paymentUUID);
+        }
         if (payment != null) {
             return payment;
         }
@@ -0,0 +1,171 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.CouponDao;
+import com.upgrad.FoodOrderingApp.service.dao.PaymentDao;
+import com.upgrad.FoodOrderingApp.service.dao.StateDao;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory snapshot of the reference tables STATE, PAYMENT, CATEGORY and COUPON, which change a
+ * few times a year but are read on every checkout and catalog request.
+ *
+ * <p>The snapshot is loaded on startup and replaced as a whole on every scheduled or admin
+ * triggered refresh, so readers always see one consistent, unmodifiable version. Lookups return
+ * null when the snapshot is not loaded yet or has no matching row, in which case callers read the
+ * database as before. Only the columns of the cached rows are used from the snapshot, their lazy
+ * associations cannot be loaded outside the session they were read in.
+ *
+ * <p>A refresh that finds a row added, removed or changed since the previous snapshot publishes a
+ * CatalogChangedEvent of the reference data. The first load and refreshes finding the same rows
+ * publish none, there is nothing cached from before them to discard.
+ */
+@Component
+public class ReferenceDataCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+  @Autowired
+  private StateDao stateDao;
+
+  @Autowired
+  private PaymentDao paymentDao;
+
+  @Autowired
+  private CategoryDao categoryDao;
+
+  @Autowired
+  private CouponDao couponDao;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Reloads all reference tables and swaps in the new snapshot, announcing it if any row differs
+   * from the previous snapshot. A failed reload keeps the previous snapshot.
+   *
+   * @return true if the snapshot was reloaded
+   */
+  @Scheduled(fixedDelayString = "${food-ordering-app.reference-data.refresh-interval-ms:3600000}")
+  public boolean refresh() {
+    try {
+      Snapshot loaded = new Snapshot(stateDao.getAllStates(), paymentDao.getAllPaymentMethods(),
+          categoryDao.getAllCategories(), couponDao.getAllCoupons());
+      Snapshot previous = snapshot;
+      snapshot = loaded;
+      if (previous != null && !previous.rows.equals(loaded.rows)) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+      }
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.warn("Reference data refresh failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  public List<StateEntity> getStates() {
+    Snapshot current = snapshot;
+    return current == null ? null : current.states;
+  }
+
+  public StateEntity getStateByUuid(final String uuid) {
+    Snapshot current = snapshot;
+    return current == null ? null : current.statesByUuid.get(uuid);
+  }
+
+  public List<PaymentEntity> getPaymentMethods() {
+    Snapshot current = snapshot;
+    return current == null ? null : current.paymentMethods;
+  }
+
+  public PaymentEntity getPaymentMethodByUuid(final String uuid) {
+    Snapshot current = snapshot;
+    return current == null ? null : current.paymentMethodsByUuid.get(uuid);
+  }
+
+  /**
+   * @return The categories sorted by name, or null if the snapshot is not loaded
+   */
+  public List<CategoryEntity> getCategoriesOrderedByName() {
+    Snapshot current = snapshot;
+    return current == null ? null : current.categoriesByName;
+  }
+
+  public CouponEntity getCouponByName(final String couponName) {
+    Snapshot current = snapshot;
+    return current == null ? null : current.couponsByName.get(couponName);
+  }
+
+  public CouponEntity getCouponByUuid(final String uuid) {
+    Snapshot current = snapshot;
+    return current == null ? null : current.couponsByUuid.get(uuid);
+  }
+
+  private static final class Snapshot {
+
+    private final List<StateEntity> states;
+    private final Map<String, StateEntity> statesByUuid;
+    private final List<PaymentEntity> paymentMethods;
+    private final Map<String, PaymentEntity> paymentMethodsByUuid;
+    private final List<CategoryEntity> categoriesByName;
+    private final Map<String, CouponEntity> couponsByName;
+    private final Map<String, CouponEntity> couponsByUuid;
+    // The columns of every row, by table, to tell whether a refresh changed anything
+    private final Set<List<Object>> rows = new HashSet<>();
+
+    private Snapshot(final List<StateEntity> states, final List<PaymentEntity> paymentMethods,
+        final List<CategoryEntity> categories, final List<CouponEntity> coupons) {
+      this.states = unmodifiableCopy(states);
+      this.statesByUuid = index(this.states, StateEntity::getStateUuid);
+      this.paymentMethods = unmodifiableCopy(paymentMethods);
+      this.paymentMethodsByUuid = index(this.paymentMethods, PaymentEntity::getUuid);
+      List<CategoryEntity> sortedCategories = new ArrayList<>(categories == null ? Collections.emptyList() : categories);
+      sortedCategories.sort(Comparator.comparing(CategoryEntity::getCategoryName));
+      this.categoriesByName = Collections.unmodifiableList(sortedCategories);
+      List<CouponEntity> couponList = unmodifiableCopy(coupons);
+      this.couponsByName = index(couponList, CouponEntity::getCouponName);
+      this.couponsByUuid = index(couponList, CouponEntity::getUuid);
+      this.states.forEach(state -> rows.add(Arrays.asList(
+          "STATE", state.getId(), state.getStateUuid(), state.getStateName())));
+      this.paymentMethods.forEach(payment -> rows.add(Arrays.asList(
+          "PAYMENT", payment.getId(), payment.getUuid(), payment.getPaymentName())));
+      this.categoriesByName.forEach(category -> rows.add(Arrays.asList(
+          "CATEGORY", category.getId(), category.getUuid(), category.getCategoryName())));
+      couponList.forEach(coupon -> rows.add(Arrays.asList(
+          "COUPON", coupon.getId(), coupon.getUuid(), coupon.getCouponName(), coupon.getPercent())));
+    }
+
+    private static <T> List<T> unmodifiableCopy(final List<T> rows) {
+      return Collections.unmodifiableList(rows == null ? new ArrayList<>() : new ArrayList<>(rows));
+    }
+
+    // Keeps the first row for a key, as the lookups by name did when reading from the database
+    private static <T> Map<String, T> index(final List<T> rows, final Function<T, String> key) {
+      Map<String, T> index = new HashMap<>();
+      rows.forEach(row -> index.putIfAbsent(key.apply(row), row));
+      return Collections.unmodifiableMap(index);
+    }
+  }
+}
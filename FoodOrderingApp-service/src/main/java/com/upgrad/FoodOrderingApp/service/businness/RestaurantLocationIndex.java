@@ -0,0 +1,229 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory grid over the coordinates of the restaurant addresses, so that the restaurants near a
+ * location are found by reading the few grid cells around it instead of every restaurant.
+ *
+ * <p>The grid divides latitudes and longitudes into cells of a fixed number of degrees. A lookup
+ * reads the cells overlapping the box around the circle of the radius and keeps the restaurants
+ * whose great circle distance is within the radius. Restaurants whose address has no coordinates
+ * are not indexed.
+ *
+ * <p>The grid is built on startup and rebuilt as a whole on every scheduled run, readers always
+ * see one complete version. Lookups return null until the first build has
+ * succeeded, in which case callers read the box from the database instead.
+ */
+@Component
+public class RestaurantLocationIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantLocationIndex.class);
+
+  // Mean radius of the earth
+  static final double EARTH_RADIUS_KM = 6371.0088;
+
+  // Cells are about 5.5 km high, a lookup of the largest radius reads a few hundred of them
+  private static final double CELL_DEGREES = 0.05;
+
+  @Autowired
+  private RestaurantDao restaurantDao;
+
+  private volatile Grid grid;
+
+  /**
+   * Reads the coordinates of all restaurants and swaps in a new grid. A failed build keeps the
+   * previous grid.
+   *
+   * @return true if the grid was rebuilt
+   */
+  @Scheduled(fixedDelayString = "${food-ordering-app.nearby.rebuild-interval-ms:300000}")
+  public boolean rebuild() {
+    try {
+      Grid.Builder builder = new Grid.Builder();
+      restaurantDao.getRestaurantLocations().forEach(row -> builder.add((Integer) row[0], (Double) row[1], (Double) row[2]));
+      grid = builder.build();
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.warn("Restaurant location index build failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Finds the restaurants within a radius of a location.
+   *
+   * @param latitude The latitude of the location, in degrees
+   * @param longitude The longitude of the location, in degrees
+   * @param radiusKm The radius, in kilometres
+   * @return The restaurants within the radius, nearest first and then by id, or null if the grid is
+   *     not built yet
+   */
+  public List<Match> nearby(final double latitude, final double longitude, final double radiusKm) {
+    Grid current = grid;
+    return current == null ? null : current.nearby(latitude, longitude, radiusKm);
+  }
+
+  /**
+   * Keeps the restaurants within a radius of a location out of rows read from the database.
+   *
+   * @param rows Rows of [restaurant id, latitude, longitude]
+   * @param latitude The latitude of the location, in degrees
+   * @param longitude The longitude of the location, in degrees
+   * @param radiusKm The radius, in kilometres
+   * @return The restaurants within the radius, nearest first and then by id
+   */
+  public static List<Match> within(final List<Object[]> rows, final double latitude, final double longitude,
+      final double radiusKm) {
+    List<Match> matches = new ArrayList<>();
+    for (Object[] row : rows) {
+      double distance = distanceKm(latitude, longitude, (Double) row[1], (Double) row[2]);
+      if (distance <= radiusKm) {
+        matches.add(new Match((Integer) row[0], distance));
+      }
+    }
+    return sort(matches);
+  }
+
+  /**
+   * The smallest ranges of coordinates containing the circle of a radius around a location. Near
+   * the poles and across the 180th meridian the box spans all longitudes.
+   *
+   * @return The minimum and maximum latitude and the minimum and maximum longitude, in that order
+   */
+  public static double[] boundingBox(final double latitude, final double longitude, final double radiusKm) {
+    double latitudeDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+    double minLatitude = latitude - latitudeDelta;
+    double maxLatitude = latitude + latitudeDelta;
+    if (minLatitude <= -90 || maxLatitude >= 90) {
+      return new double[] {Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180};
+    }
+    // A degree of longitude is shortest at the latitude of the circle farthest from the equator
+    double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+    if (longitude - longitudeDelta < -180 || longitude + longitudeDelta > 180) {
+      return new double[] {minLatitude, maxLatitude, -180, 180};
+    }
+    return new double[] {minLatitude, maxLatitude, longitude - longitudeDelta, longitude + longitudeDelta};
+  }
+
+  // Great circle distance by the haversine formula
+  static double distanceKm(final double latitude1, final double longitude1, final double latitude2,
+      final double longitude2) {
+    double latitudeSine = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+    double longitudeSine = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+    double a = latitudeSine * latitudeSine
+        + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * longitudeSine * longitudeSine;
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  // Index of the cell row or column containing a latitude or longitude, negative below zero
+  static int cellIndex(final double degrees) {
+    return (int) Math.floor(degrees / CELL_DEGREES);
+  }
+
+  // Row in the high and column in the low 32 bits, so that negative indices cannot collide
+  static long cellKey(final int latitudeIndex, final int longitudeIndex) {
+    return ((long) latitudeIndex << 32) | (longitudeIndex & 0xffffffffL);
+  }
+
+  private static List<Match> sort(final List<Match> matches) {
+    matches.sort(Comparator.comparingDouble(Match::getDistanceKm).thenComparing(Match::getRestaurantId));
+    return matches;
+  }
+
+  /**
+   * A restaurant found near a location and its distance from it.
+   */
+  public static final class Match {
+
+    private final Integer restaurantId;
+    private final double distanceKm;
+
+    Match(final Integer restaurantId, final double distanceKm) {
+      this.restaurantId = restaurantId;
+      this.distanceKm = distanceKm;
+    }
+
+    public Integer getRestaurantId() {
+      return restaurantId;
+    }
+
+    public double getDistanceKm() {
+      return distanceKm;
+    }
+  }
+
+  private static final class Grid {
+
+    // Restaurant ids, latitudes and longitudes of the restaurants in a cell, by cell
+    private final Map<Long, Cell> cells;
+
+    private Grid(final Map<Long, Cell> cells) {
+      this.cells = cells;
+    }
+
+    private List<Match> nearby(final double latitude, final double longitude, final double radiusKm) {
+      double[] box = boundingBox(latitude, longitude, radiusKm);
+      List<Match> matches = new ArrayList<>();
+      for (int latitudeIndex = cellIndex(box[0]); latitudeIndex <= cellIndex(box[1]); latitudeIndex++) {
+        for (int longitudeIndex = cellIndex(box[2]); longitudeIndex <= cellIndex(box[3]); longitudeIndex++) {
+          Cell cell = cells.get(cellKey(latitudeIndex, longitudeIndex));
+          if (cell == null) {
+            continue;
+          }
+          for (int i = 0; i < cell.restaurantIds.length; i++) {
+            double distance = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+            if (distance <= radiusKm) {
+              matches.add(new Match(cell.restaurantIds[i], distance));
+            }
+          }
+        }
+      }
+      return sort(matches);
+    }
+
+    private static final class Cell {
+
+      private final int[] restaurantIds;
+      private final double[] latitudes;
+      private final double[] longitudes;
+
+      private Cell(final List<Object[]> locations) {
+        restaurantIds = new int[locations.size()];
+        latitudes = new double[locations.size()];
+        longitudes = new double[locations.size()];
+        for (int i = 0; i < locations.size(); i++) {
+          restaurantIds[i] = (Integer) locations.get(i)[0];
+          latitudes[i] = (Double) locations.get(i)[1];
+          longitudes[i] = (Double) locations.get(i)[2];
+        }
+      }
+    }
+
+    private static final class Builder {
+
+      private final Map<Long, List<Object[]>> locations = new HashMap<>();
+
+      private void add(final Integer restaurantId, final Double latitude, final Double longitude) {
+        long key = cellKey(cellIndex(latitude), cellIndex(longitude));
+        locations.computeIfAbsent(key, k -> new ArrayList<>()).add(new Object[] {restaurantId, latitude, longitude});
+      }
+
+      private Grid build() {
+        Map<Long, Cell> cells = new HashMap<>();
+        locations.forEach((key, cellLocations) -> cells.put(key, new Cell(cellLocations)));
+        return new Grid(cells);
+      }
+    }
+  }
+}
@@ -0,0 +1,272 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.common.RestaurantRating;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Queues the ratings of customers in memory and writes them to the database in batches, so that
+ * rating a restaurant costs no transaction and a burst of ratings of one restaurant does not queue
+ * up on the lock of its row.
+ *
+ * <p>One rating is kept per customer and restaurant, a customer rating again before the ratings
+ * are written only replaces the queued one. Every flush writes all queued ratings in one
+ * transaction, inserting the first rating of a customer for a restaurant and replacing the later
+ * ones, and adjusts the average and the number of ratings of every rated restaurant by the
+ * difference the ratings made. A flush that fails keeps its ratings queued for the next one, which
+ * runs after twice the delay of the previous one, up to a maximum. A rating whose write has failed
+ * the configured number of times is written on its own, and dropped and logged if that fails too,
+ * so that neither a rating the database rejects nor a long outage keeps the queue full.
+ *
+ * <p>Flushes run on a thread of their own rather than the shared scheduler thread, where they
+ * would wait for the index rebuilds. Queued ratings are lost if the process dies before they are
+ * written. They are written on shutdown, and ratings beyond the configured bound are shed with a
+ * ServiceBusyException.
+ */
+@Component
+public class RestaurantRatingWriteBehind {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantRatingWriteBehind.class);
+
+  @Autowired
+  private RestaurantRatingDao restaurantRatingDao;
+
+  @Autowired
+  private CatalogEntityCache catalogEntityCache;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${food-ordering-app.rating.max-pending:100000}")
+  private int maxPending;
+
+  @Value("${food-ordering-app.rating.retry-after-seconds:2}")
+  private long retryAfterSeconds;
+
+  @Value("${food-ordering-app.rating.flush-interval-ms:1000}")
+  private long flushIntervalMillis;
+
+  @Value("${food-ordering-app.rating.max-retry-delay-ms:60000}")
+  private long maxRetryDelayMillis;
+
+  @Value("${food-ordering-app.rating.max-attempts:10}")
+  private int maxAttempts;
+
+  // Latest rating of every customer and restaurant pair that is not written yet
+  private final Map<Long, RestaurantRating> pending = new ConcurrentHashMap<>();
+
+  // Failed writes of the queued ratings, by rating. A customer rating again queues a new rating,
+  // which starts over. Only used by flush, which is synchronized
+  private final Map<RestaurantRating, Integer> failedAttempts = new HashMap<>();
+
+  private volatile int consecutiveFailures;
+
+  private final LongAdder droppedCount = new LongAdder();
+
+  private ScheduledThreadPoolExecutor flushExecutor;
+
+  @Autowired
+  public RestaurantRatingWriteBehind(final PlatformTransactionManager transactionManager) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Queues the rating of a customer for a restaurant, replacing the queued one of the pair if any.
+   *
+   * @param customerId The id of the customer rating the restaurant
+   * @param restaurantId The id of the rated restaurant
+   * @param rating The rating, from 1 to 5
+   * @throws ServiceBusyException If too many ratings are waiting to be written
+   */
+  public void submit(final Integer customerId, final Integer restaurantId, final BigDecimal rating)
+      throws ServiceBusyException {
+    final long key = RestaurantRating.key(customerId, restaurantId);
+    if (pending.size() >= maxPending && !pending.containsKey(key)) {
+      throw new ServiceBusyException("SVC-002", "Too many ratings are waiting to be saved, please try again later",
+          retryAfterSeconds);
+    }
+    pending.put(key, new RestaurantRating(customerId, restaurantId, rating, new Date()));
+  }
+
+  /**
+   * @return The number of ratings waiting to be written
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * @return The number of ratings dropped since startup because they could not be written
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  @PostConstruct
+  void startFlushExecutor() {
+    flushExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "rating-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // The next flush is dropped on shutdown, the one running is waited for
+    flushExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    flushExecutor.schedule(this::scheduledFlush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Writes the queued ratings. Ratings queued while the flush runs are written by the next one.
+   *
+   * @return The number of ratings written, after a failed flush those written on their own
+   */
+  public synchronized int flush() {
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    final Map<Long, RestaurantRating> batch = new HashMap<>(pending);
+    failedAttempts.keySet().removeIf(rating -> pending.get(rating.getKey()) != rating);
+    Set<Integer> ratedRestaurantIds;
+    int written;
+    try {
+      ratedRestaurantIds = transactionTemplate.execute(status -> write(batch.values()));
+      // A pair rated again since the copy was taken keeps its newer rating queued
+      batch.forEach(pending::remove);
+      batch.values().forEach(failedAttempts::remove);
+      written = batch.size();
+      consecutiveFailures = 0;
+    } catch (RuntimeException e) {
+      consecutiveFailures++;
+      LOGGER.warn("Writing {} restaurant ratings failed, retrying with the next flush: {}", batch.size(), e.getMessage());
+      final List<RestaurantRating> exhausted = new ArrayList<>();
+      for (RestaurantRating rating : batch.values()) {
+        if (failedAttempts.merge(rating, 1, Integer::sum) >= maxAttempts) {
+          exhausted.add(rating);
+        }
+      }
+      ratedRestaurantIds = new HashSet<>();
+      written = writeOneByOne(exhausted, ratedRestaurantIds);
+    }
+    if (!ratedRestaurantIds.isEmpty()) {
+      catalogEntityCache.evictRestaurants(ratedRestaurantIds);
+      eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Change.RESTAURANT_RATING));
+    }
+    return written;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flushExecutor.shutdown();
+    try {
+      flushExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    if (!pending.isEmpty()) {
+      LOGGER.warn("{} restaurant ratings could not be saved on shutdown", pending.size());
+    }
+  }
+
+  // Runs a flush and schedules the next one, later after failed flushes
+  private void scheduledFlush() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      LOGGER.error("Flushing the restaurant ratings failed", e);
+    }
+    long delay = flushIntervalMillis << Math.min(consecutiveFailures, 20);
+    if (!flushExecutor.isShutdown()) {
+      flushExecutor.schedule(this::scheduledFlush, Math.min(delay, maxRetryDelayMillis), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // Writes every rating in a transaction of its own and drops those that fail, which have failed
+  // as part of a batch often enough. Returns the number written and adds their restaurants
+  private int writeOneByOne(final List<RestaurantRating> ratings, final Set<Integer> ratedRestaurantIds) {
+    int written = 0;
+    for (RestaurantRating rating : ratings) {
+      try {
+        ratedRestaurantIds.addAll(transactionTemplate.execute(status -> write(Collections.singletonList(rating))));
+        written++;
+      } catch (RuntimeException e) {
+        droppedCount.increment();
+        LOGGER.error("Dropped the rating {} of customer {} for restaurant {} after {} failed writes: {}",
+            rating.getRating(), rating.getCustomerId(), rating.getRestaurantId(), failedAttempts.get(rating),
+            e.getMessage());
+      }
+      pending.remove(rating.getKey(), rating);
+      failedAttempts.remove(rating);
+    }
+    return written;
+  }
+
+  // Returns the ids of the restaurants whose rating changed
+  private Set<Integer> write(final Collection<RestaurantRating> ratings) {
+    restaurantRatingDao.lockRatings();
+    final Map<Long, BigDecimal> storedRatings = new HashMap<>();
+    for (RestaurantRating stored : restaurantRatingDao.getRatings(ratings)) {
+      storedRatings.put(stored.getKey(), stored.getRating());
+    }
+
+    final List<RestaurantRating> newRatings = new ArrayList<>();
+    final List<RestaurantRating> changedRatings = new ArrayList<>();
+    final List<BigDecimal> replacedRatings = new ArrayList<>();
+    for (RestaurantRating rating : ratings) {
+      final BigDecimal storedRating = storedRatings.get(rating.getKey());
+      if (storedRating == null) {
+        newRatings.add(rating);
+      } else {
+        changedRatings.add(rating);
+        replacedRatings.add(storedRating);
+      }
+    }
+
+    // Only the ratings actually written count, not those of customers or restaurants deleted meanwhile
+    final Map<Integer, BigDecimal> ratingSumChanges = new HashMap<>();
+    final Map<Integer, Integer> addedRatingCounts = new HashMap<>();
+    final int[] inserted = restaurantRatingDao.insertRatings(newRatings);
+    for (int i = 0; i < inserted.length; i++) {
+      if (inserted[i] > 0) {
+        final RestaurantRating rating = newRatings.get(i);
+        ratingSumChanges.merge(rating.getRestaurantId(), rating.getRating(), BigDecimal::add);
+        addedRatingCounts.merge(rating.getRestaurantId(), 1, Integer::sum);
+      }
+    }
+    final int[] updated = restaurantRatingDao.updateRatings(changedRatings);
+    for (int i = 0; i < updated.length; i++) {
+      final BigDecimal change = changedRatings.get(i).getRating().subtract(replacedRatings.get(i));
+      if (updated[i] > 0 && change.signum() != 0) {
+        ratingSumChanges.merge(changedRatings.get(i).getRestaurantId(), change, BigDecimal::add);
+      }
+    }
+    restaurantRatingDao.addToRestaurantRatings(ratingSumChanges, addedRatingCounts);
+    return ratingSumChanges.keySet();
+  }
+}
@@ -0,0 +1,325 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory search index over the names of the restaurants and of their categories and items, so
+ * that a search reads no table and ranks its results instead of scanning RESTAURANT with LIKE.
+ *
+ * <p>Names are split into lower cased words. A word of the search text matches an indexed word
+ * that is equal to it, starts with it, contains it or is within one or two typing errors of it.
+ * Words within typing errors are found through an inverted index of the three letter grams of the
+ * indexed words padded with a space at either end, or among the words of about the same length
+ * when the word is too short for its grams to be sure to survive the typos. A restaurant is
+ * found when every word of the search text matches, its score adds up the best match of every
+ * word, weighted by whether it matched the restaurant name, a category or an item.
+ *
+ * <p>The index is built on startup and rebuilt as a whole on every scheduled run and change of the
+ * reference data, readers always see one complete version. Searches return null until the first
+ * build has succeeded, in which case callers read the database as before.
+ */
+@Component
+public class RestaurantSearchIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantSearchIndex.class);
+
+  // Weight of a match by where the matched word was found
+  private static final double NAME_WEIGHT = 3.0;
+  private static final double CATEGORY_WEIGHT = 2.0;
+  private static final double ITEM_WEIGHT = 1.0;
+
+  // Score of a match by how the word of the search text matched the indexed word
+  private static final double EXACT_MATCH = 1.0;
+  private static final double PREFIX_MATCH = 0.8;
+  private static final double INFIX_MATCH = 0.5;
+  private static final double TYPO_MATCH = 0.4;
+
+  private static final int GRAM_LENGTH = 3;
+  private static final char GRAM_PADDING = ' ';
+
+  @Autowired
+  private RestaurantDao restaurantDao;
+
+  private volatile Index index;
+
+  /**
+   * Reads the names of all restaurants, categories and items and swaps in a new index. A failed
+   * build keeps the previous index.
+   *
+   * @return true if the index was rebuilt
+   */
+  @Scheduled(fixedDelayString = "${food-ordering-app.search.rebuild-interval-ms:300000}")
+  public boolean rebuild() {
+    try {
+      Index.Builder builder = new Index.Builder();
+      restaurantDao.getRestaurantNames().forEach(row -> builder.add((Integer) row[0], (String) row[1], NAME_WEIGHT));
+      restaurantDao.getRestaurantCategoryNames().forEach(row -> builder.add((Integer) row[0], (String) row[1], CATEGORY_WEIGHT));
+      restaurantDao.getRestaurantItemNames().forEach(row -> builder.add((Integer) row[0], (String) row[1], ITEM_WEIGHT));
+      index = builder.build();
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.warn("Restaurant search index build failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Rebuilds the index when the reference data changed, as the names of the categories are
+   * indexed. Rating changes are not indexed and are ignored.
+   *
+   * @param event The catalog change
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(final CatalogChangedEvent event) {
+    if (event.getChange() == CatalogChangedEvent.Change.REFERENCE_DATA) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Finds the restaurants matching every word of the search text.
+   *
+   * @param text The search text
+   * @return The matching restaurants, highest score first and then by id, or null if the index is
+   *     not built yet
+   */
+  public List<Match> search(final String text) {
+    Index current = index;
+    return current == null ? null : current.search(text);
+  }
+
+  /**
+   * A restaurant found by a search and its relevance score.
+   */
+  public static final class Match {
+
+    private final Integer restaurantId;
+    private final double score;
+
+    Match(final Integer restaurantId, final double score) {
+      this.restaurantId = restaurantId;
+      this.score = score;
+    }
+
+    public Integer getRestaurantId() {
+      return restaurantId;
+    }
+
+    public double getScore() {
+      return score;
+    }
+  }
+
+  static List<String> words(final String text) {
+    List<String> words = new ArrayList<>();
+    if (text != null) {
+      for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+        if (!word.isEmpty()) {
+          words.add(word);
+        }
+      }
+    }
+    return words;
+  }
+
+  // The grams of the word padded at either end, a word of n letters has n of them
+  static Set<String> grams(final String word) {
+    String padded = GRAM_PADDING + word + GRAM_PADDING;
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+      grams.add(padded.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  // Optimal string alignment distance, or max + 1 once it is known to exceed max
+  static int distance(final String a, final String b, final int max) {
+    if (Math.abs(a.length() - b.length()) > max) {
+      return max + 1;
+    }
+    int[][] d = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      d[i][0] = i;
+    }
+    for (int j = 0; j <= b.length(); j++) {
+      d[0][j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      int rowMin = Integer.MAX_VALUE;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+        }
+        rowMin = Math.min(rowMin, d[i][j]);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+    }
+    return d[a.length()][b.length()];
+  }
+
+  private static final class Index {
+
+    // Indexed words in ascending order, for prefix lookups
+    private final String[] words;
+    // Best field weight of every restaurant an indexed word was found in, by word
+    private final Map<String, Map<Integer, Double>> postings;
+    // Indexed words containing a gram, by gram
+    private final Map<String, List<String>> wordsByGram;
+    // Indexed words by length
+    private final Map<Integer, List<String>> wordsByLength;
+
+    private Index(final Map<String, Map<Integer, Double>> postings) {
+      this.postings = postings;
+      this.words = new TreeSet<>(postings.keySet()).toArray(new String[0]);
+      this.wordsByGram = new HashMap<>();
+      this.wordsByLength = new HashMap<>();
+      for (String word : words) {
+        for (String gram : grams(word)) {
+          wordsByGram.computeIfAbsent(gram, key -> new ArrayList<>()).add(word);
+        }
+        wordsByLength.computeIfAbsent(word.length(), key -> new ArrayList<>()).add(word);
+      }
+    }
+
+    private List<Match> search(final String text) {
+      List<String> queryWords = words(text);
+      if (queryWords.isEmpty()) {
+        return Collections.emptyList();
+      }
+      Map<Integer, Double> scores = null;
+      for (String queryWord : queryWords) {
+        Map<Integer, Double> wordScores = scoreRestaurants(matchWords(queryWord));
+        if (scores == null) {
+          scores = wordScores;
+        } else {
+          // Every word of the search text has to match
+          Map<Integer, Double> combined = new HashMap<>();
+          for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+            Double wordScore = wordScores.get(score.getKey());
+            if (wordScore != null) {
+              combined.put(score.getKey(), score.getValue() + wordScore);
+            }
+          }
+          scores = combined;
+        }
+        if (scores.isEmpty()) {
+          return Collections.emptyList();
+        }
+      }
+      List<Match> matches = new ArrayList<>();
+      scores.forEach((restaurantId, score) -> matches.add(new Match(restaurantId, score)));
+      matches.sort(Comparator.comparingDouble(Match::getScore).reversed().thenComparing(Match::getRestaurantId));
+      return matches;
+    }
+
+    // The indexed words matched by a word of the search text, with the score of each match
+    private Map<String, Double> matchWords(final String queryWord) {
+      Map<String, Double> matched = new HashMap<>();
+      if (postings.containsKey(queryWord)) {
+        matched.put(queryWord, EXACT_MATCH);
+      }
+      int from = Arrays.binarySearch(words, queryWord);
+      for (int i = from < 0 ? -from - 1 : from; i < words.length && words[i].startsWith(queryWord); i++) {
+        matched.putIfAbsent(words[i], PREFIX_MATCH);
+      }
+
+      if (queryWord.length() < GRAM_LENGTH) {
+        return matched;
+      }
+      Set<String> queryGrams = grams(queryWord);
+      // Count the grams every indexed word shares with the word of the search text
+      Map<String, Integer> sharedGrams = new HashMap<>();
+      for (String gram : queryGrams) {
+        for (String word : wordsByGram.getOrDefault(gram, Collections.emptyList())) {
+          sharedGrams.merge(word, 1, Integer::sum);
+        }
+      }
+      // A word containing the word of the search text has all its grams but the two padded ones
+      int innerGrams = queryGrams.size() - 2;
+      for (Map.Entry<String, Integer> shared : sharedGrams.entrySet()) {
+        String word = shared.getKey();
+        if (shared.getValue() >= innerGrams && !matched.containsKey(word) && word.contains(queryWord)) {
+          matched.put(word, INFIX_MATCH);
+        }
+      }
+
+      // Words shorter than four letters are too short to tell a typo from another word
+      int maxTypos = queryWord.length() >= 8 ? 2 : queryWord.length() >= 4 ? 1 : 0;
+      if (maxTypos == 0) {
+        return matched;
+      }
+      // Every typo changes at most GRAM_LENGTH + 1 grams, as many as a transposition does
+      int minSharedGrams = queryGrams.size() - (GRAM_LENGTH + 1) * maxTypos;
+      List<String> candidates = new ArrayList<>();
+      if (minSharedGrams > 0) {
+        sharedGrams.forEach((word, shared) -> {
+          if (shared >= minSharedGrams) {
+            candidates.add(word);
+          }
+        });
+      } else {
+        // The typos may leave no gram in common, compare with every word of about the same length
+        for (int length = queryWord.length() - maxTypos; length <= queryWord.length() + maxTypos; length++) {
+          candidates.addAll(wordsByLength.getOrDefault(length, Collections.emptyList()));
+        }
+      }
+      for (String word : candidates) {
+        if (!matched.containsKey(word)) {
+          int typos = distance(queryWord, word, maxTypos);
+          if (typos <= maxTypos) {
+            matched.put(word, TYPO_MATCH / typos);
+          }
+        }
+      }
+      return matched;
+    }
+
+    // The best weighted match score of every restaurant in which one of the words was found
+    private Map<Integer, Double> scoreRestaurants(final Map<String, Double> matchedWords) {
+      Map<Integer, Double> scores = new HashMap<>();
+      for (Map.Entry<String, Double> matchedWord : matchedWords.entrySet()) {
+        for (Map.Entry<Integer, Double> posting : postings.get(matchedWord.getKey()).entrySet()) {
+          scores.merge(posting.getKey(), matchedWord.getValue() * posting.getValue(), Math::max);
+        }
+      }
+      return scores;
+    }
+
+    private static final class Builder {
+
+      private final Map<String, Map<Integer, Double>> postings = new HashMap<>();
+
+      private void add(final Integer restaurantId, final String name, final double weight) {
+        for (String word : words(name)) {
+          postings.computeIfAbsent(word, key -> new HashMap<>()).merge(restaurantId, weight, Math::max);
+        }
+      }
+
+      private Index build() {
+        return new Index(postings);
+      }
+    }
+  }
+}
@@ -1,20 +1,28 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.upgrad.FoodOrderingApp.service.common.Page;
 import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
 import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
-import com.upgrad.FoodOrderingApp.service.entity.RestaurantCategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidLocationException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageRequestException;
 import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 //This Class handles all service related to the Restaurant.
 
 @Service
@@ -29,11 +37,36 @@ public class RestaurantService {
     @Autowired
     UtilityProvider utilityProvider; // It Provides Data Check methods for various cases
 
+    @Autowired
+    RestaurantRatingWriteBehind restaurantRatingWriteBehind; // Queues ratings and writes them in batches
+
+    @Autowired
+    RestaurantLocationIndex restaurantLocationIndex; // Finds restaurants by the coordinates of their address
+
+    @Autowired
+    RestaurantSearchIndex restaurantSearchIndex; // Finds restaurants by the words of their name, categories and items
+
+    @Value("${food-ordering-app.pagination.default-page-size:20}")
+    int defaultPageSize; // Restaurants in a page when the client does not ask for a size
+
+    @Value("${food-ordering-app.pagination.max-page-size:100}")
+    int maxPageSize;
+
+    @Value("${food-ordering-app.nearby.default-radius-km:5}")
+    double defaultRadiusKm; // Radius around the location when the client does not ask for one
+
+    @Value("${food-ordering-app.nearby.max-radius-km:50}")
+    double maxRadiusKm;
+
+    // Ranks before every restaurant, so that the first page starts at the top
+    private static final BigDecimal FIRST_PAGE_RATING = BigDecimal.valueOf(Long.MAX_VALUE);
+
 
 
     /* This method is to get restaurant By UUID and returns RestaurantEntity. its takes restaurantUuid as the input string.
      If error throws exception with error code and error message.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public RestaurantEntity restaurantByUUID(String restaurantUuid)throws RestaurantNotFoundException{
         if(restaurantUuid == null||restaurantUuid == ""){ //Checking for restaurantUuid to be null or empty to throw exception.
             throw new RestaurantNotFoundException("RNF-002","Restaurant id field should not be empty");
@@ -51,45 +84,215 @@ public class RestaurantService {
 
     }
 
-    public List<RestaurantEntity> restaurantsByRating() {
-        return restaurantDao.restaurantsByRating();
+    /* The listings below return restaurants by customer rating, highest first, ties ordered by id. Each page continues after the
+    rating and id of the last restaurant of the previous page, carried in an opaque cursor, instead of skipping a number of rows.
+    A rating updated while a client pages through moves only that restaurant, which may then be listed twice or not at all,
+    the other restaurants keep their place.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Page<RestaurantEntity> restaurantsByRating(String cursor, Integer limit) throws InvalidPageRequestException {
+        int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+        Position after = decodeCursor(cursor);
+        List<RestaurantEntity> restaurants = restaurantDao.restaurantsByRating(after.rating, after.id, pageSize + 1);
+        return getPage(restaurants, pageSize);
     }
 
-    public List<RestaurantEntity> restaurantByCategory(String categoryId) throws CategoryNotFoundException {
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Page<RestaurantEntity> restaurantByCategory(String categoryId, String cursor, Integer limit)
+            throws CategoryNotFoundException, InvalidPageRequestException {
         if (categoryId == null || categoryId.isEmpty()) {
             throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
         }
-
-        List<RestaurantCategoryEntity> listRestaurantCategoryEntity = restaurantDao.restaurantByCategory(categoryId);
-        List<RestaurantEntity> listRestaurantEntity = new ArrayList<>();
-        for (RestaurantCategoryEntity rc : listRestaurantCategoryEntity) {
-            listRestaurantEntity.add(rc.getRestaurant());
-        }
-        return listRestaurantEntity;
+        int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+        Position after = decodeCursor(cursor);
+        List<RestaurantEntity> restaurants = restaurantDao.restaurantByCategory(categoryId, after.rating, after.id, pageSize + 1);
+        return getPage(restaurants, pageSize);
     }
 
-    public List<RestaurantEntity> restaurantsByName(String restaurantName) throws RestaurantNotFoundException {
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Page<RestaurantEntity> restaurantsByName(String restaurantName, String cursor, Integer limit)
+            throws RestaurantNotFoundException, InvalidPageRequestException {
         if (restaurantName == null || restaurantName.isEmpty()) {
             throw new RestaurantNotFoundException("RNF-003", "Restaurant name field should not be empty");
         }
-        List<RestaurantEntity> listRestaurantEntity = restaurantDao.restaurantsByName(restaurantName.toLowerCase());
-        return listRestaurantEntity;
+        int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+        Position after = decodeCursor(cursor);
+        List<RestaurantEntity> restaurants = restaurantDao.restaurantsByName(restaurantName.toLowerCase(), after.rating, after.id, pageSize + 1);
+        return getPage(restaurants, pageSize);
+    }
+
+    /* This method searches restaurants by the words of their name, categories and items, most relevant first. A page
+    continues after the score and id of the last restaurant of the previous page. Until the search index is built the
+    restaurants are searched by name in the database instead, in the order and with the cursors of restaurantsByName.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Page<RestaurantEntity> searchRestaurants(String text, String cursor, Integer limit)
+            throws RestaurantNotFoundException, InvalidPageRequestException {
+        if (text == null || text.trim().isEmpty()) {
+            throw new RestaurantNotFoundException("RNF-004", "Search text should not be empty");
+        }
+        List<RestaurantSearchIndex.Match> matches = restaurantSearchIndex.search(text);
+        if (matches == null) {
+            return restaurantsByName(text.trim(), cursor, limit);
+        }
+        int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+
+        double afterScore = Double.POSITIVE_INFINITY;
+        int afterId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = Page.decodeCursor(cursor);
+            try {
+                afterScore = Double.parseDouble(position[0]);
+                afterId = Integer.parseInt(position[1]);
+            } catch (NumberFormatException e) {
+                throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+            }
+        }
+        // The matches are ordered by score descending and then id, the page starts at the first one after the cursor
+        int from = 0;
+        while (from < matches.size() && (matches.get(from).getScore() > afterScore
+                || (matches.get(from).getScore() == afterScore && matches.get(from).getRestaurantId() <= afterId))) {
+            from++;
+        }
+        List<RestaurantSearchIndex.Match> pageMatches = matches.subList(from, Math.min(from + pageSize, matches.size()));
+        if (pageMatches.isEmpty()) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        pageMatches.forEach(match -> ids.add(match.getRestaurantId()));
+        List<RestaurantEntity> restaurants = restaurantsByIds(ids);
+
+        String nextCursor = null;
+        if (from + pageSize < matches.size()) {
+            RestaurantSearchIndex.Match last = pageMatches.get(pageMatches.size() - 1);
+            nextCursor = Page.encodeCursor(last.getScore() + ":" + last.getRestaurantId());
+        }
+        return new Page<>(restaurants, nextCursor);
+    }
+
+    /* This method returns the restaurants within a radius of a location, nearest first, ties ordered by id. A page continues
+    after the distance and id of the last restaurant of the previous page. Restaurants whose address has no coordinates are
+    not listed. Until the location index is built the restaurants are read from the database by the box around the radius.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Page<RestaurantEntity> restaurantsNearby(Double latitude, Double longitude, Double radiusKm, String cursor, Integer limit)
+            throws InvalidLocationException, InvalidPageRequestException {
+        if (latitude == null || !(latitude >= -90.0 && latitude <= 90.0)) {
+            throw new InvalidLocationException("LOC-001", "Latitude should be in the range of -90 to 90");
+        }
+        if (longitude == null || !(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new InvalidLocationException("LOC-002", "Longitude should be in the range of -180 to 180");
+        }
+        double radius = radiusKm == null ? defaultRadiusKm : radiusKm;
+        if (!(radius > 0.0 && radius <= maxRadiusKm)) {
+            throw new InvalidLocationException("LOC-003", "Radius should be more than 0 and at most "
+                    + BigDecimal.valueOf(maxRadiusKm).stripTrailingZeros().toPlainString() + " km");
+        }
+        int pageSize = Page.getPageSize(limit, defaultPageSize, maxPageSize);
+
+        double afterDistance = -1.0;
+        int afterId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = Page.decodeCursor(cursor);
+            try {
+                afterDistance = Double.parseDouble(position[0]);
+                afterId = Integer.parseInt(position[1]);
+            } catch (NumberFormatException e) {
+                throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+            }
+        }
+
+        List<RestaurantLocationIndex.Match> matches = restaurantLocationIndex.nearby(latitude, longitude, radius);
+        if (matches == null) {
+            double[] box = RestaurantLocationIndex.boundingBox(latitude, longitude, radius);
+            matches = RestaurantLocationIndex.within(restaurantDao.getRestaurantLocationsInBox(box[0], box[1], box[2], box[3]),
+                    latitude, longitude, radius);
+        }
+        // The matches are ordered by distance and then id, the page starts at the first one after the cursor
+        int from = 0;
+        while (from < matches.size() && (matches.get(from).getDistanceKm() < afterDistance
+                || (matches.get(from).getDistanceKm() == afterDistance && matches.get(from).getRestaurantId() <= afterId))) {
+            from++;
+        }
+        List<RestaurantLocationIndex.Match> pageMatches = matches.subList(from, Math.min(from + pageSize, matches.size()));
+        if (pageMatches.isEmpty()) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        pageMatches.forEach(match -> ids.add(match.getRestaurantId()));
+        List<RestaurantEntity> restaurants = restaurantsByIds(ids);
+
+        String nextCursor = null;
+        if (from + pageSize < matches.size()) {
+            RestaurantLocationIndex.Match last = pageMatches.get(pageMatches.size() - 1);
+            nextCursor = Page.encodeCursor(last.getDistanceKm() + ":" + last.getRestaurantId());
+        }
+        return new Page<>(restaurants, nextCursor);
+    }
+
+    //Returns the restaurants with the given ids in the order of the ids, restaurants deleted since the ids were indexed are left out.
+    private List<RestaurantEntity> restaurantsByIds(List<Integer> ids) {
+        Map<Integer, RestaurantEntity> restaurantsById = new HashMap<>();
+        restaurantDao.restaurantsByIds(ids).forEach(restaurant -> restaurantsById.put(restaurant.getId(), restaurant));
+        List<RestaurantEntity> restaurants = new ArrayList<>();
+        ids.forEach(id -> {
+            if (restaurantsById.containsKey(id)) {
+                restaurants.add(restaurantsById.get(id));
+            }
+        });
+        return restaurants;
+    }
+
+    //One more row than the page size is read, its presence tells that a next page exists.
+    private Page<RestaurantEntity> getPage(List<RestaurantEntity> restaurants, int pageSize) {
+        if (restaurants.size() <= pageSize) {
+            return new Page<>(restaurants, null);
+        }
+        List<RestaurantEntity> pageRestaurants = restaurants.subList(0, pageSize);
+        RestaurantEntity last = pageRestaurants.get(pageSize - 1);
+        String position = last.getExactCustomerRating().toPlainString() + ":" + last.getId();
+        return new Page<>(pageRestaurants, Page.encodeCursor(position));
+    }
+
+    //Returns the rating and id the page starts after, the first page starts before the top rated restaurant.
+    private Position decodeCursor(String cursor) throws InvalidPageRequestException {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Position(FIRST_PAGE_RATING, 0);
+        }
+        String[] position = Page.decodeCursor(cursor);
+        try {
+            return new Position(new BigDecimal(position[0]), Integer.valueOf(position[1]));
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+        }
     }
 
-    @Transactional(propagation = Propagation.REQUIRED)
-    public RestaurantEntity updateRestaurantRating(RestaurantEntity restaurantEntity, Double customerRating) throws InvalidRatingException {
+    /* This method records the rating of a customer for the restaurant. The rating is queued and written with the other ratings
+    queued meanwhile, which also adjusts the average rating of the restaurant, a customer rating the restaurant again replaces
+    their previous rating. Returns the restaurant, whose rating does not include the new one yet.
+     */
+    public RestaurantEntity updateRestaurantRating(RestaurantEntity restaurantEntity, CustomerEntity customerEntity, Double customerRating)
+            throws InvalidRatingException, ServiceBusyException {
 
         if (customerRating == null || customerRating < 1.0 || customerRating > 5.0) {
             throw new InvalidRatingException("IRE-001", "Restaurant should be in the range of 1 to 5");
         }
 
-        Double newcustomerRating = (restaurantEntity.getCustomerRating() * restaurantEntity.getNumberCustomersRated() + customerRating)
-                / (restaurantEntity.getNumberCustomersRated() + 1);
+        restaurantRatingWriteBehind.submit(Math.toIntExact(customerEntity.getId()), restaurantEntity.getId(), BigDecimal.valueOf(customerRating));
+        return restaurantEntity;
+    }
 
-        restaurantEntity.setNumberCustomersRated(restaurantEntity.getNumberCustomersRated() + 1);
-        restaurantEntity.setCustomerRating(newcustomerRating);
+    //The rating and id of a restaurant in the listing order.
+    private static final class Position {
 
-        return restaurantDao.updateRestaurant(restaurantEntity);
-    }
+        private final BigDecimal rating;
+        private final Integer id;
 
-}
\ No newline at end of file
+        private Position(final BigDecimal rating, final Integer id) {
+            this.rating = rating;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.util.UtilityProvider;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Key ids of access tokens that were logged out before they expired. Tokens verified with the
+ * server-side key and sessions found in the CustomerSessionCache are only accepted without a
+ * CUSTOMER_AUTH lookup when they are not listed here.
+ *
+ * <p>Logouts on this instance are added as they commit, logouts on other instances are picked up
+ * by a periodic read of recently logged out tokens. An entry is kept only until its token expires,
+ * since the expiry check rejects the token after that. Until the first read has succeeded the list
+ * reports itself as not synchronized and tokens are checked against the database.
+ */
+@Component
+public class TokenRevocationList {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationList.class);
+
+  // Longest lifetime of an access token, logouts older than this cannot affect a valid token
+  private static final long TOKEN_LIFETIME_HOURS = 8;
+
+  @Autowired
+  private CustomerDao customerDao;
+
+  @Value("${food-ordering-app.jwt.revocation-sync-interval-ms:30000}")
+  private long syncIntervalMillis;
+
+  // Token key id to the epoch millis at which the token expires
+  private final Map<String, Long> revokedKeyIds = new ConcurrentHashMap<>();
+
+  private volatile ZonedDateTime lastSynchronizedAt;
+
+  /**
+   * Revokes the access token once the surrounding logout transaction commits.
+   *
+   * @param accessToken The access token that has been logged out
+   */
+  public void revokeAfterCommit(final String accessToken) {
+    UtilityProvider.runAfterCommit(() -> revoke(accessToken));
+  }
+
+  public boolean isRevoked(final String keyId) {
+    return keyId != null && revokedKeyIds.containsKey(keyId);
+  }
+
+  public boolean isSynchronized() {
+    return lastSynchronizedAt != null;
+  }
+
+  /**
+   * Reads the tokens logged out since the previous run, with an overlap of one interval to allow
+   * for transactions that committed late, and drops entries whose tokens have expired.
+   */
+  @Scheduled(fixedDelayString = "${food-ordering-app.jwt.revocation-sync-interval-ms:30000}")
+  public void synchronize() {
+    final ZonedDateTime now = ZonedDateTime.now();
+    final ZonedDateTime since = lastSynchronizedAt == null
+        ? now.minusHours(TOKEN_LIFETIME_HOURS)
+        : lastSynchronizedAt.minusNanos(syncIntervalMillis * 1_000_000L);
+    try {
+      customerDao.getAccessTokensLoggedOutSince(since).forEach(this::revoke);
+      lastSynchronizedAt = now;
+    } catch (RuntimeException e) {
+      LOGGER.warn("Access token revocation sync failed: {}", e.getMessage());
+    }
+
+    final long nowMillis = System.currentTimeMillis();
+    revokedKeyIds.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+  }
+
+  private void revoke(final String accessToken) {
+    try {
+      DecodedJWT jwt = JWT.decode(accessToken);
+      if (jwt.getKeyId() != null && jwt.getExpiresAt() != null
+          && jwt.getExpiresAt().getTime() > System.currentTimeMillis()) {
+        revokedKeyIds.put(jwt.getKeyId(), jwt.getExpiresAt().getTime());
+      }
+    } catch (JWTDecodeException e) {
+      // Not a token this application issued, nothing can verify it anyway
+    }
+  }
+}
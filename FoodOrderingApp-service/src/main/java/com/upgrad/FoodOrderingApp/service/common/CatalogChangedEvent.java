@@ -0,0 +1,28 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+/**
+ * Published when data shown by the public catalog endpoints changes, such as a restaurant rating or
+ * the reference tables, so that anything derived from it can be discarded.
+ */
+public class CatalogChangedEvent {
+
+    /**
+     * What changed, so that listeners only discard what was derived from it.
+     */
+    public enum Change {
+        // Customer ratings of restaurants were written
+        RESTAURANT_RATING,
+        // A reference data refresh found rows of the reference tables added, removed or changed
+        REFERENCE_DATA
+    }
+
+    private final Change change;
+
+    public CatalogChangedEvent(final Change change) {
+        this.change = change;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+}
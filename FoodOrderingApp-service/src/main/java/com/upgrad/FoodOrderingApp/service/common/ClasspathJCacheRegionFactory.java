@@ -0,0 +1,49 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+
+/**
+ * JCache region factory of the second-level cache that also reads the cache configuration named by
+ * hibernate.javax.cache.uri from the classpath, when given as "classpath:" followed by the resource
+ * name. Other URIs are passed to the caching provider as they are.
+ *
+ * <p>A configuration read from the classpath gets a cache manager of its own for every session
+ * factory. The caching provider hands out one cache manager per URI, which the first session factory
+ * to stop closes, while the others, such as those of the application contexts cached by the tests,
+ * still use it. The URI of the resource is told apart by a fragment, which is not part of the
+ * resource read.
+ */
+public class ClasspathJCacheRegionFactory extends JCacheRegionFactory {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final AtomicInteger CACHE_MANAGER_COUNT = new AtomicInteger();
+
+    @Override
+    protected CacheManager getCacheManager(final Properties properties) {
+        final String configUri = getProp(properties, CONFIG_URI);
+        if (configUri == null || !configUri.startsWith(CLASSPATH_PREFIX)) {
+            return super.getCacheManager(properties);
+        }
+        final URL resource = ClasspathJCacheRegionFactory.class.getClassLoader()
+                .getResource(configUri.substring(CLASSPATH_PREFIX.length()));
+        if (resource == null) {
+            throw new CacheException("Cache configuration " + configUri + " not found");
+        }
+        final CachingProvider cachingProvider = getCachingProvider(properties);
+        try {
+            final URI uri = new URI(resource.toURI() + "#session-factory-" + CACHE_MANAGER_COUNT.incrementAndGet());
+            return cachingProvider.getCacheManager(uri, cachingProvider.getDefaultClassLoader());
+        } catch (URISyntaxException e) {
+            throw new CacheException("Cache configuration " + configUri + " has no valid URI", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import org.hibernate.dialect.PostgreSQL9Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL dialect with the function collate_c, which compares a string in the C collation,
+ * byte by byte, whatever the collation of the database. JPQL has no COLLATE clause, so queries
+ * whose order is repeated in memory sort by collate_c(name) to get the same order on every
+ * database.
+ */
+public class CollatingPostgreSQLDialect extends PostgreSQL9Dialect {
+
+    public CollatingPostgreSQLDialect() {
+        super();
+        registerFunction("collate_c", new SQLFunctionTemplate(StandardBasicTypes.STRING, "?1 collate \"C\""));
+    }
+}
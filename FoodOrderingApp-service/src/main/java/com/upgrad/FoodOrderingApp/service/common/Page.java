@@ -0,0 +1,80 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a listing read by keyset, along with the opaque cursor that continues it.
+ *
+ * @param <T> The type of the listed rows
+ */
+public class Page<T> {
+
+    private final List<T> items;
+
+    private final String nextCursor;
+
+    public Page(final List<T> items, final String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor of the following page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Validates the page size asked for by a client
+     *
+     * @param limit           The page size asked for, may be null
+     * @param defaultPageSize The page size used when none is asked for
+     * @param maxPageSize     The largest page size allowed
+     * @return The page size to read
+     * @throws InvalidPageRequestException If the page size is not between 1 and maxPageSize
+     */
+    public static int getPageSize(final Integer limit, final int defaultPageSize, final int maxPageSize)
+            throws InvalidPageRequestException {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidPageRequestException("PGN-002", "Page size should be between 1 and " + maxPageSize);
+        }
+        return limit;
+    }
+
+    /**
+     * @param position The sort key of the last row of a page, as "key:id"
+     * @return The opaque cursor handed to clients for the position
+     */
+    public static String encodeCursor(final String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor A cursor returned by {@link #encodeCursor(String)}
+     * @return The sort key and the id of the position, in that order
+     * @throws InvalidPageRequestException If the cursor was not produced by {@link #encodeCursor(String)}
+     */
+    public static String[] decodeCursor(final String cursor) throws InvalidPageRequestException {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = position.lastIndexOf(':');
+            if (separator < 0) {
+                throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+            }
+            return new String[] {position.substring(0, separator), position.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("PGN-001", "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * The rating a customer gave a restaurant, as stored in RESTAURANT_RATING.
+ */
+public class RestaurantRating {
+
+    private final Integer customerId;
+
+    private final Integer restaurantId;
+
+    private final BigDecimal rating;
+
+    private final Date ratedAt;
+
+    public RestaurantRating(final Integer customerId, final Integer restaurantId, final BigDecimal rating,
+                            final Date ratedAt) {
+        this.customerId = customerId;
+        this.restaurantId = restaurantId;
+        this.rating = rating;
+        this.ratedAt = ratedAt;
+    }
+
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public Date getRatedAt() {
+        return ratedAt;
+    }
+
+    /**
+     * @return The key of the customer and restaurant pair, one rating is kept per key
+     */
+    public long getKey() {
+        return key(customerId, restaurantId);
+    }
+
+    public static long key(final Integer customerId, final Integer restaurantId) {
+        return ((long) customerId << 32) | (restaurantId & 0xffffffffL);
+    }
+}
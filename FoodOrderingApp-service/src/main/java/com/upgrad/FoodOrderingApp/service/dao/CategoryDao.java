@@ -1,18 +1,23 @@
 package com.upgrad.FoodOrderingApp.service.dao;
 
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 @Repository
 public class CategoryDao {
 
+    //Upper bound on the bind parameters sent in a single IN clause
+    private static final int IN_CLAUSE_BATCH_SIZE = 1000;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -33,4 +38,26 @@ public class CategoryDao {
             return null;
         }
     }
+
+    public List<CategoryEntity> getCategoriesByRestaurant(RestaurantEntity restaurantEntity) {
+        return entityManager.createNamedQuery("categoriesByRestaurant", CategoryEntity.class).setParameter("restaurant", restaurantEntity).getResultList();
+    }
+
+    /**
+     * Retrieves the category names mapped to each of the given restaurants. Ids are sent in IN
+     * clauses of at most 1000 entries, so a listing costs one query per thousand restaurants instead
+     * of one query per restaurant.
+     *
+     * @param restaurantIds The ids of the restaurants for which categories are to be fetched
+     * @return Rows of [restaurant id, category name]
+     */
+    public List<Object[]> getCategoryNamesByRestaurantIds(List<Integer> restaurantIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int from = 0; from < restaurantIds.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            List<Integer> batch = restaurantIds.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, restaurantIds.size()));
+            rows.addAll(entityManager.createNamedQuery("categoryNamesByRestaurantIds", Object[].class)
+                    .setParameter("restaurantIds", batch).getResultList());
+        }
+        return rows;
+    }
 }
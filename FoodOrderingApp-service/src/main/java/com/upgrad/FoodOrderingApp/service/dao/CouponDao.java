@@ -49,4 +49,13 @@ public class CouponDao {
       return null;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Retrieves all the Coupons in the order they were created
+   *
+   * @return The list of Coupon Entities in the Database
+   */
+  public List<CouponEntity> getAllCoupons() {
+    return entityManager.createNamedQuery("allCoupons", CouponEntity.class).getResultList();
+  }
+}
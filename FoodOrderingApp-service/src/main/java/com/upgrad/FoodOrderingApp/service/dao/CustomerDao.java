@@ -3,6 +3,8 @@ package com.upgrad.FoodOrderingApp.service.dao;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 
+import java.time.ZonedDateTime;
+import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
@@ -67,13 +69,8 @@ public class CustomerDao {
      * @param id id
      * @return CustomerEntity
      */
-    public CustomerEntity getCustomerById(final String id) {
-        try {
-            return entityManager.createNamedQuery("customerById", CustomerEntity.class)
-                    .setParameter("id", id).getSingleResult();
-        } catch (NoResultException nre) {
-            return null;
-        }
+    public CustomerEntity getCustomerById(final long id) {
+        return entityManager.find(CustomerEntity.class, id);
     }
 
     /**Get CustomerEntity by contactNumber.
@@ -83,7 +80,7 @@ public class CustomerDao {
     public CustomerEntity getCustomerByContactNumber(final String contactNumber) {
         try {
             return entityManager.createNamedQuery("customerByContactNumber", CustomerEntity.class)
-                    .setParameter("contactnumber", contactNumber).getSingleResult();
+                    .setParameter("contactNumber", contactNumber).getSingleResult();
         } catch (NoResultException nre) {
             return null;
         }
@@ -111,6 +108,15 @@ public class CustomerDao {
         }
     }
 
+    /**Get the access tokens logged out at or after the given time.
+     * @param since since
+     * @return list of access tokens
+     */
+    public List<String> getAccessTokensLoggedOutSince(final ZonedDateTime since) {
+        return entityManager.createNamedQuery("accessTokensLoggedOutSince", String.class)
+                .setParameter("since", since).getResultList();
+    }
+
     /**update CustomerEntity.
      * @param updatedCustomerEntity CustomerEntity
      */
@@ -1,7 +1,8 @@
 package com.upgrad.FoodOrderingApp.service.dao;
 
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
-import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import java.util.Collection;
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -30,24 +31,37 @@ public class ItemDao {
     }
 
   /**
-   * Retrieves all the items related to a particular Order based on id
+   * Retrieves the mostly ordered items of a restaurant, ranked by the total quantity ordered. The
+   * ranking is aggregated in the database so only the top items are transferred
    *
-   * @param orderId The id of the order to fetch the list of items
-   * @return The list of items linked to an order
+   * @param restaurantEntity The restaurant for which items has to be retrieved
+   * @param limit            The maximum number of items to be returned
+   * @return The list of popular items in descending order of quantity ordered
    */
-  public List<OrderItemEntity> getItemsByOrderId(Integer orderId) {
-    return entityManager.createNamedQuery("itemsByOrderId", OrderItemEntity.class)
-        .setParameter("id", orderId).getResultList();
+  public List<ItemEntity> getItemsByPopularity(RestaurantEntity restaurantEntity, int limit) {
+    return entityManager.createNamedQuery("itemsByPopularity", ItemEntity.class)
+        .setParameter("restaurant", restaurantEntity).setMaxResults(limit).getResultList();
   }
 
   /**
-   * Retrieves the mostly ordered items and top 5 items will be returned
+   * Retrieves the Items with the given ids, in no particular order
    *
-   * @param restaurantUUID The uuid of the restaurant for which items has to be retrieved
-   * @return The list of popular items limit to maximum of 5
+   * @param ids The ids of the Items to be fetched
+   * @return The Item Entities found in the Database
    */
-  public List<ItemEntity> getItemsByPopularity(String restaurantUUID) {
-    return entityManager.createNamedQuery("itemsByPopularity", ItemEntity.class)
-        .setParameter("restaurantUUID", restaurantUUID).setMaxResults(5).getResultList();
+  public List<ItemEntity> getItemsByIds(List<Integer> ids) {
+    return entityManager.createNamedQuery("itemsByIds", ItemEntity.class)
+        .setParameter("ids", ids).getResultList();
+  }
+
+  /**
+   * Retrieves the Items with the given uuids in one query, in no particular order
+   *
+   * @param itemUUIDs The uuids of the Items to be fetched
+   * @return The Item Entities found in the Database, uuids without a match are left out
+   */
+  public List<ItemEntity> getItemsByUUIDs(Collection<String> itemUUIDs) {
+    return entityManager.createNamedQuery("itemsByUUIDs", ItemEntity.class)
+        .setParameter("itemUUIDs", itemUUIDs).getResultList();
   }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import java.util.Date;
 import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -39,16 +40,43 @@ public class OrderDao {
   }
 
   /**
-   * Retrieves the list of previously placed orders ordered by the date placed descending
+   * Retrieves a page of previously placed orders ordered by the date placed descending, newest
+   * first, along with their customer, address, coupon, payment and restaurant
    *
    * @param customerUUID The uuid of the customer for which orders has to be retrieved
-   * @return The Order details sorted in descending order of the data placed
+   * @param afterDate    The date of the last order of the previous page
+   * @param afterId      The id of the last order of the previous page
+   * @param limit        The maximum number of orders to be returned
+   * @return The Order details placed before the given order, in descending order of the date placed
    */
-  public List<OrderEntity> getPastOrdersByCustomerId(String customerUUID) {
-    return entityManager.createNamedQuery("pastOrdersByCustomerUUID", OrderEntity.class)
-        .setParameter("customerUUID", customerUUID).getResultList();
+  public List<OrderEntity> getPastOrdersByCustomerId(String customerUUID, Date afterDate, Integer afterId,
+      int limit) {
+    return entityManager.createNamedQuery("pastOrdersByCustomerUUIDAfter", OrderEntity.class)
+        .setParameter("customerUUID", customerUUID).setParameter("date", afterDate)
+        .setParameter("id", afterId).setMaxResults(limit).getResultList();
     }
 
+  /**
+   * Loads the order items, and their items, of all the given orders with one query. The orders
+   * must be managed by the current persistence context, their order items are filled in place
+   *
+   * @param orders The orders of which the items have to be loaded
+   */
+  public void fetchOrderItems(List<OrderEntity> orders) {
+    entityManager.createNamedQuery("orderItemsOfOrders", OrderEntity.class)
+        .setParameter("orders", orders).getResultList();
+  }
+
+  /**
+   * Retrieves the total quantity ordered of every item, per restaurant, across all orders
+   *
+   * @return Rows of restaurant id, item id, item name and the summed quantity
+   */
+  public List<Object[]> getItemQuantitiesByRestaurant() {
+    return entityManager.createNamedQuery("itemQuantitiesByRestaurant", Object[].class)
+        .getResultList();
+  }
+
     //To get the
     public List<OrderItemEntity> getItemsByOrders(OrderEntity orderEntity) {
       try {
@@ -25,7 +25,7 @@ public class PaymentDao {
     //Return payment method by paymet UUID
     public PaymentEntity getMethodbyId(final String uuid){
         try{
-          return entityManager.createNamedQuery("getMethodbyId", PaymentEntity.class)
+          return entityManager.createNamedQuery("paymentByUUID", PaymentEntity.class)
               .setParameter("paymentUUID", uuid).getSingleResult();
         }catch(NoResultException nre){
             return null;
@@ -1,12 +1,12 @@
 package com.upgrad.FoodOrderingApp.service.dao;
 
-import com.upgrad.FoodOrderingApp.service.entity.RestaurantCategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
 import java.util.List;
 
 
@@ -16,13 +16,10 @@ public class RestaurantDao {
     @PersistenceContext
     private EntityManager entityManager;
 
-    //Return restaurant list sorted based on customer rating
-    public List<RestaurantEntity> restaurantsByRating() {
-        try {
-            return entityManager.createNamedQuery("allRestaurantsByRating", RestaurantEntity.class).getResultList();
-        } catch (NoResultException nre) {
-            return null;
-        }
+    //Return up to limit restaurants ranked after the given rating and id, by customer rating and then id, with address and state fetched in the same query
+    public List<RestaurantEntity> restaurantsByRating(BigDecimal afterRating, Integer afterId, int limit) {
+        return entityManager.createNamedQuery("restaurantsByRatingAfter", RestaurantEntity.class)
+                .setParameter("rating", afterRating).setParameter("id", afterId).setMaxResults(limit).getResultList();
     }
 
 
@@ -41,37 +38,47 @@ public class RestaurantDao {
         return entityManager.merge(restaurantEntity);
     }
 
-    public List<RestaurantCategoryEntity> restaurantByCategory(String categoryId) {
-        try {
-            return entityManager.createNamedQuery("getRestaurantByCategory", RestaurantCategoryEntity.class).setParameter("categoryId", categoryId).getResultList();
-        } catch (NoResultException nre) {
-            return null;
-        } catch (Exception e) {
-            System.out.println(".....................Database Error");
-            e.printStackTrace();
-            return null;
-        }
+    //Return up to limit restaurants mapped to the category UUID ranked after the given rating and id, with address and state fetched in the same query
+    public List<RestaurantEntity> restaurantByCategory(String categoryId, BigDecimal afterRating, Integer afterId, int limit) {
+        return entityManager.createNamedQuery("restaurantsByCategoryUuidAfter", RestaurantEntity.class).setParameter("categoryId", categoryId)
+                .setParameter("rating", afterRating).setParameter("id", afterId).setMaxResults(limit).getResultList();
     }
 
-    public List<RestaurantEntity> restaurantsByName(String restaurantName) {
-        try {
-            return entityManager.createNamedQuery("getRestaurantsByName", RestaurantEntity.class).setParameter("restaurantName", "%" + restaurantName + "%").getResultList();
-        } catch (NoResultException nre) {
-            return null;
-        } catch (Exception e) {
-            System.out.println(".....................Database Error");
-            e.printStackTrace();
-            return null;
-        }
+    //Return up to limit restaurants whose lower cased name contains the given name ranked after the given rating and id
+    public List<RestaurantEntity> restaurantsByName(String restaurantName, BigDecimal afterRating, Integer afterId, int limit) {
+        return entityManager.createNamedQuery("restaurantsByNameAfter", RestaurantEntity.class).setParameter("restaurantName", "%" + restaurantName + "%")
+                .setParameter("rating", afterRating).setParameter("id", afterId).setMaxResults(limit).getResultList();
     }
 
-    public RestaurantEntity updateRestaurant(final RestaurantEntity updateRestaurantEntity) {
-        try {
-            entityManager.merge(updateRestaurantEntity);
-        } catch (Exception e) {
-            System.out.println(".....................Database Error");
-            e.printStackTrace();
-        }
-        return updateRestaurantEntity;
+    //Return the restaurants with the given ids, in no particular order, with address and state fetched in the same query
+    public List<RestaurantEntity> restaurantsByIds(List<Integer> ids) {
+        return entityManager.createNamedQuery("restaurantsByIds", RestaurantEntity.class).setParameter("ids", ids).getResultList();
+    }
+
+    //Return rows of [restaurant id, restaurant name] of all restaurants
+    public List<Object[]> getRestaurantNames() {
+        return entityManager.createNamedQuery("restaurantNames", Object[].class).getResultList();
+    }
+
+    //Return rows of [restaurant id, category name] of all categories of all restaurants
+    public List<Object[]> getRestaurantCategoryNames() {
+        return entityManager.createNamedQuery("restaurantCategoryNames", Object[].class).getResultList();
+    }
+
+    //Return rows of [restaurant id, item name] of all items of all restaurants
+    public List<Object[]> getRestaurantItemNames() {
+        return entityManager.createNamedQuery("restaurantItemNames", Object[].class).getResultList();
+    }
+
+    //Return rows of [restaurant id, latitude, longitude] of all restaurants whose address has coordinates
+    public List<Object[]> getRestaurantLocations() {
+        return entityManager.createNamedQuery("restaurantLocations", Object[].class).getResultList();
+    }
+
+    //Return rows of [restaurant id, latitude, longitude] of the restaurants whose address lies within the given ranges of coordinates
+    public List<Object[]> getRestaurantLocationsInBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        return entityManager.createNamedQuery("restaurantLocationsInBox", Object[].class)
+                .setParameter("minLatitude", minLatitude).setParameter("maxLatitude", maxLatitude)
+                .setParameter("minLongitude", minLongitude).setParameter("maxLongitude", maxLongitude).getResultList();
     }
 }
\ No newline at end of file
@@ -27,4 +27,10 @@ public class RestaurantItemDao {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    //To get the items of the restaurant paired with the id of each category they belong to, sorted by item name.
+    //Returns rows of [category id, ItemEntity] so that a whole menu is read in a single query.
+    public List<Object[]> getCategorisedItemsByRestaurant(RestaurantEntity restaurantEntity) {
+        return entityManager.createNamedQuery("getCategorisedItemsByRestaurant",Object[].class).setParameter("restaurant",restaurantEntity).getResultList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.service.common.RestaurantRating;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Writes the ratings of customers with plain JDBC batches, one statement per kind of change for any number of ratings. The
+//statements join the transaction of the caller, which has to hold the lock of lockRatings while it reads and writes ratings
+@Repository
+public class RestaurantRatingDao {
+
+    // Key of the PostgreSQL advisory lock taken by the writers of RESTAURANT_RATING
+    private static final long RATINGS_LOCK_KEY = 0x52415449L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //Wait for the writers of ratings of other instances to commit, and keep them waiting until the current transaction ends
+    public void lockRatings() {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + RATINGS_LOCK_KEY + ")");
+    }
+
+    //Return the stored ratings of the customer and restaurant pairs of the given ratings, of the pairs that have one
+    public List<RestaurantRating> getRatings(Collection<RestaurantRating> ratings) {
+        Set<Integer> customerIds = new LinkedHashSet<>();
+        Set<Integer> restaurantIds = new LinkedHashSet<>();
+        for (RestaurantRating rating : ratings) {
+            customerIds.add(rating.getCustomerId());
+            restaurantIds.add(rating.getRestaurantId());
+        }
+        //Every pair is among the combinations of the customers and the restaurants, the others are dropped by the caller
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT customer_id, restaurant_id, rating, rated_at FROM RESTAURANT_RATING"
+                    + " WHERE customer_id = ANY(?) AND restaurant_id = ANY(?)");
+            Array customerIdArray = connection.createArrayOf("integer", customerIds.toArray());
+            Array restaurantIdArray = connection.createArrayOf("integer", restaurantIds.toArray());
+            statement.setArray(1, customerIdArray);
+            statement.setArray(2, restaurantIdArray);
+            return statement;
+        }, (resultSet, rowNum) -> new RestaurantRating(resultSet.getInt("customer_id"), resultSet.getInt("restaurant_id"),
+                resultSet.getBigDecimal("rating"), resultSet.getTimestamp("rated_at")));
+    }
+
+    //Insert the ratings of customers who did not rate the restaurant before, in one batch. Ratings of customers or restaurants
+    //deleted since they were given are skipped. Returns the number of rows inserted for every rating, in the given order
+    public int[] insertRatings(List<RestaurantRating> ratings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (RestaurantRating rating : ratings) {
+            rows.add(new Object[] {rating.getCustomerId(), rating.getRestaurantId(), rating.getRating(), new Timestamp(rating.getRatedAt().getTime()),
+                    rating.getCustomerId(), rating.getRestaurantId()});
+        }
+        return jdbcTemplate.batchUpdate("INSERT INTO RESTAURANT_RATING(customer_id, restaurant_id, rating, rated_at) SELECT ?, ?, ?, ?"
+                + " WHERE EXISTS (SELECT 1 FROM CUSTOMER WHERE id = ?) AND EXISTS (SELECT 1 FROM RESTAURANT WHERE id = ?)", rows);
+    }
+
+    //Replace the ratings of customers who rated the restaurant before, in one batch. Returns the number of rows updated for
+    //every rating, in the given order
+    public int[] updateRatings(List<RestaurantRating> ratings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (RestaurantRating rating : ratings) {
+            rows.add(new Object[] {rating.getRating(), new Timestamp(rating.getRatedAt().getTime()), rating.getCustomerId(), rating.getRestaurantId()});
+        }
+        return jdbcTemplate.batchUpdate("UPDATE RESTAURANT_RATING SET rating = ?, rated_at = ? WHERE customer_id = ? AND restaurant_id = ?", rows);
+    }
+
+    //Add to the sum and the number of ratings behind the average rating of every restaurant, in one batch. The change of the
+    //sum is keyed by restaurant id, as is the number of ratings added, which may be 0 when only existing ratings changed
+    public void addToRestaurantRatings(Map<Integer, BigDecimal> ratingSumChanges, Map<Integer, Integer> addedRatingCounts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Integer, BigDecimal> sumChange : ratingSumChanges.entrySet()) {
+            Integer addedCount = addedRatingCounts.getOrDefault(sumChange.getKey(), 0);
+            rows.add(new Object[] {sumChange.getValue(), addedCount, addedCount, sumChange.getKey()});
+        }
+        //A restaurant without ratings only has ratings added, the lower bound of the divisor is never reached by valid data
+        jdbcTemplate.batchUpdate("UPDATE RESTAURANT SET customer_rating = (customer_rating * number_of_customers_rated + ?)"
+                + " / GREATEST(number_of_customers_rated + ?, 1), number_of_customers_rated = number_of_customers_rated + ? WHERE id = ?", rows);
+    }
+}
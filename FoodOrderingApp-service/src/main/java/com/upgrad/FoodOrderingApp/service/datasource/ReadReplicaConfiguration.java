@@ -0,0 +1,83 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the data source of spring.datasource with one that sends read-only transactions to a
+ * replica, when food-ordering-app.datasource.replica.url is set. The replica is connected to with
+ * the credentials of the primary unless its own are given. Without a replica the application uses
+ * the primary alone, as configured by Spring Boot.
+ *
+ * <p>With a replica, Hibernate sessions give back their connection at the end of every transaction
+ * rather than holding it until they are closed, as Spring configures them to. With
+ * open-session-in-view a session lasts the whole request, so a write made after a read-only
+ * transaction of the request would otherwise go to the replica.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "food-ordering-app.datasource.replica", name = "url")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "food-ordering-app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(final DataSourceProperties properties,
+            @Value("${food-ordering-app.datasource.replica.url}") final String url,
+            @Value("${food-ordering-app.datasource.replica.username:}") final String username,
+            @Value("${food-ordering-app.datasource.replica.password:}") final String password) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setJdbcUrl(url);
+        replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+        replica.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") final HikariDataSource replicaDataSource,
+            @Value("${food-ordering-app.datasource.replica.max-lag-ms:1000}") final long maxLagMillis,
+            @Value("${food-ordering-app.datasource.replica.lag-check-interval-ms:1000}") final long lagCheckIntervalMillis) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLagMillis, lagCheckIntervalMillis);
+    }
+
+    // The data source used by JPA and JDBC, connections are taken from the router on their first statement.
+    // The router is resolved lazily, as Spring Boot initializes every data source bean with this one.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Lazy final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Given the defaults of the connections, the proxy does not open one to read them
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
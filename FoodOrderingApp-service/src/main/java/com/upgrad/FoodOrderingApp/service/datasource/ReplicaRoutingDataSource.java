@@ -0,0 +1,114 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to a replica of the database and all other
+ * connections to the primary.
+ *
+ * <p>The replica is only used while it keeps up with the primary. Its replay lag is measured on a
+ * thread of its own, so that the check is not delayed by the index rebuilds on the shared scheduler
+ * thread, and read-only transactions go to the primary as long as the lag exceeds the allowed
+ * staleness or cannot be measured. Reads made outside of a transaction, including those of
+ * read-only methods that merely support one, always go to the primary.
+ *
+ * <p>Transactions are routed by the read-only flag Spring sets when it synchronizes a transaction,
+ * which happens after the transaction manager has taken a connection. This data source has to be
+ * wrapped in a LazyConnectionDataSourceProxy, which takes the connection on the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  private static final String PRIMARY = "primary";
+  private static final String REPLICA = "replica";
+
+  // Seconds since the last replayed transaction, or 0 when everything received has been replayed
+  private static final String REPLAY_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+      + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+  private final HikariDataSource replica;
+  private final long maxLagMillis;
+  private final long lagCheckIntervalMillis;
+
+  private volatile boolean replicaInSync;
+
+  private ScheduledThreadPoolExecutor lagCheckExecutor;
+
+  public ReplicaRoutingDataSource(final HikariDataSource primary, final HikariDataSource replica, final long maxLagMillis,
+      final long lagCheckIntervalMillis) {
+    this.replica = replica;
+    this.maxLagMillis = maxLagMillis;
+    this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    targets.put(REPLICA, replica);
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+        && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    return readOnly && replicaInSync ? REPLICA : PRIMARY;
+  }
+
+  @PostConstruct
+  void startLagCheckExecutor() {
+    lagCheckExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-check");
+      thread.setDaemon(true);
+      return thread;
+    });
+    lagCheckExecutor.scheduleWithFixedDelay(this::checkReplicaLag, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stopLagCheckExecutor() {
+    lagCheckExecutor.shutdownNow();
+  }
+
+  /**
+   * Measures the replay lag of the replica and decides whether read-only transactions may use it.
+   *
+   * @return true if read-only transactions are sent to the replica
+   */
+  public boolean checkReplicaLag() {
+    boolean inSync;
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(REPLAY_LAG_QUERY)) {
+      resultSet.next();
+      double lagMillis = resultSet.getDouble(1) * 1000;
+      inSync = lagMillis <= maxLagMillis;
+      if (!inSync && replicaInSync) {
+        LOGGER.warn("Replica is {} ms behind the primary, reading from the primary", (long) lagMillis);
+      }
+    } catch (SQLException | RuntimeException e) {
+      inSync = false;
+      if (replicaInSync) {
+        LOGGER.warn("Replica lag check failed, reading from the primary: {}", e.getMessage());
+      }
+    }
+    if (inSync && !replicaInSync) {
+      LOGGER.info("Replica is in sync, read-only transactions read from the replica");
+    }
+    replicaInSync = inSync;
+    return inSync;
+  }
+}
@@ -1,6 +1,8 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -19,12 +21,15 @@ import java.io.Serializable;
 
         @NamedQuery(name = "getAddressByUuid",query = "SELECT a from AddressEntity a where a.uuid = :uuid"),
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.address")
 public class AddressEntity implements Serializable {
 
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id_generator")
+    @SequenceGenerator(name = "address_id_generator", sequenceName = "address_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "uuid")
@@ -51,6 +56,13 @@ public class AddressEntity implements Serializable {
     @Column(name = "active")
     private Integer active = 1;
 
+    //Coordinates in degrees, WGS 84, left empty when the address was not located
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "state_id")
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -125,6 +137,22 @@ public class AddressEntity implements Serializable {
         this.active = active;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public StateEntity getState() {
         return state;
     }
@@ -3,6 +3,7 @@ package com.upgrad.FoodOrderingApp.service.entity;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -13,16 +14,25 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 
 @Entity
 @Table(name="category")
 @NamedQueries({
     @NamedQuery(name = "allCategories", query = "select q from CategoryEntity q"),
-    @NamedQuery(name = "categoryByUuid", query = "select q from CategoryEntity q where q.uuid=:uuid")
+    @NamedQuery(name = "categoryByUuid", query = "select q from CategoryEntity q where q.uuid=:uuid"),
+    @NamedQuery(name = "categoriesByRestaurant", query = "select q from CategoryEntity q join q.restaurants r where r = :restaurant",
+            hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.menu")}),
+    @NamedQuery(name = "categoryNamesByRestaurantIds", query = "select r.id, q.categoryName from CategoryEntity q join q.restaurants r where r.id in :restaurantIds")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category")
 public class CategoryEntity implements Serializable {
 
     @Id
@@ -39,11 +49,13 @@ public class CategoryEntity implements Serializable {
     @Size(max = 255)
     private String categoryName;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category.items")
     @ManyToMany
     @JoinTable(name = "category_item", joinColumns = @JoinColumn(name = "category_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id"))
     private List<ItemEntity> items = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category.restaurants")
     @ManyToMany
     @JoinTable(name = "restaurant_category", joinColumns = @JoinColumn(name = "category_id"),
             inverseJoinColumns = @JoinColumn(name = "restaurant_id"))
@@ -1,5 +1,6 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -10,13 +11,18 @@ import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "coupon")
 @NamedQueries({
     @NamedQuery(name = "couponByCouponName", query = "select c from CouponEntity c where c.couponName = :couponName"),
-    @NamedQuery(name = "couponByUUID", query = "select c from CouponEntity c where c.uuid = :couponUUID")
+    @NamedQuery(name = "couponByUUID", query = "select c from CouponEntity c where c.uuid = :couponUUID"),
+    @NamedQuery(name = "allCoupons", query = "select c from CouponEntity c order by c.id")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.coupon")
 public class CouponEntity {
 
     @Id
@@ -19,7 +19,8 @@ public class CustomerAddressEntity implements Serializable {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_address_id_generator")
+    @SequenceGenerator(name = "customer_address_id_generator", sequenceName = "customer_address_id_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.EAGER)
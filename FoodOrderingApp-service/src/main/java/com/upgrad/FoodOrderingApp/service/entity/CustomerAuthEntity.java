@@ -15,13 +15,16 @@ import java.time.ZonedDateTime;
 @Table(name = "customer_auth")
 @NamedQueries({
         @NamedQuery(name = "customerAuthTokenByAccessToken",
-                query = "select ct from CustomerAuthEntity ct where ct.accessToken =:accessToken")
+                query = "select ct from CustomerAuthEntity ct where ct.accessToken =:accessToken"),
+        @NamedQuery(name = "accessTokensLoggedOutSince",
+                query = "select ct.accessToken from CustomerAuthEntity ct where ct.logoutAt >= :since")
 })
 public class CustomerAuthEntity implements Serializable {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_auth_id_generator")
+    @SequenceGenerator(name = "customer_auth_id_generator", sequenceName = "customer_auth_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "uuid")
@@ -104,14 +107,21 @@ public class CustomerAuthEntity implements Serializable {
         this.logoutAt = logoutAt;
     }
 
+    // By the uuid, which is assigned before the entity is persisted and never changes
     @Override
     public boolean equals(Object obj) {
-        return new EqualsBuilder().append(this, obj).isEquals();
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CustomerAuthEntity)) {
+            return false;
+        }
+        return new EqualsBuilder().append(getUuid(), ((CustomerAuthEntity) obj).getUuid()).isEquals();
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(this).hashCode();
+        return new HashCodeBuilder().append(getUuid()).toHashCode();
     }
 
     @Override
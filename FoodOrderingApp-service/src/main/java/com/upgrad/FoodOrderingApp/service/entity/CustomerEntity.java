@@ -131,14 +131,21 @@ public class CustomerEntity implements Serializable {
     }
 
 
+    // By the uuid, which is assigned before the entity is persisted and never changes
     @Override
     public boolean equals(Object obj) {
-        return new EqualsBuilder().append(this, obj).isEquals();
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CustomerEntity)) {
+            return false;
+        }
+        return new EqualsBuilder().append(getUuid(), ((CustomerEntity) obj).getUuid()).isEquals();
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(this).hashCode();
+        return new HashCodeBuilder().append(getUuid()).toHashCode();
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.upgrad.FoodOrderingApp.service.common.ItemType;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -14,17 +15,29 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 
 
 
 @Entity
 @Table(name = "item")
 @NamedQueries({
-        @NamedQuery(name = "itemByUUID", query = "select q from ItemEntity q where q.uuid = :uuid")
+        @NamedQuery(name = "itemByUUID", query = "select q from ItemEntity q where q.uuid = :itemUUID",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.menu")}),
+        @NamedQuery(name = "itemsByUUIDs", query = "select q from ItemEntity q where q.uuid in :itemUUIDs"),
+        @NamedQuery(name = "itemsByPopularity", query = "select q from OrderItemEntity oi join oi.item q where oi.order.restaurant = :restaurant"
+            + " group by q.id, q.uuid, q.itemName, q.price, q.type order by sum(oi.quantity) desc,"
+            + " collate_c(q.itemName) asc, q.id asc"),
+        @NamedQuery(name = "itemsByIds", query = "select q from ItemEntity q where q.id in :ids")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.item")
 public class ItemEntity implements Serializable {
 
     @Id
@@ -50,11 +63,13 @@ public class ItemEntity implements Serializable {
     @Size(max = 10)
     private ItemType type;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.item.categories")
     @ManyToMany
     @JoinTable(name = "category_item", joinColumns = @JoinColumn(name = "item_id"),
         inverseJoinColumns = @JoinColumn(name = "category_id"))
     private List<CategoryEntity> categories = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.item.restaurants")
     @ManyToMany
     @JoinTable(name = "restaurant_item", joinColumns = @JoinColumn(name = "item_id"),
         inverseJoinColumns = @JoinColumn(name = "restaurant_id"))
@@ -1,6 +1,8 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -10,6 +12,9 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.OneToMany;
+import javax.persistence.OrderBy;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
@@ -21,7 +26,12 @@ import org.hibernate.annotations.OnDeleteAction;
 @Entity
 @Table(name = "orders",uniqueConstraints = {@UniqueConstraint(columnNames = {"uuid"})})
 @NamedQueries({
-    @NamedQuery(name = "pastOrdersByCustomerUUID", query = "select o from OrderEntity o where o.customer.uuid = :customerUUID order by o.date desc"),
+    @NamedQuery(name = "pastOrdersByCustomerUUIDAfter", query = "select o from OrderEntity o join fetch o.customer c"
+        + " join fetch o.address a left join fetch a.state left join fetch o.coupon left join fetch o.payment"
+        + " join fetch o.restaurant r join fetch r.address ra left join fetch ra.state where c.uuid = :customerUUID"
+        + " and (o.date < :date or (o.date = :date and o.id < :id)) order by o.date desc, o.id desc"),
+    @NamedQuery(name = "orderItemsOfOrders", query = "select o from OrderEntity o left join fetch o.orderItems i"
+        + " left join fetch i.item where o in :orders"),
     @NamedQuery(name = "getOrdersByCustomers", query = "SELECT o FROM OrderEntity o WHERE o.customer = :customer ORDER BY o.date DESC "),
     @NamedQuery(name = "getOrdersByRestaurant", query = "SELECT o FROM OrderEntity o WHERE o.restaurant = :restaurant"),
     @NamedQuery(name = "getOrdersByAddress", query = "SELECT o FROM OrderEntity o WHERE o.address = :address")
@@ -30,7 +40,8 @@ public class OrderEntity {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_generator")
+    @SequenceGenerator(name = "orders_id_generator", sequenceName = "orders_id_seq", allocationSize = 50)
     private Integer id;
 
   @Column(name = "uuid", unique = true)
@@ -74,6 +85,10 @@ public class OrderEntity {
     @JoinColumn(name = "restaurant_id")
     private RestaurantEntity restaurant;
 
+  @OneToMany(mappedBy = "order")
+  @OrderBy("id")
+  private List<OrderItemEntity> orderItems = new ArrayList<>();
+
   public OrderEntity() {
     }
 
@@ -171,4 +186,12 @@ public class OrderEntity {
     public void setRestaurant(RestaurantEntity restaurant) {
         this.restaurant = restaurant;
     }
+
+  public List<OrderItemEntity> getOrderItems() {
+    return orderItems;
+  }
+
+  public void setOrderItems(List<OrderItemEntity> orderItems) {
+    this.orderItems = orderItems;
+  }
 }
\ No newline at end of file
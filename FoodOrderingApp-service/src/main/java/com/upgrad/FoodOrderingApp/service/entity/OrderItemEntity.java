@@ -9,6 +9,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import org.hibernate.annotations.OnDelete;
@@ -17,13 +18,16 @@ import org.hibernate.annotations.OnDeleteAction;
 @Entity
 @Table(name = "ORDER_ITEM")
 @NamedQueries({
-    @NamedQuery(name = "itemsByOrderId", query = "select o from OrderItemEntity o where o.order.id = :id")
+    @NamedQuery(name = "itemQuantitiesByRestaurant", query = "select o.order.restaurant.id, i.id, i.itemName, sum(o.quantity)"
+        + " from OrderItemEntity o join o.item i group by o.order.restaurant.id, i.id, i.itemName"
+        + " order by o.order.restaurant.id, sum(o.quantity) desc, collate_c(i.itemName), i.id")
 })
 public class OrderItemEntity {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_id_generator")
+    @SequenceGenerator(name = "order_item_id_generator", sequenceName = "order_item_id_seq", allocationSize = 50)
     private Integer id;
 
   @ManyToOne
@@ -1,5 +1,8 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -10,13 +13,32 @@ import java.util.List;
 
 @Entity
 @Table(name = "restaurant")
+// The listings by rating continue after the rating and id of the last restaurant a client saw. The rating is not
+// stable, a restaurant rated between two pages moves across that position and is skipped or returned again
 @NamedQueries(
         {
-                @NamedQuery(name = "allRestaurantsByRating", query = "select q from RestaurantEntity q order by q.customerRating desc"),
-                @NamedQuery(name = "restaurantByUUID", query = "select q from RestaurantEntity q where q.uuid = :uuid"),
-                @NamedQuery(name = "getRestaurantsByName", query = "select r from RestaurantEntity r where LOWER(r.restaurantName) like:restaurantName")
+                @NamedQuery(name = "restaurantsByRatingAfter", query = "select q from RestaurantEntity q join fetch q.address a join fetch a.state"
+                        + " where q.customerRating < :rating or (q.customerRating = :rating and q.id > :id) order by q.customerRating desc, q.id",
+                        hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.restaurants")}),
+                @NamedQuery(name = "restaurantByUUID", query = "select q from RestaurantEntity q where q.uuid = :uuid",
+                        hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.restaurants")}),
+                @NamedQuery(name = "restaurantsByNameAfter", query = "select r from RestaurantEntity r join fetch r.address a join fetch a.state where LOWER(r.restaurantName) like :restaurantName"
+                        + " and (r.customerRating < :rating or (r.customerRating = :rating and r.id > :id)) order by r.customerRating desc, r.id"),
+                @NamedQuery(name = "restaurantsByCategoryUuidAfter", query = "select r from RestaurantEntity r join fetch r.address a join fetch a.state join r.categories c where c.uuid = :categoryId"
+                        + " and (r.customerRating < :rating or (r.customerRating = :rating and r.id > :id)) order by r.customerRating desc, r.id",
+                        hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.restaurants")}),
+                @NamedQuery(name = "restaurantsByIds", query = "select r from RestaurantEntity r join fetch r.address a join fetch a.state where r.id in :ids"),
+                @NamedQuery(name = "restaurantNames", query = "select r.id, r.restaurantName from RestaurantEntity r"),
+                @NamedQuery(name = "restaurantLocations", query = "select r.id, a.latitude, a.longitude from RestaurantEntity r join r.address a"
+                        + " where a.latitude is not null and a.longitude is not null"),
+                @NamedQuery(name = "restaurantLocationsInBox", query = "select r.id, a.latitude, a.longitude from RestaurantEntity r join r.address a"
+                        + " where a.latitude between :minLatitude and :maxLatitude and a.longitude between :minLongitude and :maxLongitude"),
+                @NamedQuery(name = "restaurantCategoryNames", query = "select r.id, c.categoryName from RestaurantEntity r join r.categories c"),
+                @NamedQuery(name = "restaurantItemNames", query = "select r.id, i.itemName from RestaurantEntity r join r.items i")
         }
 )
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.restaurant")
 public class RestaurantEntity implements Serializable {
 
     @Id
@@ -55,11 +77,13 @@ public class RestaurantEntity implements Serializable {
     @NotNull
     private AddressEntity address;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.restaurant.categories")
     @ManyToMany
     @JoinTable(name = "restaurant_category", joinColumns = @JoinColumn(name = "restaurant_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
     private List<CategoryEntity> categories = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.restaurant.items")
     @ManyToMany
     @JoinTable(name = "restaurant_item", joinColumns = @JoinColumn(name = "restaurant_id"),
             inverseJoinColumns = @JoinColumn(name = "item_id"))
@@ -117,6 +141,11 @@ public class RestaurantEntity implements Serializable {
         return customerRating.doubleValue();
     }
 
+    // The rating exactly as stored, pages continue from it by comparing with the column
+    public BigDecimal getExactCustomerRating() {
+        return customerRating;
+    }
+
     public void setCustomerRating(Double customerRating) {
         this.customerRating = new BigDecimal(customerRating);
     }
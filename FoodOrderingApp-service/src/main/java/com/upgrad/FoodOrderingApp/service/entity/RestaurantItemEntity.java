@@ -1,8 +1,11 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.QueryHints;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -14,8 +17,13 @@ import java.io.Serializable;
 @Entity
 @Table(name = "restaurant_item")
 @NamedQueries({
-        @NamedQuery(name = "getItemsByRestaurant",query = "SELECT r FROM RestaurantItemEntity r WHERE r.restaurant = :restaurant ORDER BY LOWER(r.item.itemName) ASC "),
+        @NamedQuery(name = "getItemsByRestaurant",query = "SELECT r FROM RestaurantItemEntity r WHERE r.restaurant = :restaurant ORDER BY LOWER(r.item.itemName) ASC ",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.menu")}),
+        @NamedQuery(name = "getCategorisedItemsByRestaurant",query = "SELECT c.category.id, i FROM RestaurantItemEntity r JOIN r.item i, CategoryItemEntity c WHERE r.restaurant = :restaurant AND c.item = i ORDER BY LOWER(i.itemName) ASC ",
+                hints = {@QueryHint(name = QueryHints.CACHEABLE, value = "true"), @QueryHint(name = QueryHints.CACHE_REGION, value = "query.menu")}),
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.restaurantItem")
 public class RestaurantItemEntity implements Serializable {
 
     @Id
@@ -0,0 +1,34 @@
+package com.upgrad.FoodOrderingApp.service.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Checks of the email, contact number and password a customer signs up or changes the password
+ * with. The patterns are compiled once and are safe to share between threads.
+ */
+public final class CustomerValidator {
+
+  private static final Pattern EMAIL = Pattern.compile("^[A-Z0-9]+@[A-Z0-9]+\\.[A-Z0-9]{2,7}$",
+      Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern CONTACT_NUMBER = Pattern.compile("\\d{10}");
+
+  // At least 8 characters, with a digit, a lower case and an upper case letter and one of #@$%&*!^
+  private static final Pattern STRONG_PASSWORD = Pattern.compile(
+      "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^]).{8,}$");
+
+  private CustomerValidator() {
+  }
+
+  public static boolean isValidEmail(final String email) {
+    return email != null && EMAIL.matcher(email).matches();
+  }
+
+  public static boolean isValidContactNumber(final String contactNumber) {
+    return contactNumber != null && CONTACT_NUMBER.matcher(contactNumber).matches();
+  }
+
+  public static boolean isStrongPassword(final String password) {
+    return password != null && STRONG_PASSWORD.matcher(password).matches();
+  }
+}
@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 //This Class Provides various utilities.
 
@@ -91,5 +93,23 @@ public class UtilityProvider {
       throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
     }
   }
-}
 
+  /**
+   * Runs the action once the surrounding transaction commits, so that nothing is done for a
+   * transaction that rolls back, or right away outside of a transaction
+   *
+   * @param action The action to run after the commit
+   */
+  public static void runAfterCommit(final Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+}
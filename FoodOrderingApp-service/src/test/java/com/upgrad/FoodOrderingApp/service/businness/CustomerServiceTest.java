@@ -0,0 +1,182 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import java.time.ZonedDateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+// This class contains the test cases regarding the transactions around the password hashing of signup, login and
+// password change, and the sessions found in the session cache
+public class CustomerServiceTest {
+
+    private static final String CONTACT_NUMBER = "9876543210";
+
+    private CustomerDao mockCustomerDao;
+
+    private PasswordCryptographyProvider mockPasswordCryptographyProvider;
+
+    private PlatformTransactionManager mockTransactionManager;
+
+    private TokenRevocationList mockTokenRevocationList;
+
+    private CustomerService customerService;
+
+    private CustomerEntity customer;
+
+    @Before
+    public void setUp() throws Exception {
+        mockCustomerDao = mock(CustomerDao.class);
+        mockPasswordCryptographyProvider = mock(PasswordCryptographyProvider.class);
+        mockTransactionManager = mock(PlatformTransactionManager.class);
+        mockTokenRevocationList = mock(TokenRevocationList.class);
+        customerService = new CustomerService();
+        ReflectionTestUtils.setField(customerService, "customerDao", mockCustomerDao);
+        ReflectionTestUtils.setField(customerService, "passwordCryptographyProvider", mockPasswordCryptographyProvider);
+        ReflectionTestUtils.setField(customerService, "customerSessionCache", mock(CustomerSessionCache.class));
+        ReflectionTestUtils.setField(customerService, "tokenRevocationList", mockTokenRevocationList);
+        ReflectionTestUtils.setField(customerService, "transactionManager", mockTransactionManager);
+        customerService.initServerTokenProvider();
+
+        customer = new CustomerEntity();
+        customer.setUuid("customer-uuid");
+        customer.setFirstName("first");
+        customer.setEmail("customer@example.com");
+        customer.setContactNumber(CONTACT_NUMBER);
+        customer.setSalt("salt");
+        customer.setPassword("stored-hash");
+
+        when(mockTransactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(mockCustomerDao.getCustomerByContactNumber(CONTACT_NUMBER)).thenReturn(customer);
+        when(mockPasswordCryptographyProvider.matches("Secret#123", "salt", "stored-hash")).thenReturn(true);
+        when(mockPasswordCryptographyProvider.encrypt(anyString())).thenReturn(new String[]{"new-salt", "new-hash"});
+    }
+
+    //This test case passes when a login reads the customer and writes the session in two transactions and verifies the
+    // password between them.
+    @Test
+    public void shouldVerifyPasswordBetweenTransactionsOfLogin() throws Exception {
+        final CustomerAuthEntity customerAuth = customerService.authenticate(CONTACT_NUMBER, "Secret#123");
+        assertEquals(customer, customerAuth.getCustomer());
+
+        final InOrder inOrder = inOrder(mockTransactionManager, mockCustomerDao, mockPasswordCryptographyProvider);
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).getCustomerByContactNumber(CONTACT_NUMBER);
+        inOrder.verify(mockTransactionManager).commit(any());
+        inOrder.verify(mockPasswordCryptographyProvider).matches("Secret#123", "salt", "stored-hash");
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).createAuthToken(customerAuth);
+        inOrder.verify(mockTransactionManager).commit(any());
+        verify(mockPasswordCryptographyProvider, never()).encrypt(anyString());
+    }
+
+    //This test case passes when a hash below the minimum cost is replaced by one made before the session is written.
+    @Test
+    public void shouldRehashBetweenTransactionsOfLogin() throws Exception {
+        when(mockPasswordCryptographyProvider.needsRehash("stored-hash")).thenReturn(true);
+        customerService.authenticate(CONTACT_NUMBER, "Secret#123");
+
+        final InOrder inOrder = inOrder(mockTransactionManager, mockCustomerDao, mockPasswordCryptographyProvider);
+        inOrder.verify(mockTransactionManager).commit(any());
+        inOrder.verify(mockPasswordCryptographyProvider).encrypt("Secret#123");
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).updateCustomer(customer);
+        assertEquals("new-salt", customer.getSalt());
+        assertEquals("new-hash", customer.getPassword());
+    }
+
+    //This test case passes when a login of a contact number nobody signed up with hashes nothing.
+    @Test
+    public void shouldNotHashForUnknownContactNumber() throws Exception {
+        try {
+            customerService.authenticate("9999999999", "Secret#123");
+            fail();
+        } catch (AuthenticationFailedException e) {
+            assertEquals("ATH-001", e.getCode());
+        }
+        verify(mockPasswordCryptographyProvider, never()).matches(anyString(), anyString(), anyString());
+    }
+
+    //This test case passes when a signup checks the contact number and creates the customer in two transactions and
+    // hashes the password between them.
+    @Test
+    public void shouldHashPasswordBetweenTransactionsOfSignup() throws Exception {
+        final CustomerEntity newCustomer = new CustomerEntity();
+        newCustomer.setFirstName("first");
+        newCustomer.setEmail("customer@example.com");
+        newCustomer.setContactNumber("9876543211");
+        newCustomer.setPassword("Secret#123");
+        customerService.saveCustomer(newCustomer);
+
+        final InOrder inOrder = inOrder(mockTransactionManager, mockCustomerDao, mockPasswordCryptographyProvider);
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).getCustomerByContactNumber("9876543211");
+        inOrder.verify(mockTransactionManager).commit(any());
+        inOrder.verify(mockPasswordCryptographyProvider).encrypt("Secret#123");
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).createCustomer(newCustomer);
+        inOrder.verify(mockTransactionManager).commit(any());
+        assertEquals("new-hash", newCustomer.getPassword());
+    }
+
+    //This test case passes when a password change hashes both passwords before the one transaction writing the
+    // customer.
+    @Test
+    public void shouldHashPasswordsBeforeTransactionOfPasswordChange() throws Exception {
+        customerService.updateCustomerPassword("Secret#123", "Secret#456", customer);
+
+        final InOrder inOrder = inOrder(mockTransactionManager, mockCustomerDao, mockPasswordCryptographyProvider);
+        inOrder.verify(mockPasswordCryptographyProvider).matches("Secret#123", "salt", "stored-hash");
+        inOrder.verify(mockPasswordCryptographyProvider).encrypt("Secret#456");
+        inOrder.verify(mockTransactionManager).getTransaction(any());
+        inOrder.verify(mockCustomerDao).updateCustomer(customer);
+        inOrder.verify(mockTransactionManager).commit(any());
+        verify(mockTransactionManager, times(1)).getTransaction(any());
+        assertEquals("new-hash", customer.getPassword());
+    }
+
+    //This test case passes when a cached session is rejected once its token has been revoked by a logout on another
+    // instance, without waiting for the cached session to expire.
+    @Test
+    public void shouldRejectCachedSessionOfRevokedToken() throws Exception {
+        final CustomerSessionCache sessionCache = new CustomerSessionCache(10, 300);
+        ReflectionTestUtils.setField(customerService, "customerSessionCache", sessionCache);
+        customer.setId(5);
+        when(mockCustomerDao.getCustomerById(5)).thenReturn(customer);
+        final ZonedDateTime now = ZonedDateTime.now();
+        final String accessToken = new JwtTokenProvider("secret").generateToken("customer-uuid", now, now.plusHours(8));
+        final CustomerAuthEntity customerAuth = new CustomerAuthEntity();
+        customerAuth.setCustomer(customer);
+        customerAuth.setAccessToken(accessToken);
+        customerAuth.setExpiresAt(now.plusHours(8));
+        sessionCache.put(customerAuth);
+        assertEquals(customer, customerService.getCustomer(accessToken));
+
+        when(mockTokenRevocationList.isRevoked(sessionCache.get(accessToken).getKeyId())).thenReturn(true);
+        try {
+            customerService.getCustomer(accessToken);
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-002", e.getCode());
+        }
+        verify(mockCustomerDao, never()).getCustomerByToken(anyString());
+    }
+}
@@ -0,0 +1,230 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.dao.OrderDao;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
+import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// This class contains the test cases regarding the in-memory item popularity counters
+public class ItemPopularityTrackerTest {
+
+    private static final int RESTAURANT_ID = 7;
+
+    private OrderDao mockOrderDao;
+
+    private ItemPopularityTracker tracker;
+
+    private final Map<Integer, String> itemNames = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        mockOrderDao = mock(OrderDao.class);
+        tracker = new ItemPopularityTracker();
+        ReflectionTestUtils.setField(tracker, "orderDao", mockOrderDao);
+        ReflectionTestUtils.setField(tracker, "topK", 3);
+    }
+
+    //This test case passes when the quantities added to a key are summed and a missing key reads 0.
+    @Test
+    public void shouldSumQuantitiesOfKey() {
+        final ItemPopularityTracker.IntLongMap map = new ItemPopularityTracker.IntLongMap();
+        assertEquals(0L, map.get(5));
+        assertEquals(3L, map.addTo(5, 3));
+        assertEquals(7L, map.addTo(5, 4));
+        assertEquals(7L, map.get(5));
+        assertEquals(1, map.size());
+    }
+
+    //This test case passes when the map keeps every counter while it grows far beyond its initial capacity.
+    @Test
+    public void shouldKeepAllCountersWhileGrowing() {
+        final ItemPopularityTracker.IntLongMap map = new ItemPopularityTracker.IntLongMap();
+        for (int key = 1; key <= 10000; key++) {
+            map.addTo(key, key);
+        }
+        assertEquals(10000, map.size());
+        assertTrue(map.keys.length * 3 > 10000 * 4);
+        for (int key = 1; key <= 10000; key++) {
+            assertEquals(key, map.get(key));
+        }
+    }
+
+    //This test case passes when keys hashing to the same slot are kept apart.
+    @Test
+    public void shouldKeepCollidingKeysApart() {
+        final ItemPopularityTracker.IntLongMap map = new ItemPopularityTracker.IntLongMap();
+        final List<Integer> colliding = new ArrayList<>();
+        for (int key = 1; colliding.size() < 8; key++) {
+            if ((ItemPopularityTracker.IntLongMap.mix(key) & 15) == (ItemPopularityTracker.IntLongMap.mix(1) & 15)) {
+                colliding.add(key);
+            }
+        }
+        for (int i = 0; i < colliding.size(); i++) {
+            map.addTo(colliding.get(i), i + 1);
+        }
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals(i + 1, map.get(colliding.get(i)));
+        }
+        assertEquals(0L, map.get(colliding.get(colliding.size() - 1) + 1));
+    }
+
+    //This test case passes when the most ordered items are listed most ordered first and the limit is respected.
+    @Test
+    public void shouldListMostOrderedItemsFirst() {
+        final ItemPopularityTracker.RestaurantPopularity popularity = popularity(3, "a", "b", "c", "d", "e");
+        popularity.add(1, 5);
+        popularity.add(2, 9);
+        popularity.add(3, 1);
+        popularity.add(4, 7);
+        popularity.add(5, 2);
+        assertEquals(Arrays.asList(2, 4, 1), popularity.topItemIds(3));
+        assertEquals(Arrays.asList(2, 4), popularity.topItemIds(2));
+    }
+
+    //This test case passes when an item overtaking the least ordered item of a full heap evicts it, and an item only
+    // reaching its quantity does not unless its name comes first.
+    @Test
+    public void shouldEvictAtBoundaryOnlyWhenOvertaken() {
+        final ItemPopularityTracker.RestaurantPopularity popularity = popularity(2, "Burger", "Pizza", "Tacos", "Apple pie");
+        popularity.add(1, 4);
+        popularity.add(2, 3);
+        popularity.add(3, 3);
+        assertEquals(Arrays.asList(1, 2), popularity.topItemIds(2));
+        popularity.add(4, 3);
+        assertEquals(Arrays.asList(1, 4), popularity.topItemIds(2));
+        popularity.add(3, 2);
+        assertEquals(Arrays.asList(3, 1), popularity.topItemIds(2));
+    }
+
+    //This test case passes when items ordered equally often are ranked by name as in the itemsByPopularity query.
+    @Test
+    public void shouldRankTiesByName() {
+        final ItemPopularityTracker.RestaurantPopularity popularity = popularity(3, "Samosa", "Dosa", "Idli", "Vada");
+        popularity.add(1, 2);
+        popularity.add(2, 2);
+        popularity.add(3, 2);
+        popularity.add(4, 2);
+        assertEquals(Arrays.asList(2, 3, 1), popularity.topItemIds(3));
+    }
+
+    //This test case passes when names of ties are compared as in the C collation, capitals first and characters
+    // beyond the basic plane after all others.
+    @Test
+    public void shouldRankTiesByNameInCCollation() {
+        final ItemPopularityTracker.RestaurantPopularity popularity = popularity(4,
+                "dosa", "🍛 curry", "Dosa", "！ special");
+        popularity.add(1, 2);
+        popularity.add(2, 2);
+        popularity.add(3, 2);
+        popularity.add(4, 2);
+        assertEquals(Arrays.asList(3, 1, 4, 2), popularity.topItemIds(4));
+    }
+
+    //This test case passes when an item of the heap losing quantity is replaced by the item ordered more often.
+    @Test
+    public void shouldRebuildHeapWhenQuantityDecreases() {
+        final ItemPopularityTracker.RestaurantPopularity popularity = popularity(2, "a", "b", "c");
+        popularity.add(1, 10);
+        popularity.add(2, 8);
+        popularity.add(3, 6);
+        popularity.add(1, -9);
+        assertEquals(Arrays.asList(2, 3), popularity.topItemIds(2));
+    }
+
+    //This test case passes when the tracker is loaded from the database and ranks ties as the database query does.
+    @Test
+    public void shouldLoadCountersFromDatabase() {
+        when(mockOrderDao.getItemQuantitiesByRestaurant()).thenReturn(Arrays.asList(
+                row(RESTAURANT_ID, 1, "Pizza", 4L), row(RESTAURANT_ID, 2, "Pasta", 4L), row(RESTAURANT_ID, 3, "Salad", 9L)));
+        assertNull(tracker.getTopItemIds(RESTAURANT_ID, 3));
+        tracker.reconcile();
+        assertEquals(Arrays.asList(3, 2, 1), tracker.getTopItemIds(RESTAURANT_ID, 3));
+        assertEquals(Collections.emptyList(), tracker.getTopItemIds(RESTAURANT_ID + 1, 3));
+        assertNull(tracker.getTopItemIds(RESTAURANT_ID, 4));
+    }
+
+    //This test case passes when the orders committed while the counters are loaded are counted in the loaded counters.
+    @Test
+    public void shouldKeepOrdersCommittedDuringRebuild() {
+        when(mockOrderDao.getItemQuantitiesByRestaurant()).thenAnswer(invocation -> {
+            tracker.recordOrderItem(orderItem(RESTAURANT_ID, 2, "Pasta", 6));
+            return Collections.singletonList(row(RESTAURANT_ID, 1, "Pizza", 4L));
+        });
+        tracker.reconcile();
+        assertEquals(Arrays.asList(2, 1), tracker.getTopItemIds(RESTAURANT_ID, 3));
+    }
+
+    //This test case passes when the orders of other instances, which keep adding to the difference with the database,
+    // are counted by the second comparison.
+    @Test
+    public void shouldCountOrdersOfOtherInstances() {
+        when(mockOrderDao.getItemQuantitiesByRestaurant()).thenReturn(
+                Collections.singletonList(row(RESTAURANT_ID, 1, "Pizza", 1L)),
+                Collections.singletonList(row(RESTAURANT_ID, 1, "Pizza", 1L)),
+                Arrays.asList(row(RESTAURANT_ID, 1, "Pizza", 1L), row(RESTAURANT_ID, 2, "Pasta", 3L)),
+                Arrays.asList(row(RESTAURANT_ID, 1, "Pizza", 1L), row(RESTAURANT_ID, 2, "Pasta", 5L)),
+                Arrays.asList(row(RESTAURANT_ID, 1, "Pizza", 1L), row(RESTAURANT_ID, 2, "Pasta", 5L)));
+        tracker.reconcile();
+        tracker.reconcile();
+        tracker.reconcile();
+        assertEquals(Collections.singletonList(1), tracker.getTopItemIds(RESTAURANT_ID, 3));
+        tracker.reconcile();
+        assertEquals(Arrays.asList(2, 1), tracker.getTopItemIds(RESTAURANT_ID, 3));
+        tracker.reconcile();
+        tracker.recordOrderItem(orderItem(RESTAURANT_ID, 1, "Pizza", 5));
+        assertEquals(Arrays.asList(1, 2), tracker.getTopItemIds(RESTAURANT_ID, 3));
+    }
+
+    //This test case passes when only the part of a difference that two consecutive comparisons agree on is corrected.
+    @Test
+    public void shouldCorrectAgreedPartOfDrift() {
+        assertEquals(0L, ItemPopularityTracker.agreedDrift(null, 3));
+        assertEquals(3L, ItemPopularityTracker.agreedDrift(3L, 5));
+        assertEquals(2L, ItemPopularityTracker.agreedDrift(4L, 2));
+        assertEquals(-1L, ItemPopularityTracker.agreedDrift(-1L, -4));
+        assertEquals(0L, ItemPopularityTracker.agreedDrift(2L, -2));
+    }
+
+    private ItemPopularityTracker.RestaurantPopularity popularity(final int capacity, final String... names) {
+        for (int i = 0; i < names.length; i++) {
+            itemNames.put(i + 1, names[i]);
+        }
+        return new ItemPopularityTracker.RestaurantPopularity(capacity, itemNames);
+    }
+
+    private static Object[] row(final int restaurantId, final int itemId, final String itemName, final long quantity) {
+        return new Object[]{restaurantId, itemId, itemName, quantity};
+    }
+
+    private static OrderItemEntity orderItem(final int restaurantId, final int itemId, final String itemName,
+            final int quantity) {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        restaurantEntity.setId(restaurantId);
+        final OrderEntity orderEntity = new OrderEntity();
+        orderEntity.setRestaurant(restaurantEntity);
+        final ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setId(itemId);
+        itemEntity.setItemName(itemName);
+        final OrderItemEntity orderItemEntity = new OrderItemEntity();
+        orderItemEntity.setOrder(orderEntity);
+        orderItemEntity.setItem(itemEntity);
+        orderItemEntity.setQuantity(quantity);
+        return orderItemEntity;
+    }
+}
@@ -0,0 +1,153 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// This class contains the test cases regarding the hashing and verification of passwords
+public class PasswordCryptographyProviderTest {
+
+    private static final String SALT = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private PasswordCryptographyProvider provider;
+
+    @Before
+    public void setUp() {
+        provider = provider(2048);
+    }
+
+    @After
+    public void tearDown() {
+        provider.stopHashingExecutor();
+    }
+
+    //This test case passes when a hashed password is stored with its cost and matches the password it was made from only.
+    @Test
+    public void shouldMatchHashedPassword() throws Exception {
+        final String[] encrypted = provider.encrypt("Secret#123");
+        assertTrue(encrypted[1].startsWith("pbkdf2-sha512$2048$512$"));
+        assertTrue(provider.matches("Secret#123", encrypted[0], encrypted[1]));
+        assertFalse(provider.matches("Secret#124", encrypted[0], encrypted[1]));
+    }
+
+    //This test case passes when a hash made with another cost is verified with the cost stored in it.
+    @Test
+    public void shouldMatchHashOfOtherCost() throws Exception {
+        final String[] encrypted = provider.encrypt("Secret#123");
+        final PasswordCryptographyProvider other = provider(4096);
+        try {
+            assertTrue(other.matches("Secret#123", encrypted[0], encrypted[1]));
+        } finally {
+            other.stopHashingExecutor();
+        }
+    }
+
+    //This test case passes when a hash in the format without parameters is verified with the original cost and rehashed.
+    @Test
+    public void shouldMatchAndRehashLegacyHash() throws Exception {
+        final String legacyHash = legacyHash("Secret#123");
+        assertTrue(provider.matches("Secret#123", SALT, legacyHash));
+        assertFalse(provider.matches("Secret#124", SALT, legacyHash));
+        assertTrue(provider.needsRehash(legacyHash));
+    }
+
+    //This test case passes when only hashes below the minimum cost or with a shorter key are rehashed, whatever the cost
+    // of new hashes on this instance.
+    @Test
+    public void shouldRehashOnlyBelowMinimumCost() throws Exception {
+        assertFalse(provider.needsRehash("pbkdf2-sha512$1024$512$AB"));
+        assertFalse(provider.needsRehash("pbkdf2-sha512$65536$512$AB"));
+        assertTrue(provider.needsRehash("pbkdf2-sha512$512$512$AB"));
+        assertTrue(provider.needsRehash("pbkdf2-sha512$2048$256$AB"));
+        assertFalse(provider.needsRehash(provider.encrypt("Secret#123")[1]));
+    }
+
+    //This test case passes when a hash or salt that cannot be read fails the verification instead of throwing.
+    @Test
+    public void shouldNotMatchMalformedHash() throws Exception {
+        assertFalse(provider.matches("Secret#123", SALT, "pbkdf2-sha512$many$512$AB"));
+        assertFalse(provider.matches("Secret#123", SALT, "pbkdf2-sha512$2048$512"));
+        assertFalse(provider.matches("Secret#123", SALT, "pbkdf2-sha512$2048$512$"));
+        assertFalse(provider.matches("Secret#123", SALT, "pbkdf2-sha512$-1$512$AB"));
+        assertFalse(provider.matches("Secret#123", "not base64!", "pbkdf2-sha512$2048$512$AB"));
+        assertTrue(provider.needsRehash("pbkdf2-sha512$many$512$AB"));
+    }
+
+    //This test case passes when the calibrated cost is a power of two and not below the minimum.
+    @Test
+    public void shouldRoundCalibratedCost() {
+        final PasswordCryptographyProvider calibrated = provider(0);
+        try {
+            final int iterations = (Integer) ReflectionTestUtils.getField(calibrated, "iterations");
+            assertTrue(iterations >= 1000);
+            assertTrue(iterations == 1000 || Integer.bitCount(iterations) == 1);
+        } finally {
+            calibrated.stopHashingExecutor();
+        }
+    }
+
+    //This test case passes when a hash not done within the timeout is shed as busy instead of waited for.
+    @Test
+    public void shouldShedHashBeyondTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ThreadPoolExecutor hashingExecutor =
+                (ThreadPoolExecutor) ReflectionTestUtils.getField(provider, "hashingExecutor");
+        hashingExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ReflectionTestUtils.setField(provider, "timeoutMillis", 50L);
+        try {
+            provider.encrypt("Secret#123");
+            fail();
+        } catch (ServiceBusyException e) {
+            assertEquals("SVC-001", e.getCode());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1L, provider.getRejectedCount());
+        assertEquals(0, provider.getQueueDepth());
+    }
+
+    private static PasswordCryptographyProvider provider(final int iterations) {
+        final PasswordCryptographyProvider provider = new PasswordCryptographyProvider();
+        ReflectionTestUtils.setField(provider, "parallelism", 1);
+        ReflectionTestUtils.setField(provider, "queueSize", 4);
+        ReflectionTestUtils.setField(provider, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(provider, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(provider, "iterations", iterations);
+        ReflectionTestUtils.setField(provider, "keyLength", 512);
+        ReflectionTestUtils.setField(provider, "targetMillis", 5L);
+        ReflectionTestUtils.setField(provider, "minIterations", 1000);
+        provider.startHashingExecutor();
+        return provider;
+    }
+
+    // Hex of PBKDF2 with 1000 iterations and a 64 bit key, as stored before the format carried its cost
+    private static String legacyHash(final String password) throws Exception {
+        final byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512")
+                .generateSecret(new PBEKeySpec(password.toCharArray(), Base64.getDecoder().decode(SALT), 1000, 64))
+                .getEncoded();
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : key) {
+            hex.append(String.format("%02X", b));
+        }
+        assertEquals(16, hex.length());
+        return hex.toString();
+    }
+}
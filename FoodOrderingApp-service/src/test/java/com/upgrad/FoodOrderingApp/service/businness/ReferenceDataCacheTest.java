@@ -0,0 +1,144 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.CouponDao;
+import com.upgrad.FoodOrderingApp.service.dao.PaymentDao;
+import com.upgrad.FoodOrderingApp.service.dao.StateDao;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// This class contains the test cases regarding the snapshot of the reference tables and the announcement of its changes
+public class ReferenceDataCacheTest {
+
+    private StateDao mockStateDao;
+
+    private PaymentDao mockPaymentDao;
+
+    private CategoryDao mockCategoryDao;
+
+    private CouponDao mockCouponDao;
+
+    private ApplicationEventPublisher mockEventPublisher;
+
+    private ReferenceDataCache referenceDataCache;
+
+    @Before
+    public void setUp() {
+        mockStateDao = mock(StateDao.class);
+        mockPaymentDao = mock(PaymentDao.class);
+        mockCategoryDao = mock(CategoryDao.class);
+        mockCouponDao = mock(CouponDao.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        referenceDataCache = new ReferenceDataCache();
+        ReflectionTestUtils.setField(referenceDataCache, "stateDao", mockStateDao);
+        ReflectionTestUtils.setField(referenceDataCache, "paymentDao", mockPaymentDao);
+        ReflectionTestUtils.setField(referenceDataCache, "categoryDao", mockCategoryDao);
+        ReflectionTestUtils.setField(referenceDataCache, "couponDao", mockCouponDao);
+        ReflectionTestUtils.setField(referenceDataCache, "eventPublisher", mockEventPublisher);
+
+        when(mockStateDao.getAllStates()).thenReturn(Arrays.asList(state(1, "Goa"), state(2, "Kerala")));
+        when(mockPaymentDao.getAllPaymentMethods()).thenReturn(Collections.singletonList(payment(1, "UPI")));
+        when(mockCategoryDao.getAllCategories()).thenReturn(Arrays.asList(category(1, "Indian"), category(2, "Chinese")));
+        when(mockCouponDao.getAllCoupons()).thenReturn(Collections.singletonList(coupon(1, "FLAT10", 10)));
+    }
+
+    //This test case passes when the first load announces nothing, as nothing was cached from before it.
+    @Test
+    public void shouldNotAnnounceFirstLoad() {
+        assertTrue(referenceDataCache.refresh());
+        assertEquals(2, referenceDataCache.getStates().size());
+        verify(mockEventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    //This test case passes when a refresh reading the same rows, in whatever order, announces nothing.
+    @Test
+    public void shouldNotAnnounceUnchangedRefresh() {
+        referenceDataCache.refresh();
+        when(mockStateDao.getAllStates()).thenReturn(Arrays.asList(state(2, "Kerala"), state(1, "Goa")));
+        assertTrue(referenceDataCache.refresh());
+        verify(mockEventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    //This test case passes when a refresh finding a changed column of a row announces a change of the reference data.
+    @Test
+    public void shouldAnnounceChangedRow() {
+        referenceDataCache.refresh();
+        when(mockCouponDao.getAllCoupons()).thenReturn(Collections.singletonList(coupon(1, "FLAT10", 15)));
+        assertTrue(referenceDataCache.refresh());
+        verify(mockEventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+        assertEquals(Integer.valueOf(15), referenceDataCache.getCouponByName("FLAT10").getPercent());
+    }
+
+    //This test case passes when a refresh finding a row added or removed announces a change of the reference data.
+    @Test
+    public void shouldAnnounceAddedAndRemovedRows() {
+        referenceDataCache.refresh();
+        when(mockPaymentDao.getAllPaymentMethods()).thenReturn(Arrays.asList(payment(1, "UPI"), payment(2, "Cash")));
+        referenceDataCache.refresh();
+        when(mockCategoryDao.getAllCategories()).thenReturn(Collections.singletonList(category(1, "Indian")));
+        referenceDataCache.refresh();
+        verify(mockEventPublisher, times(2)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    //This test case passes when a failed refresh keeps the previous snapshot and announces nothing.
+    @Test
+    public void shouldKeepSnapshotOnFailedRefresh() {
+        referenceDataCache.refresh();
+        when(mockStateDao.getAllStates()).thenThrow(new IllegalStateException("Database unavailable"));
+        assertFalse(referenceDataCache.refresh());
+        assertEquals(2, referenceDataCache.getStates().size());
+        verify(mockEventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    private static StateEntity state(final int id, final String name) {
+        final StateEntity state = new StateEntity();
+        state.setId(id);
+        state.setStateUuid("state-" + id);
+        state.setStateName(name);
+        return state;
+    }
+
+    private static PaymentEntity payment(final int id, final String name) {
+        final PaymentEntity payment = new PaymentEntity();
+        payment.setId(id);
+        payment.setUuid("payment-" + id);
+        payment.setPaymentName(name);
+        return payment;
+    }
+
+    private static CategoryEntity category(final int id, final String name) {
+        final CategoryEntity category = new CategoryEntity();
+        category.setId(id);
+        category.setUuid("category-" + id);
+        category.setCategoryName(name);
+        return category;
+    }
+
+    private static CouponEntity coupon(final int id, final String name, final int percent) {
+        final CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setUuid("coupon-" + id);
+        coupon.setCouponName(name);
+        coupon.setPercent(percent);
+        return coupon;
+    }
+}
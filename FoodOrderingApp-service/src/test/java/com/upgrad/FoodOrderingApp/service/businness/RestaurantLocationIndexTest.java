@@ -0,0 +1,192 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// This class contains the test cases regarding the in-memory grid of restaurant locations
+public class RestaurantLocationIndexTest {
+
+    // Length of one degree of a great circle
+    private static final double DEGREE_KM = Math.PI * RestaurantLocationIndex.EARTH_RADIUS_KM / 180;
+
+    private static final double DELTA = 1e-9;
+
+    private RestaurantDao mockRestaurantDao;
+
+    private RestaurantLocationIndex locationIndex;
+
+    @Before
+    public void setUp() {
+        mockRestaurantDao = mock(RestaurantDao.class);
+        locationIndex = new RestaurantLocationIndex();
+        ReflectionTestUtils.setField(locationIndex, "restaurantDao", mockRestaurantDao);
+        when(mockRestaurantDao.getRestaurantLocations()).thenReturn(Arrays.asList(
+                row(1, 0.0, 179.95), row(2, 0.0, -179.95), row(3, 0.0, 170.0),
+                row(4, 89.99, 0.0), row(5, 89.99, 180.0), row(6, -89.99, 90.0)));
+    }
+
+    //This test case passes when the distance is the great circle distance, whichever way it is measured.
+    @Test
+    public void shouldMeasureGreatCircleDistance() {
+        assertEquals(0, RestaurantLocationIndex.distanceKm(12.97, 77.59, 12.97, 77.59), DELTA);
+        assertEquals(DEGREE_KM, RestaurantLocationIndex.distanceKm(0, 0, 1, 0), DELTA);
+        assertEquals(DEGREE_KM, RestaurantLocationIndex.distanceKm(0, 0, 0, 1), DELTA);
+        assertEquals(343.557, RestaurantLocationIndex.distanceKm(51.5074, -0.1278, 48.8566, 2.3522), 1e-3);
+        assertEquals(RestaurantLocationIndex.distanceKm(51.5074, -0.1278, 48.8566, 2.3522),
+                RestaurantLocationIndex.distanceKm(48.8566, 2.3522, 51.5074, -0.1278), DELTA);
+    }
+
+    //This test case passes when the distance is measured the short way across the 180th meridian and antipodes are
+    // half the circumference apart.
+    @Test
+    public void shouldMeasureDistanceAcrossAntimeridianAndToAntipode() {
+        assertEquals(0.2 * DEGREE_KM, RestaurantLocationIndex.distanceKm(0, 179.9, 0, -179.9), 1e-6);
+        assertEquals(180 * DEGREE_KM, RestaurantLocationIndex.distanceKm(0, 0, 0, 180), DELTA);
+        assertEquals(180 * DEGREE_KM, RestaurantLocationIndex.distanceKm(90, 0, -90, 0), DELTA);
+        assertEquals(0, RestaurantLocationIndex.distanceKm(90, 0, 90, 123), DELTA);
+    }
+
+    //This test case passes when the box widens the longitudes by the latitude of the circle farthest from the equator.
+    @Test
+    public void shouldBoxCircle() {
+        final double[] box = RestaurantLocationIndex.boundingBox(0, 10, DEGREE_KM);
+        final double longitudeDelta = 1 / Math.cos(Math.toRadians(1));
+        assertArrayEquals(new double[]{-1, 1, 10 - longitudeDelta, 10 + longitudeDelta}, box, DELTA);
+
+        final double[] northern = RestaurantLocationIndex.boundingBox(60, 10, DEGREE_KM);
+        assertArrayEquals(new double[]{59, 61}, Arrays.copyOf(northern, 2), DELTA);
+        assertEquals(1 / Math.cos(Math.toRadians(61)), northern[3] - 10, DELTA);
+    }
+
+    //This test case passes when every point on the circle of the radius lies in the box.
+    @Test
+    public void shouldContainCircleInBox() {
+        for (double[] centre : new double[][]{{0, 0}, {45, -120}, {-70, 30}, {88, 0}, {0, 179.5}}) {
+            final double[] box = RestaurantLocationIndex.boundingBox(centre[0], centre[1], 100);
+            for (int bearing = 0; bearing < 360; bearing += 5) {
+                final double[] point = destination(centre[0], centre[1], bearing, 100);
+                assertTrue(point[0] >= box[0] - DELTA && point[0] <= box[1] + DELTA);
+                assertTrue(point[1] >= box[2] - DELTA && point[1] <= box[3] + DELTA);
+            }
+        }
+    }
+
+    //This test case passes when a circle reaching a pole is clamped to it and spans all longitudes.
+    @Test
+    public void shouldClampBoxAtPoles() {
+        assertArrayEquals(new double[]{88.5, 90, -180, 180},
+                RestaurantLocationIndex.boundingBox(89.5, 10, DEGREE_KM), DELTA);
+        assertArrayEquals(new double[]{-90, -88.5, -180, 180},
+                RestaurantLocationIndex.boundingBox(-89.5, 10, DEGREE_KM), DELTA);
+        assertArrayEquals(new double[]{-90, 90, -180, 180},
+                RestaurantLocationIndex.boundingBox(0, 0, 100 * DEGREE_KM), DELTA);
+    }
+
+    //This test case passes when a circle crossing the 180th meridian spans all longitudes instead of wrapping the box.
+    @Test
+    public void shouldWidenBoxAtAntimeridian() {
+        assertArrayEquals(new double[]{-1, 1, -180, 180},
+                RestaurantLocationIndex.boundingBox(0, 179.5, DEGREE_KM), DELTA);
+        assertArrayEquals(new double[]{-1, 1, -180, 180},
+                RestaurantLocationIndex.boundingBox(0, -179.5, DEGREE_KM), DELTA);
+        assertTrue(RestaurantLocationIndex.boundingBox(0, 178.5, DEGREE_KM)[2] > 0);
+    }
+
+    //This test case passes when coordinates are put in the cell below them, negative ones included.
+    @Test
+    public void shouldIndexCellsDownwards() {
+        assertEquals(0, RestaurantLocationIndex.cellIndex(0));
+        assertEquals(0, RestaurantLocationIndex.cellIndex(0.049));
+        assertEquals(1, RestaurantLocationIndex.cellIndex(0.05));
+        assertEquals(-1, RestaurantLocationIndex.cellIndex(-0.001));
+        assertEquals(-3600, RestaurantLocationIndex.cellIndex(-180));
+        assertEquals(3600, RestaurantLocationIndex.cellIndex(180));
+    }
+
+    //This test case passes when no two cells around the origin and the edges of the map share a key.
+    @Test
+    public void shouldKeepCellKeysDistinct() {
+        final Set<Long> keys = new HashSet<>();
+        final int[] indices = {-3600, -1800, -2, -1, 0, 1, 2, 1800, 3600};
+        for (int latitudeIndex : indices) {
+            for (int longitudeIndex : indices) {
+                keys.add(RestaurantLocationIndex.cellKey(latitudeIndex, longitudeIndex));
+            }
+        }
+        assertEquals(indices.length * indices.length, keys.size());
+        assertNotEquals(RestaurantLocationIndex.cellKey(-1, 0), RestaurantLocationIndex.cellKey(0, -1));
+        assertNotEquals(RestaurantLocationIndex.cellKey(0, -1), RestaurantLocationIndex.cellKey(-1, -1));
+    }
+
+    //This test case passes when nothing is found before the grid is built.
+    @Test
+    public void shouldReturnNullBeforeBuild() {
+        assertNull(locationIndex.nearby(0, 179.99, 10));
+    }
+
+    //This test case passes when the grid finds the restaurants on both sides of the 180th meridian, nearest first.
+    @Test
+    public void shouldFindNearbyAcrossAntimeridian() {
+        assertTrue(locationIndex.rebuild());
+        assertEquals(Arrays.asList(1, 2), restaurantIds(locationIndex.nearby(0, 179.99, 10)));
+        assertEquals(Arrays.asList(2, 1), restaurantIds(locationIndex.nearby(0, -179.99, 10)));
+        assertEquals(Arrays.asList(1), restaurantIds(locationIndex.nearby(0, 179.99, 5)));
+    }
+
+    //This test case passes when the grid finds the restaurants around a pole on every side of it and not at the other.
+    @Test
+    public void shouldFindNearbyAroundPole() {
+        locationIndex.rebuild();
+        assertEquals(Arrays.asList(4, 5), restaurantIds(locationIndex.nearby(89.99, 90, 5)));
+        assertEquals(Arrays.asList(6), restaurantIds(locationIndex.nearby(-90, 0, 5)));
+    }
+
+    //This test case passes when the grid finds the same restaurants as the distance filter over all the rows.
+    @Test
+    public void shouldFindSameAsFilter() {
+        locationIndex.rebuild();
+        final List<Object[]> rows = mockRestaurantDao.getRestaurantLocations();
+        for (double radiusKm : new double[]{1, 10, 1200, 20000}) {
+            assertEquals(restaurantIds(RestaurantLocationIndex.within(rows, 0, 179.99, radiusKm)),
+                    restaurantIds(locationIndex.nearby(0, 179.99, radiusKm)));
+        }
+    }
+
+    // Point at a distance and initial bearing from a location, longitude normalised to [-180, 180]
+    private static double[] destination(final double latitude, final double longitude, final double bearing,
+                                        final double distanceKm) {
+        final double angle = distanceKm / RestaurantLocationIndex.EARTH_RADIUS_KM;
+        final double phi = Math.toRadians(latitude);
+        final double theta = Math.toRadians(bearing);
+        final double phi2 = Math.asin(Math.sin(phi) * Math.cos(angle)
+                + Math.cos(phi) * Math.sin(angle) * Math.cos(theta));
+        final double lambda2 = Math.toRadians(longitude) + Math.atan2(Math.sin(theta) * Math.sin(angle) * Math.cos(phi),
+                Math.cos(angle) - Math.sin(phi) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(phi2), (Math.toDegrees(lambda2) + 540) % 360 - 180};
+    }
+
+    private static List<Integer> restaurantIds(final List<RestaurantLocationIndex.Match> matches) {
+        final List<Integer> restaurantIds = new ArrayList<>();
+        matches.forEach(match -> restaurantIds.add(match.getRestaurantId()));
+        return restaurantIds;
+    }
+
+    private static Object[] row(final int restaurantId, final double latitude, final double longitude) {
+        return new Object[]{restaurantId, latitude, longitude};
+    }
+}
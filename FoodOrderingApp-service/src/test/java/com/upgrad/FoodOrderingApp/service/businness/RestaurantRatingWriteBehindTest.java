@@ -0,0 +1,114 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.common.RestaurantRating;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+// This class contains the test cases regarding the queue of restaurant ratings written in batches
+public class RestaurantRatingWriteBehindTest {
+
+    private static final int RESTAURANT_ID = 7;
+
+    // Customer whose rating the database rejects
+    private static final int REJECTED_CUSTOMER_ID = 13;
+
+    private RestaurantRatingDao mockRestaurantRatingDao;
+
+    private ApplicationEventPublisher mockEventPublisher;
+
+    private RestaurantRatingWriteBehind writeBehind;
+
+    @Before
+    public void setUp() {
+        mockRestaurantRatingDao = mock(RestaurantRatingDao.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        writeBehind = new RestaurantRatingWriteBehind(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(writeBehind, "restaurantRatingDao", mockRestaurantRatingDao);
+        ReflectionTestUtils.setField(writeBehind, "catalogEntityCache", mock(CatalogEntityCache.class));
+        ReflectionTestUtils.setField(writeBehind, "eventPublisher", mockEventPublisher);
+        ReflectionTestUtils.setField(writeBehind, "maxPending", 100);
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMillis", 3600000L);
+        ReflectionTestUtils.setField(writeBehind, "maxRetryDelayMillis", 3600000L);
+        ReflectionTestUtils.setField(writeBehind, "maxAttempts", 2);
+        writeBehind.startFlushExecutor();
+
+        when(mockRestaurantRatingDao.getRatings(any())).thenReturn(Collections.emptyList());
+        when(mockRestaurantRatingDao.insertRatings(anyList())).thenAnswer(invocation -> {
+            final List<RestaurantRating> ratings = invocation.getArgument(0);
+            for (RestaurantRating rating : ratings) {
+                if (rating.getCustomerId() == REJECTED_CUSTOMER_ID) {
+                    throw new IllegalStateException("Rejected rating");
+                }
+            }
+            final int[] inserted = new int[ratings.size()];
+            Arrays.fill(inserted, 1);
+            return inserted;
+        });
+        when(mockRestaurantRatingDao.updateRatings(anyList())).thenReturn(new int[0]);
+    }
+
+    @After
+    public void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    //This test case passes when the queued ratings are written in one flush and the rating change is announced.
+    @Test
+    public void shouldWriteQueuedRatings() throws Exception {
+        writeBehind.submit(1, RESTAURANT_ID, BigDecimal.valueOf(4));
+        writeBehind.submit(2, RESTAURANT_ID, BigDecimal.valueOf(5));
+        assertEquals(2, writeBehind.getPendingCount());
+        assertEquals(2, writeBehind.flush());
+        assertEquals(0, writeBehind.getPendingCount());
+        verify(mockEventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    //This test case passes when a failed flush keeps its ratings queued until they have failed the maximum number of
+    // times, and then only the rating rejected on its own is dropped.
+    @Test
+    public void shouldDropOnlyRejectedRatingAfterMaximumAttempts() throws Exception {
+        writeBehind.submit(1, RESTAURANT_ID, BigDecimal.valueOf(4));
+        writeBehind.submit(REJECTED_CUSTOMER_ID, RESTAURANT_ID, BigDecimal.valueOf(5));
+        assertEquals(0, writeBehind.flush());
+        assertEquals(2, writeBehind.getPendingCount());
+        verify(mockEventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+
+        assertEquals(1, writeBehind.flush());
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals(1L, writeBehind.getDroppedCount());
+        verify(mockEventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    //This test case passes when a customer rating again after a failed flush starts the failed attempts over.
+    @Test
+    public void shouldStartAttemptsOverForNewRating() throws Exception {
+        writeBehind.submit(REJECTED_CUSTOMER_ID, RESTAURANT_ID, BigDecimal.valueOf(4));
+        writeBehind.flush();
+        writeBehind.submit(REJECTED_CUSTOMER_ID, RESTAURANT_ID, BigDecimal.valueOf(5));
+        writeBehind.flush();
+        assertEquals(1, writeBehind.getPendingCount());
+        assertEquals(0L, writeBehind.getDroppedCount());
+        writeBehind.flush();
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals(1L, writeBehind.getDroppedCount());
+    }
+}
@@ -0,0 +1,147 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.upgrad.FoodOrderingApp.service.common.CatalogChangedEvent;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// This class contains the test cases regarding the in-memory restaurant search index
+public class RestaurantSearchIndexTest {
+
+    private RestaurantDao mockRestaurantDao;
+
+    private RestaurantSearchIndex searchIndex;
+
+    @Before
+    public void setUp() {
+        mockRestaurantDao = mock(RestaurantDao.class);
+        searchIndex = new RestaurantSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "restaurantDao", mockRestaurantDao);
+        when(mockRestaurantDao.getRestaurantNames()).thenReturn(Arrays.asList(
+                row(1, "Pizza Hut"), row(2, "Dosa Plaza"), row(3, "Taco Bell"), row(4, "Cafe Mocha")));
+        when(mockRestaurantDao.getRestaurantCategoryNames()).thenReturn(Arrays.asList(
+                row(1, "Italian"), row(2, "Indian"), row(3, "Mexican"), row(4, "Drinks")));
+        when(mockRestaurantDao.getRestaurantItemNames()).thenReturn(Arrays.asList(
+                row(1, "Garlic bread"), row(2, "Masala dosa"), row(3, "Nachos"), row(4, "Pizza slice")));
+    }
+
+    //This test case passes when a text is split into lower cased words of letters and digits.
+    @Test
+    public void shouldSplitTextIntoWords() {
+        assertEquals(Arrays.asList("pizza", "hut", "café", "22"), RestaurantSearchIndex.words(" Pizza-Hut, CAFÉ 22!"));
+        assertEquals(Collections.emptyList(), RestaurantSearchIndex.words(" ,.-"));
+        assertEquals(Collections.emptyList(), RestaurantSearchIndex.words(null));
+    }
+
+    //This test case passes when a word has one gram per letter, the first and the last padded with a space.
+    @Test
+    public void shouldPadGramsAtBothEnds() {
+        assertEquals(Arrays.asList(" pi", "piz", "izz", "zza", "za "), new ArrayList<>(RestaurantSearchIndex.grams("pizza")));
+        assertEquals(Collections.singletonList(" a "), new ArrayList<>(RestaurantSearchIndex.grams("a")));
+    }
+
+    //This test case passes when substitutions, insertions, deletions and transpositions count as one typo each.
+    @Test
+    public void shouldCountTypos() {
+        assertEquals(0, RestaurantSearchIndex.distance("pizza", "pizza", 2));
+        assertEquals(1, RestaurantSearchIndex.distance("pixza", "pizza", 2));
+        assertEquals(1, RestaurantSearchIndex.distance("piza", "pizza", 2));
+        assertEquals(1, RestaurantSearchIndex.distance("pizzza", "pizza", 2));
+        assertEquals(1, RestaurantSearchIndex.distance("tcao", "taco", 2));
+        assertEquals(2, RestaurantSearchIndex.distance("pxzxa", "pizza", 2));
+    }
+
+    //This test case passes when the distance stops at one more than the maximum once it is known to exceed it.
+    @Test
+    public void shouldStopCountingTyposBeyondMaximum() {
+        assertEquals(2, RestaurantSearchIndex.distance("pizza", "pasta", 1));
+        assertEquals(2, RestaurantSearchIndex.distance("pizza", "pizzeria", 1));
+        assertEquals(3, RestaurantSearchIndex.distance("burger", "pizza", 2));
+    }
+
+    //This test case passes when nothing is found before the index is built.
+    @Test
+    public void shouldReturnNullBeforeBuild() {
+        assertNull(searchIndex.search("pizza"));
+    }
+
+    //This test case passes when a restaurant is found by its name, category or item and ranked by where it matched.
+    @Test
+    public void shouldRankMatchOfNameFirst() {
+        assertTrue(searchIndex.rebuild());
+        assertEquals(Arrays.asList(1, 4), restaurantIds(searchIndex.search("pizza")));
+        assertEquals(Arrays.asList(2), restaurantIds(searchIndex.search("INDIAN")));
+        assertEquals(Collections.emptyList(), restaurantIds(searchIndex.search("burger")));
+        assertEquals(Collections.emptyList(), restaurantIds(searchIndex.search(" ")));
+    }
+
+    //This test case passes when every word of the search text has to match.
+    @Test
+    public void shouldMatchEveryWord() {
+        searchIndex.rebuild();
+        assertEquals(Arrays.asList(2), restaurantIds(searchIndex.search("dosa masala")));
+        assertEquals(Collections.emptyList(), restaurantIds(searchIndex.search("dosa nachos")));
+    }
+
+    //This test case passes when a word is found by its beginning and by its middle, the beginning scoring higher.
+    @Test
+    public void shouldMatchPrefixAndInfix() {
+        searchIndex.rebuild();
+        assertEquals(Arrays.asList(3), restaurantIds(searchIndex.search("mexi")));
+        assertEquals(Arrays.asList(3), restaurantIds(searchIndex.search("xican")));
+        assertTrue(searchIndex.search("mexi").get(0).getScore() > searchIndex.search("xican").get(0).getScore());
+    }
+
+    //This test case passes when a short word with a typo in the middle, which shares no inner gram with the indexed
+    // word, is still found.
+    @Test
+    public void shouldMatchTypoInShortWord() {
+        searchIndex.rebuild();
+        assertEquals(Arrays.asList(1, 4), restaurantIds(searchIndex.search("pixza")));
+        assertEquals(Arrays.asList(3), restaurantIds(searchIndex.search("tcao")));
+        assertEquals(Arrays.asList(2), restaurantIds(searchIndex.search("dsoa")));
+        assertEquals(Arrays.asList(1), restaurantIds(searchIndex.search("garlik")));
+        assertEquals(Arrays.asList(3), restaurantIds(searchIndex.search("mexcian")));
+    }
+
+    //This test case passes when words of three letters or less are not matched with typos.
+    @Test
+    public void shouldNotMatchTypoInTinyWord() {
+        searchIndex.rebuild();
+        assertEquals(Arrays.asList(1), restaurantIds(searchIndex.search("hut")));
+        assertEquals(Collections.emptyList(), restaurantIds(searchIndex.search("hat")));
+    }
+
+    //This test case passes when the index is rebuilt on a reference data change and not on a rating change.
+    @Test
+    public void shouldRebuildOnReferenceDataChangeOnly() {
+        searchIndex.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Change.RESTAURANT_RATING));
+        assertNull(searchIndex.search("pizza"));
+        searchIndex.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Change.REFERENCE_DATA));
+        assertFalse(searchIndex.search("pizza").isEmpty());
+        verify(mockRestaurantDao).getRestaurantNames();
+    }
+
+    private static List<Integer> restaurantIds(final List<RestaurantSearchIndex.Match> matches) {
+        final List<Integer> restaurantIds = new ArrayList<>();
+        matches.forEach(match -> restaurantIds.add(match.getRestaurantId()));
+        return restaurantIds;
+    }
+
+    private static Object[] row(final int restaurantId, final String name) {
+        return new Object[]{restaurantId, name};
+    }
+}
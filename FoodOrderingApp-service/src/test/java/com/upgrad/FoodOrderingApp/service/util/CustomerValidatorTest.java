@@ -0,0 +1,39 @@
+package com.upgrad.FoodOrderingApp.service.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// This class contains the test cases regarding the checks of the email, contact number and password of a customer
+public class CustomerValidatorTest {
+
+    //This test case passes when an email of letters and digits with a domain is accepted, in any case, and others not.
+    @Test
+    public void shouldValidateEmail() {
+        assertTrue(CustomerValidator.isValidEmail("customer@example.com"));
+        assertTrue(CustomerValidator.isValidEmail("Customer1@Example.IN"));
+        assertFalse(CustomerValidator.isValidEmail("customer.name@example"));
+        assertFalse(CustomerValidator.isValidEmail("customer@example.c"));
+        assertFalse(CustomerValidator.isValidEmail(null));
+    }
+
+    //This test case passes when only contact numbers of exactly ten digits are accepted.
+    @Test
+    public void shouldValidateContactNumber() {
+        assertTrue(CustomerValidator.isValidContactNumber("9876543210"));
+        assertFalse(CustomerValidator.isValidContactNumber("98765-43210"));
+        assertFalse(CustomerValidator.isValidContactNumber("987654321"));
+        assertFalse(CustomerValidator.isValidContactNumber(null));
+    }
+
+    //This test case passes when a password needs eight characters with a digit, both cases and a special character.
+    @Test
+    public void shouldValidatePasswordStrength() {
+        assertTrue(CustomerValidator.isStrongPassword("Str0ng#Passw0rd"));
+        assertFalse(CustomerValidator.isStrongPassword("weakpassword"));
+        assertFalse(CustomerValidator.isStrongPassword("Sh0rt#p"));
+        assertFalse(CustomerValidator.isStrongPassword("N0Special1"));
+        assertFalse(CustomerValidator.isStrongPassword(null));
+    }
+}